@@ -1,6 +1,7 @@
 package com.mahirung.rpgcore;
 
 import com.mahirung.rpgcore.commands.*;
+import com.mahirung.rpgcore.data.StorageFactory;
 import com.mahirung.rpgcore.hooks.RPGCoreExpansion;
 import com.mahirung.rpgcore.listeners.*;
 import com.mahirung.rpgcore.managers.*;
@@ -23,6 +24,7 @@ public class RPGCore extends JavaPlugin {
     private DamageLogManager damageLogManager; // [추가] 데미지 기여도/메모리 관리
     private DamageSkinManager damageSkinManager;
     private SkillManager skillManager;
+    private StatManager statManager;
 
     @Override
     public void onEnable() {
@@ -41,8 +43,8 @@ public class RPGCore extends JavaPlugin {
         // 3. Config 매니저 초기화
         configManager = new ConfigManager(this);
 
-        // 4. 데이터베이스 연결 (설정에 따라 활성화)
-        if (getConfig().getBoolean("database.enabled")) {
+        // 4. 데이터베이스 연결 (storage.type 이 postgres 일 때만)
+        if (StorageFactory.resolveType(getConfig()) == StorageFactory.StorageType.POSTGRES) {
             try {
                 databaseManager = new DatabaseManager(this);
             } catch (Exception e) {
@@ -69,6 +71,11 @@ public class RPGCore extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // 데미지 표시 엔티티 제거
+        if (damageSkinManager != null) {
+            damageSkinManager.shutdown();
+        }
+
         // 플레이어 데이터 안전 저장
         if (playerDataManager != null) {
             playerDataManager.shutdown(); // 동기 방식으로 전체 저장
@@ -105,6 +112,9 @@ public class RPGCore extends JavaPlugin {
         if (classManager != null) {
             classManager.loadClasses();
         }
+        if (statManager != null) {
+            statManager.refreshAll(); // 강화/룬 스탯 설정이 바뀌었을 수 있음
+        }
         getLogger().info("RPGCore 설정을 리로드했습니다.");
     }
 
@@ -132,6 +142,7 @@ public class RPGCore extends JavaPlugin {
         refineManager = new RefineManager(this);
         enhanceManager = new EnhanceManager(this);
         runeManager = new RuneManager(this);
+        statManager = new StatManager(this); // 강화/룬 매니저 이후
         
         // 데미지 로그 매니저 (메모리 누수 방지 포함)
         damageLogManager = new DamageLogManager(this);
@@ -142,6 +153,7 @@ public class RPGCore extends JavaPlugin {
 
     private void registerListeners() {
         PluginManager pm = getServer().getPluginManager();
+        pm.registerEvents(new PlayerPreLoginListener(this), this);
         pm.registerEvents(new PlayerJoinListener(this), this);
         pm.registerEvents(new PlayerQuitListener(this), this);
         pm.registerEvents(new InventoryCloseListener(this), this);
@@ -149,10 +161,13 @@ public class RPGCore extends JavaPlugin {
         pm.registerEvents(new InventoryDragListener(this), this);
         pm.registerEvents(new EntityDamageListener(this), this);
         pm.registerEvents(new EntityDeathListener(this), this);
+        pm.registerEvents(new EntityRemoveListener(this), this);
         pm.registerEvents(new PlayerMoveListener(this), this); // 빈 껍데기지만 유지
         pm.registerEvents(new PlayerDropItemListener(this), this);
         pm.registerEvents(new PlayerInteractListener(this), this);
         pm.registerEvents(new NPCInteractListener(this), this);
+        pm.registerEvents(new EquipmentChangeListener(this), this);
+        pm.registerEvents(new ItemsAdderLoadListener(this), this);
     }
 
     private void registerCommands() {
@@ -177,4 +192,5 @@ public class RPGCore extends JavaPlugin {
     public DamageLogManager getDamageLogManager() { return damageLogManager; } // [추가]
     public DamageSkinManager getDamageSkinManager() { return damageSkinManager; }
     public SkillManager getSkillManager() { return skillManager; }
+    public StatManager getStatManager() { return statManager; }
 }
\ No newline at end of file
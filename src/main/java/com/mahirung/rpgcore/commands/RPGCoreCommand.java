@@ -1,8 +1,27 @@
 package com.mahirung.rpgcore.commands;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.CircuitBreaker;
+import com.mahirung.rpgcore.data.FileFormatBenchmark;
+import com.mahirung.rpgcore.data.InactiveArchiver;
 import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataTransfer;
+import com.mahirung.rpgcore.data.PlayerJournal;
+import com.mahirung.rpgcore.data.StaggeredAutosave;
+import com.mahirung.rpgcore.data.Storage;
+import com.mahirung.rpgcore.data.StorageBenchmark;
+import com.mahirung.rpgcore.data.StorageImporter;
+import com.mahirung.rpgcore.data.WarmCache;
+import com.mahirung.rpgcore.data.WriteBehindQueue;
+import com.mahirung.rpgcore.database.PlayerSessions;
+import com.mahirung.rpgcore.managers.DamageIndicatorRenderer;
+import com.mahirung.rpgcore.managers.DatabaseManager;
+import com.mahirung.rpgcore.managers.PlayerDataManager;
 import com.mahirung.rpgcore.util.ChatUtil;
+import com.mahirung.rpgcore.util.LatencyHistogram;
+import com.mahirung.rpgcore.util.PerfMetrics;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -12,17 +31,31 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
 /**
  * RPGCore 메인 관리 명령어 (/rpgcore)
  * - /rpgcore reload : 설정 리로드
  * - /rpgcore version : 버전 확인
  * - /rpgcore stats : 내 스탯 확인 (추가됨)
+ * - /rpgcore storage : 저장 큐 상태 확인 (관리자)
+ * - /rpgcore storage bench [인원] : 파일 저장 포맷 처리량 비교 (관리자)
+ * - /rpgcore storage import <file|postgres> [overwrite] : 다른 저장 방식의 데이터를 현재 저장소로 가져오기 (관리자)
+ * - /rpgcore storage archive : 비활성 유저 보관 즉시 실행 (관리자)
+ * - /rpgcore data export <ndjson|csv> [resume] : 전체 플레이어 데이터 내보내기 (관리자)
+ * - /rpgcore data import <파일명> [overwrite] [resume] : 내보낸 파일을 현재 저장소로 가져오기 (관리자)
+ * - /rpgcore perf [reset] : 저장 경로 지연 시간 분위수 (관리자)
  * - /rpgcore help : 도움말
  */
 public class RPGCoreCommand implements CommandExecutor, TabCompleter {
 
     private final RPGCore plugin;
+    private final AtomicBoolean transferRunning = new AtomicBoolean(); // 내보내기/가져오기는 한 번에 1개만
 
     public RPGCoreCommand(RPGCore plugin) {
         this.plugin = plugin;
@@ -61,6 +94,43 @@ public class RPGCoreCommand implements CommandExecutor, TabCompleter {
                 showStats(player);
                 break;
 
+            case "storage":
+                if (!sender.hasPermission("rpgcore.admin.storage")) {
+                    sender.sendMessage(ChatUtil.format("&c[RPGCore] &f이 명령어를 실행할 권한이 없습니다."));
+                    return true;
+                }
+                if (args.length >= 2 && args[1].equalsIgnoreCase("bench")) {
+                    runFormatBenchmark(sender, args.length >= 3 ? args[2] : "500");
+                } else if (args.length >= 2 && args[1].equalsIgnoreCase("import")) {
+                    runImport(sender, args.length >= 3 ? args[2] : "", args.length >= 4 && args[3].equalsIgnoreCase("overwrite"));
+                } else if (args.length >= 2 && args[1].equalsIgnoreCase("archive")) {
+                    runArchive(sender);
+                } else {
+                    showStorageStatus(sender);
+                }
+                break;
+
+            case "data":
+                if (!sender.hasPermission("rpgcore.admin.data")) {
+                    sender.sendMessage(ChatUtil.format("&c[RPGCore] &f이 명령어를 실행할 권한이 없습니다."));
+                    return true;
+                }
+                runTransfer(sender, args);
+                break;
+
+            case "perf":
+                if (!sender.hasPermission("rpgcore.admin.perf")) {
+                    sender.sendMessage(ChatUtil.format("&c[RPGCore] &f이 명령어를 실행할 권한이 없습니다."));
+                    return true;
+                }
+                if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+                    PerfMetrics.resetAll();
+                    sender.sendMessage(ChatUtil.format("&a[RPGCore] &f지연 시간 통계를 초기화했습니다."));
+                } else {
+                    showPerf(sender);
+                }
+                break;
+
             case "help":
             default:
                 sendHelp(sender);
@@ -93,20 +163,288 @@ public class RPGCoreCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(ChatUtil.format("&8&m                                       "));
     }
 
+    /** Write-Behind 저장 큐 통계 출력 */
+    private void showStorageStatus(CommandSender sender) {
+        WriteBehindQueue queue = plugin.getPlayerDataManager().getWriteBehindQueue();
+        WriteBehindQueue.FlushResult last = queue.getLastResult();
+
+        sender.sendMessage(ChatUtil.format("&a===== [ RPGCore 저장 상태 ] ====="));
+        sender.sendMessage(ChatUtil.format("&f저장 방식: &e" + queue.getStorage().getName() + " &7(배치 " + queue.getFlushSize() + "건)"));
+        sender.sendMessage(ChatUtil.format("&f대기 중: &e" + queue.getPendingCount() + "명"));
+        CircuitBreaker breaker = queue.getBreaker();
+        if (breaker != null) {
+            String color = breaker.getState() == CircuitBreaker.State.CLOSED ? "&a" : "&c";
+            sender.sendMessage(ChatUtil.format("&f서킷 브레이커: " + color + breaker.getState()
+                    + (breaker.getState() == CircuitBreaker.State.OPEN ? " &7(" + (breaker.getRemainingOpenMillis() / 1000) + "초 후 재시도)" : "")
+                    + " &7연속 실패 " + breaker.getConsecutiveFailures() + " / 차단 " + breaker.getTripCount() + "회 / 즉시 거절 " + breaker.getRejectedCount() + "건"));
+            sender.sendMessage(ChatUtil.format("&f디스크 대기열: &e" + queue.getSpillQueue().size() + "명 &7(" + (queue.getSpillQueue().getFileBytes() / 1024)
+                    + "KB) 누적 보관 " + queue.getTotalSpilled() + " / 복구 기록 " + queue.getTotalDrained()));
+        }
+        PlayerJournal journal = plugin.getPlayerDataManager().getJournal();
+        if (journal != null) {
+            sender.sendMessage(ChatUtil.format("&f저널: &e세그먼트 " + journal.getSegmentCount() + "개 &7/ &e미압축 " + journal.getTailSize()
+                    + "명 &7/ &e시퀀스 " + journal.getSequence()));
+        }
+        sender.sendMessage(ChatUtil.format("&f최근 플러시: &a저장 " + last.getWritten() + " &7/ 건너뜀 " + last.getSkipped()
+                + " &7/ &c실패 " + last.getFailed() + " &7(" + last.getElapsedMillis() + "ms)"));
+        sender.sendMessage(ChatUtil.format("&f누적 (" + queue.getFlushCount() + "회): &a저장 " + queue.getTotalWritten()
+                + " &7/ 건너뜀 " + queue.getTotalSkipped() + " &7/ &c실패 " + queue.getTotalFailed()));
+
+        PlayerDataManager pdm = plugin.getPlayerDataManager();
+        StaggeredAutosave autosave = pdm.getAutosave();
+        if (autosave != null) {
+            sender.sendMessage(ChatUtil.format("&f분산 저장: &e한도 " + autosave.getCohortLimit() + "명 &7/ 최근 " + autosave.getLastCohort()
+                    + "명 (" + autosave.getLastElapsedMillis() + "ms) / 밀린 슬롯 " + autosave.getLagSlots() + "/" + autosave.getSlotCount()
+                    + " / " + autosave.getCohorts() + "회"));
+        }
+        sender.sendMessage(ChatUtil.format("&f선로딩: &a적중 " + pdm.getPrefetchHits() + " &7/ 미적중 " + pdm.getPrefetchMisses()
+                + " &7/ 폐기 " + pdm.getPrefetchEvicted() + " &7/ 대기 " + pdm.getPrefetchedCount()));
+        sender.sendMessage(ChatUtil.format("&f접속→데이터: &e최근 " + pdm.getLastAvailabilityMillis() + "ms &7/ 평균 "
+                + String.format("%.1f", pdm.getAverageAvailabilityMillis()) + "ms &7/ 최대 " + pdm.getMaxAvailabilityMillis() + "ms"));
+
+        WarmCache warm = pdm.getWarmCache();
+        if (warm != null) {
+            sender.sendMessage(ChatUtil.format("&fWarm 캐시: &e" + warm.getSize() + "명 / " + (warm.getTotalBytes() / 1024) + "KB"
+                    + " &7(한도 " + (warm.getMaxBytes() / 1024) + "KB) &f적중률 &a" + String.format("%.1f", warm.getHitRate() * 100) + "%"
+                    + " &7(" + warm.getHits() + "/" + (warm.getHits() + warm.getMisses()) + ", 만료 " + warm.getExpired() + ", 용량 제거 " + warm.getEvicted() + ")"));
+        }
+
+        DatabaseManager db = plugin.getDatabaseManager();
+        if (db != null && db.isStateFormat()) {
+            sender.sendMessage(ChatUtil.format("&f행 포맷: &estate &7(바이너리 1컬럼 + player_class/level/exp, 매번 전체 기록)"));
+            sender.sendMessage(ChatUtil.format("&f기록량: &e" + db.getColumnsWritten() + "컬럼 / " + db.getBytesWritten()
+                    + "B &f버전 충돌: &c" + db.getVersionConflicts() + "건"));
+        } else if (db != null) {
+            sender.sendMessage(ChatUtil.format("&f부분 저장: &a최근 " + last.getSavedColumns() + "컬럼 / " + last.getSavedBytes() + "B 절약"
+                    + " &7(누적 " + db.getColumnsSaved() + "컬럼 / " + db.getBytesSaved() + "B, 변경 없는 행 " + db.getRowsSkipped() + ")"));
+            sender.sendMessage(ChatUtil.format("&f기록량: &e" + db.getColumnsWritten() + "컬럼 / " + db.getBytesWritten()
+                    + "B &7(UPDATE 문 " + db.getCachedStatementCount() + "종) &f버전 충돌: &c" + db.getVersionConflicts() + "건"));
+        }
+        if (db != null && queue.getTotalConflicts() > 0) {
+            sender.sendMessage(ChatUtil.format("&f충돌 처리: &e다시 기록 " + queue.getTotalReapplied() + "명 &7(접속 중) &f/ &c버림 " + queue.getTotalDiscarded() + "명 &7(다른 서버가 최신)"));
+        }
+        InactiveArchiver archiver = pdm.getArchiver();
+        if (archiver != null) {
+            sender.sendMessage(ChatUtil.format("&f비활성 보관: &e" + archiver.getHorizonDays() + "일 기준 &7/ 최근 " + archiver.getLastArchived()
+                    + "명 (" + archiver.getLastElapsedMillis() + "ms) / 누적 " + archiver.getTotalArchived() + "명 / " + archiver.getRuns() + "회"
+                    + (archiver.isRunning() ? " &a(진행 중)" : "")));
+        }
+        PlayerSessions sessions = pdm.getSessions();
+        if (sessions != null) {
+            sender.sendMessage(ChatUtil.format("&f세션 소유권: &e" + sessions.getServerId() + " &7/ 소유 " + sessions.getOwnedCount()
+                    + "명 (저장 대기 " + sessions.getLingeringCount() + "명)"));
+        }
+    }
+
+    /** 비활성 유저 보관 즉시 실행 (archive.enabled 일 때만) */
+    private void runArchive(CommandSender sender) {
+        InactiveArchiver archiver = plugin.getPlayerDataManager().getArchiver();
+        if (archiver == null) {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &fconfig.yml 의 archive.enabled 가 꺼져 있습니다."));
+        } else if (archiver.runNow()) {
+            sender.sendMessage(ChatUtil.format("&a[RPGCore] &f비활성 유저 보관을 시작했습니다. &7(결과: /rpgcore storage)"));
+        } else {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &f이미 보관 작업이 진행 중입니다."));
+        }
+    }
+
+    /** 저장 경로 지연 시간 (p50/p95/p99/max, ms) + 커넥션 풀 상태 */
+    private void showPerf(CommandSender sender) {
+        sender.sendMessage(ChatUtil.format("&a===== [ RPGCore 지연 시간 (ms) ] ====="));
+        sender.sendMessage(ChatUtil.format("&7항목: 횟수 | p50 / p95 / p99 / 최대"));
+        for (LatencyHistogram histogram : PerfMetrics.all()) {
+            if (histogram.getCount() == 0) continue;
+            sender.sendMessage(ChatUtil.format("&f" + histogram.getName() + ": &e" + histogram.getCount() + " &7| &a"
+                    + formatMillis(histogram.percentile(0.50)) + " &7/ &e" + formatMillis(histogram.percentile(0.95))
+                    + " &7/ &6" + formatMillis(histogram.percentile(0.99)) + " &7/ &c" + formatMillis(histogram.getMaxNanos())));
+        }
+
+        DatabaseManager db = plugin.getDatabaseManager();
+        if (db != null && db.getDataSource() != null && db.getDataSource().getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = db.getDataSource().getHikariPoolMXBean();
+            sender.sendMessage(ChatUtil.format("&f커넥션 풀: &e사용 중 " + pool.getActiveConnections() + " &7/ 유휴 " + pool.getIdleConnections()
+                    + " &7/ 전체 " + pool.getTotalConnections() + " (최대 " + db.getDataSource().getMaximumPoolSize() + ")"
+                    + " &7/ &c대기 스레드 " + pool.getThreadsAwaitingConnection()));
+        }
+        DamageIndicatorRenderer indicators = plugin.getDamageSkinManager().getRenderer();
+        if (indicators != null) {
+            sender.sendMessage(ChatUtil.format("&f데미지 표시: &a" + indicators.getShown() + "회 &7/ 합침 " + indicators.getMerged()
+                    + " / 한도 초과 생략 " + indicators.getDropped() + " / 엔티티 생성 " + indicators.getSpawned()
+                    + " / 표시 중 " + indicators.getActiveCount()));
+        }
+        sender.sendMessage(ChatUtil.format("&7자동 저장 주기 " + plugin.getConfig().getLong("save.flush-interval-seconds", 60)
+                + "초, 배치 " + plugin.getConfig().getInt("save.flush-size", 100) + "건 &8(/rpgcore perf reset 으로 초기화)"));
+    }
+
+    private String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    /** 파일 저장 포맷(YAML vs 바이너리) 처리량 비교 (비동기 실행) */
+    private void runFormatBenchmark(CommandSender sender, String countArg) {
+        int players;
+        try {
+            players = Math.max(1, Math.min(10000, Integer.parseInt(countArg)));
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &f인원 수는 숫자로 입력해주세요."));
+            return;
+        }
+
+        sender.sendMessage(ChatUtil.format("&a[RPGCore] &f{0}명 기준 저장 포맷 벤치마크를 시작합니다...", players));
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                FileFormatBenchmark.Result r = new FileFormatBenchmark(plugin).run(players);
+                List<StorageBenchmark.Result> storages = new StorageBenchmark(plugin).run(players);
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    sender.sendMessage(ChatUtil.format("&a===== [ 저장 포맷 벤치마크 ({0}명) ] =====", r.players()));
+                    sender.sendMessage(ChatUtil.format("&fYAML   저장 &e" + formatRate(r.players(), r.yamlSaveNanos())
+                            + " &7| &f로드 &e" + formatRate(r.players(), r.yamlLoadNanos())));
+                    sender.sendMessage(ChatUtil.format("&f바이너리 저장 &e" + formatRate(r.players(), r.binarySaveNanos())
+                            + " &7| &f로드 &e" + formatRate(r.players(), r.binaryLoadNanos())));
+                    for (StorageBenchmark.Result s : storages) {
+                        sender.sendMessage(ChatUtil.format("&f[" + s.storage() + "] 배치 저장 &e" + formatRate(s.players(), s.saveNanos())
+                                + " &7| &f로드 &e" + formatRate(s.players(), s.loadNanos())));
+                    }
+                });
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "저장 포맷 벤치마크 실패", e);
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(ChatUtil.format("&c[RPGCore] &f벤치마크 실패: " + e.getMessage())));
+            }
+        });
+    }
+
+    /** 다른 저장 방식에서 현재 저장소로 가져오기 (저장소 I/O 스레드에서 실행) */
+    private void runImport(CommandSender sender, String sourceArg, boolean overwrite) {
+        StorageImporter.Source source = StorageImporter.parseSource(sourceArg);
+        if (source == null) {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &f사용법: /rpgcore storage import <file|postgres> [overwrite]"));
+            return;
+        }
+
+        Storage storage = plugin.getPlayerDataManager().getStorage();
+        Set<UUID> resident = plugin.getPlayerDataManager().getResidentUuids(); // 메인 스레드에서 복사
+        StorageImporter importer = new StorageImporter(plugin, storage, overwrite);
+        sender.sendMessage(ChatUtil.format("&a[RPGCore] &f" + source.name().toLowerCase() + " → " + storage.getName() + " 가져오기를 시작합니다..."
+                + (overwrite ? " &c(기존 데이터 덮어쓰기)" : "")));
+
+        // 블로킹 가져오기는 전용 비동기 스레드에서 (저장소 I/O 스레드를 점유하면 게임 저장이 밀림)
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.run(source, resident);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task)).whenComplete((result, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                plugin.getLogger().log(Level.WARNING, "저장소 가져오기 실패", cause);
+                sender.sendMessage(ChatUtil.format("&c[RPGCore] &f가져오기 실패: " + cause.getMessage()));
+                return;
+            }
+            sender.sendMessage(ChatUtil.format("&a[RPGCore] &f가져오기 완료: &a" + result.imported() + "명 &7/ 건너뜀 " + result.skipped()
+                    + " &7/ &c실패 " + result.failed() + " &7(" + result.elapsedMillis() + "ms)"));
+        }));
+    }
+
+    /** 전체 데이터 내보내기/가져오기 (비동기 스레드에서 스트리밍, 진행 상황은 주기적으로 알림) */
+    private void runTransfer(CommandSender sender, String[] args) {
+        String action = args.length >= 2 ? args[1].toLowerCase() : "";
+        List<String> options = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) options.add(args[i].toLowerCase());
+        boolean resume = options.contains("resume");
+
+        PlayerDataTransfer.Format format = null;
+        if (action.equals("export")) {
+            format = args.length >= 3 ? PlayerDataTransfer.Format.parse(args[2]) : null;
+            if (format == null) {
+                sender.sendMessage(ChatUtil.format("&c[RPGCore] &f사용법: /rpgcore data export <ndjson|csv> [resume]"));
+                return;
+            }
+        } else if (!action.equals("import") || args.length < 3) {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &f사용법: /rpgcore data export <ndjson|csv> [resume] | import <파일명> [overwrite] [resume]"));
+            return;
+        }
+        if (!transferRunning.compareAndSet(false, true)) {
+            sender.sendMessage(ChatUtil.format("&c[RPGCore] &f이미 진행 중인 내보내기/가져오기가 있습니다."));
+            return;
+        }
+
+        Storage storage = plugin.getPlayerDataManager().getStorage();
+        Set<UUID> resident = plugin.getPlayerDataManager().getResidentUuids(); // 메인 스레드에서 복사
+        PlayerDataTransfer transfer = new PlayerDataTransfer(plugin);
+        PlayerDataTransfer.Format exportFormat = format;
+        String fileName = args.length >= 3 ? args[2] : "";
+        boolean overwrite = options.contains("overwrite");
+        String title = exportFormat != null ? "내보내기" : "가져오기";
+        PlayerDataTransfer.Progress progress = (rows, percent) -> Bukkit.getScheduler().runTask(plugin, () ->
+                sender.sendMessage(ChatUtil.format("&7[RPGCore] " + title + " 진행 중: " + rows + "명"
+                        + (percent >= 0 ? String.format(" (%.1f%%)", percent) : ""))));
+
+        sender.sendMessage(ChatUtil.format("&a[RPGCore] &f" + storage.getName() + " " + title + "를 시작합니다..."
+                + (resume ? " &7(체크포인트부터 재개)" : "") + (overwrite ? " &c(기존 데이터 덮어쓰기)" : "")));
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                PlayerDataTransfer.Result result = exportFormat != null
+                        ? transfer.export(storage, exportFormat, resume, progress)
+                        : transfer.importFile(fileName, storage, resident, overwrite, resume, progress);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ChatUtil.format("&a[RPGCore] &f" + title + " 완료: &e"
+                        + result.file().getName() + " &a" + result.rows() + "명"
+                        + (exportFormat == null ? " &7/ 건너뜀 " + result.skipped() + " &7/ &c실패 " + result.failed() : "")
+                        + " &7(" + result.elapsedMillis() + "ms" + (result.resumed() ? ", 재개" : "") + ")")));
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "데이터 " + title + " 실패", e);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(ChatUtil.format("&c[RPGCore] &f" + title + " 실패: " + e.getMessage()
+                        + " &7(resume 을 붙여 다시 실행하면 마지막 체크포인트부터 이어서 진행)")));
+            } finally {
+                transferRunning.set(false);
+            }
+        });
+    }
+
+    private String formatRate(int players, long nanos) {
+        return String.format("%.0f명/초 (%.1fms)", FileFormatBenchmark.Result.perSecond(players, nanos), nanos / 1_000_000.0);
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(ChatUtil.format("&a===== [ RPGCore 명령어 도움말 ] ====="));
         sender.sendMessage(ChatUtil.format("&e/rpgcore stats &7- 내 스탯 정보 확인"));
         sender.sendMessage(ChatUtil.format("&e/rpgcore reload &7- 설정 리로드 (관리자)"));
         sender.sendMessage(ChatUtil.format("&e/rpgcore version &7- 플러그인 버전 확인"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore storage &7- 저장 큐 상태 확인 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore storage bench [인원] &7- 저장 포맷/저장소별 처리량 비교 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore storage import <file|postgres> [overwrite] &7- 현재 저장소로 가져오기 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore storage archive &7- 비활성 유저 보관 즉시 실행 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore data export <ndjson|csv> [resume] &7- 전체 데이터 내보내기 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore data import <파일명> [overwrite] [resume] &7- 내보낸 파일 가져오기 (관리자)"));
+        sender.sendMessage(ChatUtil.format("&e/rpgcore perf [reset] &7- 저장 지연 시간 통계 (관리자)"));
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 2 && args[0].equalsIgnoreCase("storage")) {
+            return List.of("bench", "import", "archive");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("data")) {
+            return List.of("export", "import");
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("data") && args[1].equalsIgnoreCase("export")) {
+            return List.of("ndjson", "csv");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("perf")) {
+            return Collections.singletonList("reset");
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("storage") && args[1].equalsIgnoreCase("import")) {
+            return List.of("file", "postgres");
+        }
         if (args.length == 1) {
             List<String> subs = new ArrayList<>();
             subs.add("stats"); // 탭 완성 추가
             subs.add("reload");
             subs.add("version");
+            subs.add("storage");
+            subs.add("data");
+            subs.add("perf");
             subs.add("help");
             return subs;
         }
@@ -0,0 +1,80 @@
+package com.mahirung.rpgcore.data;
+
+/**
+ * DB 저장용 서킷 브레이커
+ * - CLOSED: 정상, 연속 실패가 기준치에 도달하면 OPEN
+ * - OPEN: 요청을 즉시 거절 (커넥션 타임아웃을 기다리며 저장 스레드가 쌓이지 않도록), open 시간이 지나면 HALF_OPEN
+ * - HALF_OPEN: 시험 요청 1개만 허용 → 성공 시 CLOSED, 실패 시 다시 OPEN
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    // --- 통계 ---
+    private long tripCount;
+    private long rejectedCount;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = Math.max(0, openMillis);
+    }
+
+    /** 요청 허용 여부 (거절된 요청은 즉시 실패 처리) */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openMillis) {
+                    rejectedCount++;
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default: // HALF_OPEN: 시험 요청은 한 번에 하나만
+                if (probeInFlight) {
+                    rejectedCount++;
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) tripCount++;
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    // --- 상태 Getter ---
+    public synchronized State getState() { return state; }
+    public synchronized int getConsecutiveFailures() { return consecutiveFailures; }
+    public synchronized long getTripCount() { return tripCount; }
+    public synchronized long getRejectedCount() { return rejectedCount; }
+
+    /** OPEN 상태일 때 다음 시험 요청까지 남은 시간 (ms) */
+    public synchronized long getRemainingOpenMillis() {
+        if (state != State.OPEN) return 0;
+        return Math.max(0, openMillis - (System.currentTimeMillis() - openedAt));
+    }
+}
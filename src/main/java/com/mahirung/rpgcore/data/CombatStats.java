@@ -0,0 +1,23 @@
+package com.mahirung.rpgcore.data;
+
+/**
+ * 전투용 평탄화 스탯 (불변)
+ * - PlayerData: 기본(직업/레벨) + 보너스(장비 강화/룬) 합계, 스탯이 바뀔 때만 다시 생성 → 피격/타격마다 필드 읽기만
+ * - StatManager: 장비 보너스 합계를 담는 용도로도 사용
+ */
+public record CombatStats(double attack, double defense, double maxMana, double critChance, double critDamage) {
+
+    public static final CombatStats ZERO = new CombatStats(0, 0, 0, 0, 0);
+
+    /** 스탯 키(runes.yml / enhancing.yml 공통: attack, defense, max-mana, crit-chance, crit-damage)에 값 더하기 */
+    public CombatStats plus(String statKey, double value) {
+        return switch (statKey) {
+            case "attack" -> new CombatStats(attack + value, defense, maxMana, critChance, critDamage);
+            case "defense" -> new CombatStats(attack, defense + value, maxMana, critChance, critDamage);
+            case "max-mana" -> new CombatStats(attack, defense, maxMana + value, critChance, critDamage);
+            case "crit-chance" -> new CombatStats(attack, defense, maxMana, critChance + value, critDamage);
+            case "crit-damage" -> new CombatStats(attack, defense, maxMana, critChance, critDamage + value);
+            default -> this;
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package com.mahirung.rpgcore.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 플레이어 custom-data 저장소 (MemorySection 대체)
+ * - 등록된 키(CustomKeys)는 슬롯 배열에 저장: 기본형은 long[] (double 은 비트 그대로), 문자열/목록은 Object[]
+ * - 읽기/쓰기는 배열 인덱스 접근뿐 (경로 파싱, 박싱, 맵 노드 생성 없음)
+ * - 등록되지 않은 이름(이전 버전/외부 데이터)은 unknown 맵에 보존해서 저장 시 그대로 다시 기록
+ * - 메인 스레드에서만 수정, 저장 스레드에는 copy() 로 만든 복사본만 전달
+ */
+public final class CustomData {
+
+    private final long[] primitives = new long[CustomKeys.count()];
+    private final Object[] references = new Object[CustomKeys.count()];
+    private long present; // 값이 있는 슬롯 비트
+    private Map<String, Object> unknown; // 없으면 null, 수정 시 새 맵으로 교체 (복사본과 공유)
+
+    // --- 문자열 ---
+    public String getString(CustomKey key) {
+        check(key, CustomKey.Type.STRING);
+        return (String) references[key.slot()];
+    }
+
+    public String getString(CustomKey key, String def) {
+        String value = getString(key);
+        return value != null ? value : def;
+    }
+
+    public void setString(CustomKey key, String value) {
+        check(key, CustomKey.Type.STRING);
+        setReference(key, value);
+    }
+
+    // --- 문자열 목록 (수정 불가 복사본으로 보관) ---
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(CustomKey key) {
+        check(key, CustomKey.Type.STRING_LIST);
+        List<String> value = (List<String>) references[key.slot()];
+        return value != null ? value : Collections.emptyList();
+    }
+
+    public void setStringList(CustomKey key, List<String> value) {
+        check(key, CustomKey.Type.STRING_LIST);
+        setReference(key, value == null ? null : List.copyOf(value));
+    }
+
+    // --- 기본형 (값이 없으면 0 / false) ---
+    public int getInt(CustomKey key) {
+        check(key, CustomKey.Type.INT);
+        return (int) primitives[key.slot()];
+    }
+
+    public void setInt(CustomKey key, int value) {
+        check(key, CustomKey.Type.INT);
+        setPrimitive(key, value);
+    }
+
+    public long getLong(CustomKey key) {
+        check(key, CustomKey.Type.LONG);
+        return primitives[key.slot()];
+    }
+
+    public void setLong(CustomKey key, long value) {
+        check(key, CustomKey.Type.LONG);
+        setPrimitive(key, value);
+    }
+
+    public double getDouble(CustomKey key) {
+        check(key, CustomKey.Type.DOUBLE);
+        return Double.longBitsToDouble(primitives[key.slot()]);
+    }
+
+    public void setDouble(CustomKey key, double value) {
+        check(key, CustomKey.Type.DOUBLE);
+        setPrimitive(key, Double.doubleToRawLongBits(value));
+    }
+
+    public boolean getBoolean(CustomKey key) {
+        check(key, CustomKey.Type.BOOLEAN);
+        return primitives[key.slot()] != 0;
+    }
+
+    public void setBoolean(CustomKey key, boolean value) {
+        check(key, CustomKey.Type.BOOLEAN);
+        setPrimitive(key, value ? 1 : 0);
+    }
+
+    public boolean has(CustomKey key) {
+        return (present & (1L << key.slot())) != 0;
+    }
+
+    public void remove(CustomKey key) {
+        present &= ~(1L << key.slot());
+        primitives[key.slot()] = 0;
+        references[key.slot()] = null;
+    }
+
+    private void setReference(CustomKey key, Object value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        references[key.slot()] = value;
+        present |= 1L << key.slot();
+    }
+
+    private void setPrimitive(CustomKey key, long raw) {
+        primitives[key.slot()] = raw;
+        present |= 1L << key.slot();
+    }
+
+    private static void check(CustomKey key, CustomKey.Type type) {
+        if (key.type() != type) throw new IllegalArgumentException(key + " 는 " + type + " 타입이 아닙니다.");
+    }
+
+    // --- 이름 기반 입출력 (로드/저장 전용) ---
+
+    /**
+     * 저장된 이름/값 복원 (YAML custom-nbt, 바이너리 코덱, DB 컬럼)
+     * - 등록된 키는 타입에 맞게 변환해서 슬롯에, 변환할 수 없거나 등록되지 않은 값은 unknown 으로 보존
+     */
+    public void put(String name, Object value) {
+        if (value == null) return;
+        CustomKey key = CustomKeys.byName(name);
+        if (key != null && putTyped(key, value)) return;
+        Map<String, Object> next = unknown == null ? new HashMap<>() : new HashMap<>(unknown);
+        next.put(name, value instanceof List<?> list ? Collections.unmodifiableList(new ArrayList<>(list)) : value);
+        unknown = Collections.unmodifiableMap(next);
+    }
+
+    private boolean putTyped(CustomKey key, Object value) {
+        switch (key.type()) {
+            case STRING -> setString(key, value.toString());
+            case INT -> {
+                if (!(value instanceof Number number)) return false;
+                setInt(key, number.intValue());
+            }
+            case LONG -> {
+                if (!(value instanceof Number number)) return false;
+                setLong(key, number.longValue());
+            }
+            case DOUBLE -> {
+                if (!(value instanceof Number number)) return false;
+                setDouble(key, number.doubleValue());
+            }
+            case BOOLEAN -> {
+                if (!(value instanceof Boolean bool)) return false;
+                setBoolean(key, bool);
+            }
+            case STRING_LIST -> {
+                if (!(value instanceof List<?> list)) return false;
+                List<String> strings = new ArrayList<>(list.size());
+                for (Object element : list) strings.add(element == null ? null : element.toString());
+                setReference(key, Collections.unmodifiableList(strings));
+            }
+        }
+        return true;
+    }
+
+    /** 모든 값을 이름과 함께 순회 (저장 스레드에서 복사본에 대해 호출, 기본형은 여기서만 박싱) */
+    public void forEach(BiConsumer<String, Object> action) {
+        for (long bits = present; bits != 0; bits &= bits - 1) {
+            CustomKey key = CustomKeys.bySlot(Long.numberOfTrailingZeros(bits));
+            action.accept(key.name(), valueOf(key));
+        }
+        if (unknown != null) unknown.forEach(action);
+    }
+
+    private Object valueOf(CustomKey key) {
+        long raw = primitives[key.slot()];
+        return switch (key.type()) {
+            case STRING, STRING_LIST -> references[key.slot()];
+            case INT -> (int) raw;
+            case LONG -> raw;
+            case DOUBLE -> Double.longBitsToDouble(raw);
+            case BOOLEAN -> raw != 0;
+        };
+    }
+
+    /** 저장 스레드 전달용 복사본 (배열 복사, unknown 은 교체만 되므로 공유) */
+    public CustomData copy() {
+        CustomData copy = new CustomData();
+        System.arraycopy(primitives, 0, copy.primitives, 0, primitives.length);
+        System.arraycopy(references, 0, copy.references, 0, references.length);
+        copy.present = present;
+        copy.unknown = unknown;
+        return copy;
+    }
+
+    public int size() {
+        return Long.bitCount(present) + (unknown != null ? unknown.size() : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** 메모리 사용량 대략 추정 (warm 캐시 용량 계산용) */
+    public long estimateSize() {
+        long size = 48 + primitives.length * 8L + references.length * 8L;
+        for (Object value : references) {
+            if (value instanceof String str) size += 40 + str.length() * 2L;
+            else if (value instanceof List<?> list) size += 16 + list.size() * 48L;
+        }
+        if (unknown != null) {
+            for (Map.Entry<String, Object> entry : unknown.entrySet()) {
+                size += 64 + entry.getKey().length() * 2L;
+                if (entry.getValue() instanceof String str) size += 40 + str.length() * 2L;
+            }
+        }
+        return size;
+    }
+}
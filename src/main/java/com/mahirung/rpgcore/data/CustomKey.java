@@ -0,0 +1,36 @@
+package com.mahirung.rpgcore.data;
+
+/**
+ * 타입이 정해진 custom-data 키 (CustomKeys 에서만 생성)
+ * - slot: CustomData 배열 인덱스 (선언 순서)
+ * - name: 저장 시 사용하는 이름 (기존 custom-nbt 경로와 같음 → 이전 데이터 그대로 로드)
+ */
+public final class CustomKey {
+
+    /** 값 타입 (기본형은 long 슬롯에 박싱 없이 저장) */
+    public enum Type { STRING, INT, LONG, DOUBLE, BOOLEAN, STRING_LIST }
+
+    private final int slot;
+    private final String name;
+    private final Type type;
+
+    CustomKey(int slot, String name, Type type) {
+        this.slot = slot;
+        this.name = name;
+        this.type = type;
+    }
+
+    public int slot() { return slot; }
+    public String name() { return name; }
+    public Type type() { return type; }
+
+    /** 기본형 값(long 슬롯 사용) 여부 */
+    boolean isPrimitive() {
+        return type != Type.STRING && type != Type.STRING_LIST;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + type + ")";
+    }
+}
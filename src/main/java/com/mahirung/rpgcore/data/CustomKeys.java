@@ -0,0 +1,55 @@
+package com.mahirung.rpgcore.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * custom-data 키 등록부
+ * - 새 키는 여기에 상수로 선언 (선언 순서 = 슬롯 번호, 최대 64개)
+ * - 이름으로 찾는 건 로드 시에만 사용 (접속 중 읽기/쓰기는 상수 키로 배열 직접 접근)
+ */
+public final class CustomKeys {
+
+    public static final int MAX_KEYS = 64; // CustomData 의 설정 여부 비트(long) 크기
+
+    private static final List<CustomKey> KEYS = new ArrayList<>();
+    private static final Map<String, CustomKey> BY_NAME = new HashMap<>();
+    private static final List<CustomKey> VIEW = Collections.unmodifiableList(KEYS);
+
+    /** 적용 중인 데미지 스킨 ID */
+    public static final CustomKey DAMAGE_SKIN = register("rpgcore_damage_skin", CustomKey.Type.STRING);
+
+    private CustomKeys() {
+        throw new UnsupportedOperationException("이 클래스는 인스턴스화할 수 없습니다.");
+    }
+
+    private static CustomKey register(String name, CustomKey.Type type) {
+        if (KEYS.size() >= MAX_KEYS) throw new IllegalStateException("custom-data 키는 최대 " + MAX_KEYS + "개입니다.");
+        if (BY_NAME.containsKey(name)) throw new IllegalStateException("중복된 custom-data 키: " + name);
+        CustomKey key = new CustomKey(KEYS.size(), name, type);
+        KEYS.add(key);
+        BY_NAME.put(name, key);
+        return key;
+    }
+
+    /** 저장된 이름 → 키 (등록되지 않은 이름이면 null) */
+    public static CustomKey byName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /** 슬롯 번호 → 키 */
+    static CustomKey bySlot(int slot) {
+        return KEYS.get(slot);
+    }
+
+    public static List<CustomKey> all() {
+        return VIEW;
+    }
+
+    public static int count() {
+        return KEYS.size();
+    }
+}
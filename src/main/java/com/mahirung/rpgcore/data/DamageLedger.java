@@ -0,0 +1,85 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.util.TimingWheel;
+
+import java.util.UUID;
+
+/**
+ * 몹 1마리의 데미지 기여도 장부 (메인 스레드 전용)
+ * - 공격자 UUID / 누적 데미지를 병렬 배열로 보관 (Double 박싱, 엔트리 객체 없음)
+ * - 누적값은 증가만 하므로 기록할 때 1위를 갱신 → 1위 조회 O(1)
+ * - 공격자는 보통 몇 명 ~ 수십 명이라 선형 탐색, 몹이 죽으면 reset 후 DamageLogManager 풀에서 재사용
+ * - 유휴 만료용 타이밍 휠 항목 (마지막 타격 시각만 기록, 만료 시점에 확인해서 재예약)
+ */
+public final class DamageLedger extends TimingWheel.Entry {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private UUID[] attackers = new UUID[INITIAL_CAPACITY];
+    private double[] totals = new double[INITIAL_CAPACITY];
+    private int size;
+    private int top = -1; // 누적 데미지 1위 인덱스 (동률이면 먼저 도달한 공격자)
+
+    private UUID entity;  // 대상 몹 (만료 시 맵에서 제거용)
+    private long lastHit; // 마지막 타격 시각 (DamageLogManager 시계 단위)
+
+    /** 데미지 누적 */
+    public void add(UUID attacker, double damage) {
+        int index = indexOf(attacker);
+        if (index < 0) {
+            if (size == attackers.length) grow();
+            index = size++;
+            attackers[index] = attacker;
+            totals[index] = 0;
+        }
+        totals[index] += damage;
+        if (top < 0 || totals[index] > totals[top]) top = index;
+    }
+
+    private int indexOf(UUID attacker) {
+        for (int i = 0; i < size; i++) {
+            if (attackers[i].equals(attacker)) return i;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int capacity = attackers.length * 2;
+        UUID[] newAttackers = new UUID[capacity];
+        double[] newTotals = new double[capacity];
+        System.arraycopy(attackers, 0, newAttackers, 0, size);
+        System.arraycopy(totals, 0, newTotals, 0, size);
+        attackers = newAttackers;
+        totals = newTotals;
+    }
+
+    /** 누적 데미지 1위 (기록 없으면 null) */
+    public UUID getTopAttacker() {
+        return top >= 0 ? attackers[top] : null;
+    }
+
+    public double getTopDamage() {
+        return top >= 0 ? totals[top] : 0;
+    }
+
+    public double getDamage(UUID attacker) {
+        int index = indexOf(attacker);
+        return index >= 0 ? totals[index] : 0;
+    }
+
+    public UUID getEntity() { return entity; }
+    public void setEntity(UUID entity) { this.entity = entity; }
+    public long getLastHit() { return lastHit; }
+    public void setLastHit(long lastHit) { this.lastHit = lastHit; }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /** 풀 반환 전 초기화 (배열은 유지, UUID 참조만 해제) */
+    public void reset() {
+        for (int i = 0; i < size; i++) attackers[i] = null;
+        size = 0;
+        top = -1;
+        entity = null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * 종료 저장 비상 파일 (emergency-spill.dat)
+ * - 종료 저장이 제한 시간 안에 끝나지 않거나 실패한 스냅샷을 로컬에 기록
+ * - 다음 시작 시 저장 대기열로 되돌려 다시 기록 (replay)
+ * - 포맷: magic(int "RPGV") | 개수(int) | (행 버전(long) | 길이(int) | PlayerDataCodec 페이로드) 반복
+ *   (각 페이로드에 CRC 가 있으므로 잘리거나 손상된 항목부터는 무시)
+ * - 행 버전을 함께 보관 → 다시 기록할 때 CAS 로 기록되어, 그 사이 다른 서버가 저장한 행을 되돌리지 않음
+ * - 이전 포맷(magic "RPGS", 행 버전 없음)도 읽음 (버전을 모르므로 조건 없이 기록)
+ */
+public class EmergencySpill {
+
+    private static final int MAGIC = 0x52504756; // "RPGV"
+    private static final int LEGACY_MAGIC = 0x52504753; // "RPGS"
+
+    private final RPGCore plugin;
+    private final File file;
+
+    public EmergencySpill(RPGCore plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "emergency-spill.dat");
+    }
+
+    /** 스냅샷 기록 (기존 파일이 남아있으면 그 내용도 함께 보존) */
+    public void write(Collection<PlayerDataSnapshot> snapshots) throws IOException {
+        List<PlayerDataSnapshot> all = new ArrayList<>(load());
+        all.addAll(snapshots);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(all.size());
+            for (PlayerDataSnapshot snapshot : all) {
+                byte[] payload = PlayerDataCodec.encode(snapshot);
+                out.writeLong(rowVersionOf(snapshot));
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+        }
+        File folder = file.getParentFile();
+        if (!folder.exists()) folder.mkdirs();
+        PlayerFileStore.writeAtomically(file.toPath(), bytes.toByteArray());
+    }
+
+    /**
+     * 기록된 스냅샷 읽기 (읽을 수 있는 항목까지만)
+     * @return 스냅샷 목록 (파일이 없으면 빈 목록)
+     */
+    public List<PlayerDataSnapshot> load() {
+        List<PlayerDataSnapshot> snapshots = new ArrayList<>();
+        if (!file.exists()) return snapshots;
+
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            int magic = buf.remaining() >= 8 ? buf.getInt() : 0;
+            if (magic != MAGIC && magic != LEGACY_MAGIC) {
+                plugin.getLogger().severe("[Spill] 비상 저장 파일 형식이 올바르지 않습니다: " + file.getName());
+                return snapshots;
+            }
+            boolean versioned = magic == MAGIC;
+            int count = buf.getInt();
+            for (int i = 0; i < count && buf.remaining() >= (versioned ? 12 : 4); i++) {
+                long version = versioned ? buf.getLong() : RowVersion.UNKNOWN;
+                int length = buf.getInt();
+                if (length < 0 || length > buf.remaining()) break;
+                byte[] payload = new byte[length];
+                buf.get(payload);
+                snapshots.add(PlayerDataCodec.decode(payload).withRowVersion(new RowVersion(version)));
+            }
+            if (snapshots.size() < count) {
+                plugin.getLogger().warning("[Spill] " + count + "개 중 " + snapshots.size() + "개만 읽었습니다 (손상된 항목 이후 무시).");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "[Spill] 비상 저장 파일 읽기 실패 (" + snapshots.size() + "개까지 복구)", e);
+        }
+        return snapshots;
+    }
+
+    /** 기록 시점의 행 버전 (스냅샷은 PlayerData 와 RowVersion 을 공유하므로 값을 복사해 둠) */
+    static long rowVersionOf(PlayerDataSnapshot snapshot) {
+        return snapshot.rowVersion() != null ? snapshot.rowVersion().get() : RowVersion.UNKNOWN;
+    }
+
+    /** 다시 기록이 끝난 뒤 호출 */
+    public void delete() {
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("[Spill] 비상 저장 파일 삭제 실패: " + file.getName());
+        }
+    }
+
+    public boolean exists() { return file.exists(); }
+    public File getFile() { return file; }
+}
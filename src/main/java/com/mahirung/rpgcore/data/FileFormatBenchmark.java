@@ -0,0 +1,78 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/**
+ * 파일 모드 저장 포맷 처리량 비교 (YAML vs 바이너리)
+ * - /rpgcore storage bench 에서 비동기로 실행
+ * - 임시 폴더에 N명분 파일을 저장/로드한 뒤 삭제
+ */
+public final class FileFormatBenchmark {
+
+    private final RPGCore plugin;
+
+    public FileFormatBenchmark(RPGCore plugin) {
+        this.plugin = plugin;
+    }
+
+    /** 벤치마크 실행 (저장 스레드에서 호출) */
+    public Result run(int players) throws IOException {
+        File dir = new File(plugin.getDataFolder(), "bench-tmp");
+        if (!dir.exists()) dir.mkdirs();
+
+        PlayerDataSnapshot[] samples = new PlayerDataSnapshot[players];
+        for (int i = 0; i < players; i++) samples[i] = sample(UUID.randomUUID(), i);
+
+        try {
+            // --- YAML ---
+            long start = System.nanoTime();
+            for (PlayerDataSnapshot s : samples) s.saveToFile(new File(dir, s.uuid() + ".yml"));
+            long yamlSave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (PlayerDataSnapshot s : samples) new PlayerData(plugin, s.uuid(), new File(dir, s.uuid() + ".yml"));
+            long yamlLoad = System.nanoTime() - start;
+
+            // --- 바이너리 ---
+            start = System.nanoTime();
+            for (PlayerDataSnapshot s : samples) {
+                PlayerFileStore.writeAtomically(new File(dir, s.uuid() + ".dat").toPath(), PlayerDataCodec.encode(s));
+            }
+            long binarySave = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (PlayerDataSnapshot s : samples) {
+                new PlayerData(plugin, PlayerDataCodec.decode(Files.readAllBytes(new File(dir, s.uuid() + ".dat").toPath())));
+            }
+            long binaryLoad = System.nanoTime() - start;
+
+            return new Result(players, yamlSave, yamlLoad, binarySave, binaryLoad);
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) for (File file : files) file.delete();
+            dir.delete();
+        }
+    }
+
+    private static PlayerDataSnapshot sample(UUID uuid, int seed) {
+        CustomData custom = new CustomData();
+        custom.setString(CustomKeys.DAMAGE_SKIN, "default");
+        return new PlayerDataSnapshot(uuid, "warrior", 1 + seed % 100, seed * 1.5, 1500.0,
+                30.0, 5.0, 120.0, 10.0, 87.5, 25.0, 4.0, 0.1, 0.05, 0.5, 0.1,
+                custom, PlayerData.ALL_FIELDS, PlayerDataSnapshot.nextRevision(), RowVersion.unknown());
+    }
+
+    /** 포맷별 처리량 결과 (나노초) */
+    public record Result(int players, long yamlSaveNanos, long yamlLoadNanos, long binarySaveNanos, long binaryLoadNanos) {
+
+        /** 초당 처리 인원 */
+        public static double perSecond(int players, long nanos) {
+            return nanos <= 0 ? 0 : players * 1_000_000_000.0 / nanos;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mahirung.rpgcore.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * 파일 저장소 (playerdata/<uuid>.dat)
+ * - 저널 사용 시: 묶음 단위로 journal/segment-*.log 에 순차 기록 (fsync 1회) 후 주기적으로 .dat 으로 압축
+ * - 저널 미사용 시: 스냅샷마다 .dat 파일을 원자적으로 교체
+ */
+public class FileStorage implements Storage {
+
+    private static final int WALK_CHUNK = 256; // 내보내기 시 한 번에 병렬로 읽는 파일 수
+
+    private final PlayerFileStore fileStore;
+    private final PlayerJournal journal; // null 이면 저널 미사용
+    private final Executor executor;
+
+    public FileStorage(PlayerFileStore fileStore, PlayerJournal journal, Executor executor) {
+        this.fileStore = fileStore;
+        this.journal = journal;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getName() { return journal != null ? "파일 (저널)" : "파일"; }
+
+    @Override
+    public PlayerData load(UUID uuid) throws Exception {
+        return journal != null ? journal.load(uuid) : fileStore.load(uuid);
+    }
+
+    /** 유저마다 파일 존재 여부만 확인 (로컬 디스크라 조회 비용이 작음, 보관 버킷은 목록만 확인) */
+    @Override
+    public int insertAbsent(List<PlayerDataSnapshot> snapshots) throws Exception {
+        List<PlayerDataSnapshot> absent = new ArrayList<>(snapshots.size());
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            if (!exists(snapshot.uuid())) absent.add(snapshot);
+        }
+        return absent.isEmpty() ? 0 : saveBatch(absent);
+    }
+
+    /** 저장된 데이터가 있는지 확인 (저널에 남은 레코드 → .dat / .yml / 보관 파일, 복원하지 않음) */
+    private boolean exists(UUID uuid) throws IOException {
+        return journal != null && journal.contains(uuid) || fileStore.exists(uuid);
+    }
+
+    @Override
+    public int saveBatch(List<PlayerDataSnapshot> snapshots) throws Exception {
+        if (journal != null) {
+            journal.append(snapshots);
+        } else {
+            for (PlayerDataSnapshot snapshot : snapshots) fileStore.save(snapshot);
+        }
+        return snapshots.size();
+    }
+
+    /** 파일을 하나씩 읽어야 하므로 유저 수에 비례 (시작 시 1회, I/O 스레드) */
+    @Override
+    public void forEachLevel(LevelConsumer consumer) throws Exception {
+        Set<UUID> uuids = fileStore.listStored();
+        if (journal != null) uuids.addAll(journal.getTailUuids()); // 아직 .dat 으로 접히지 않은 신규 유저
+        for (UUID uuid : uuids) {
+            PlayerData data = load(uuid);
+            if (data != null) consumer.accept(uuid, data.getLevel(), data.getCurrentExp());
+        }
+    }
+
+    /**
+     * 폴더 순회 (uuid 이름순 정렬 → WALK_CHUNK 개씩 병렬로 읽고 순서대로 전달)
+     * - 메모리에는 파일 이름 목록과 묶음 1개 분량의 데이터만 유지
+     */
+    @Override
+    public void forEachSnapshot(String afterUuid, SnapshotConsumer consumer) throws Exception {
+        Set<UUID> uuids = fileStore.listStored();
+        if (journal != null) uuids.addAll(journal.getTailUuids());
+        List<String> names = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            String name = uuid.toString();
+            if (name.compareTo(afterUuid) > 0) names.add(name);
+        }
+        Collections.sort(names);
+
+        for (int from = 0; from < names.size(); from += WALK_CHUNK) {
+            List<PlayerData> chunk;
+            try {
+                chunk = names.subList(from, Math.min(names.size(), from + WALK_CHUNK)).parallelStream()
+                        .map(this::loadUnchecked)
+                        .toList();
+            } catch (UncheckedIOException e) {
+                throw new IOException(e.getMessage(), e.getCause());
+            }
+            for (PlayerData data : chunk) {
+                if (data != null) consumer.accept(data.snapshot());
+            }
+        }
+    }
+
+    /** 저널에 아직 접히지 않은 유저는 .dat 이 오래되었어도 활성 유저이므로 제외 */
+    @Override
+    public int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws Exception {
+        Set<UUID> tail = journal != null ? journal.getTailUuids() : Set.of();
+        return fileStore.archiveInactive(cutoffMillis, batchSize, uuid -> tail.contains(uuid) || skip.test(uuid), proceed);
+    }
+
+    private PlayerData loadUnchecked(String name) {
+        UUID uuid = UUID.fromString(name);
+        try {
+            return journal != null ? journal.load(uuid) : fileStore.load(uuid);
+        } catch (IOException e) {
+            throw new UncheckedIOException(name + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Executor getExecutor() { return executor; }
+
+    @Override
+    public void saveAllOnShutdown() {
+        if (journal != null) {
+            journal.close(); // 저널을 베이스 파일로 접음 (도중에 종료되어도 다음 시작 시 재생)
+        }
+    }
+
+    public PlayerFileStore getFileStore() { return fileStore; }
+    public PlayerJournal getJournal() { return journal; }
+}
@@ -0,0 +1,114 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * 비활성 유저 보관 (콜드 스토리지)
+ * - 마지막 저장 시각이 archive.horizon-days 보다 오래된 유저를 주기적으로 압축 보관소로 이동 (Storage.archiveInactive)
+ * - 활성 저장소(DB 테이블 / playerdata 폴더)가 활성 유저 수에 비례하는 크기로 유지되어 순위표 초기화, 내보내기, 백업이 빨라짐
+ * - 보관된 유저는 다음 접속 시 로드에서 자동으로 복원 (첫 로드만 압축 해제 비용)
+ * - 메모리에 최신 데이터가 있는 유저(접속 중, 선로딩, warm 캐시, 저장 대기)는 건너뜀
+ * - 묶음 사이에 batch-pause-millis 만큼 쉬어서 저장/로드 I/O 와 경쟁하지 않도록 함, 동시에 1회만 실행
+ */
+public class InactiveArchiver {
+
+    private final RPGCore plugin;
+    private final Storage storage;
+    private final Supplier<Set<UUID>> residentUuids; // 메인 스레드에서 호출
+    private final Predicate<UUID> loaded;            // 실행 중 새로 접속한 유저 (스레드 안전)
+
+    private final long horizonMillis;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopped;
+    private BukkitTask task;
+
+    // --- 통계 ---
+    private volatile long totalArchived;
+    private volatile int lastArchived;
+    private volatile long lastElapsedMillis;
+    private volatile long runs;
+
+    public InactiveArchiver(RPGCore plugin, Storage storage, Supplier<Set<UUID>> residentUuids, Predicate<UUID> loaded) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.residentUuids = residentUuids;
+        this.loaded = loaded;
+        this.horizonMillis = TimeUnit.DAYS.toMillis(Math.max(1, plugin.getConfig().getLong("archive.horizon-days", 90)));
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("archive.batch-size", 500));
+        this.pauseMillis = Math.max(0, plugin.getConfig().getLong("archive.batch-pause-millis", 200));
+    }
+
+    public void start() {
+        long interval = Math.max(1, plugin.getConfig().getLong("archive.interval-minutes", 60)) * 60L * 20L;
+        // 시작 직후의 순위표 초기화/접속 러시와 겹치지 않도록 첫 실행은 1주기 뒤
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::runNow, interval, interval);
+    }
+
+    public void stop() {
+        stopped = true;
+        if (task != null) task.cancel();
+    }
+
+    /**
+     * 보관 1회 실행 (메인 스레드에서 호출, 이미 실행 중이면 false)
+     * - 메모리 유저 목록만 메인 스레드에서 복사하고 이동은 비동기
+     */
+    public boolean runNow() {
+        if (stopped || !running.compareAndSet(false, true)) return false;
+        Set<UUID> resident = residentUuids.get();
+        long cutoff = System.currentTimeMillis() - horizonMillis;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.currentTimeMillis();
+            try {
+                int archived = storage.archiveInactive(cutoff, batchSize, uuid -> resident.contains(uuid) || loaded.test(uuid), this::pause);
+                lastArchived = archived;
+                totalArchived += archived;
+                lastElapsedMillis = System.currentTimeMillis() - start;
+                runs++;
+                if (archived > 0) {
+                    plugin.getLogger().info("[Archive] 비활성 유저 " + archived + "명 보관 (" + lastElapsedMillis + "ms)");
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "[Archive] 비활성 유저 보관 실패 (다음 주기에 재시도)", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /** 묶음 사이 대기, 중단되었으면 false */
+    private boolean pause() {
+        if (stopped) return false;
+        if (pauseMillis > 0) {
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !stopped;
+    }
+
+    public boolean isRunning() { return running.get(); }
+    public long getHorizonDays() { return TimeUnit.MILLISECONDS.toDays(horizonMillis); }
+    public long getTotalArchived() { return totalArchived; }
+    public int getLastArchived() { return lastArchived; }
+    public long getLastElapsedMillis() { return lastElapsedMillis; }
+    public long getRuns() { return runs; }
+}
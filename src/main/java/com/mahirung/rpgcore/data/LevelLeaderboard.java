@@ -0,0 +1,190 @@
+package com.mahirung.rpgcore.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 레벨 순위표 (인덱스 가능한 skip list)
+ * - 정렬: 레벨 내림차순 → 현재 경험치 내림차순 → UUID (동점 순서 고정)
+ * - 각 링크에 건너뛰는 노드 수(span)를 기록 → n위 조회 / 순위 조회 모두 O(log n)
+ * - 시작 시 저장소 전체로 한 번 채우고(seed), 이후 경험치/레벨 변경 시 해당 유저만 갱신
+ * - 메인 스레드(갱신)와 PlaceholderAPI 요청 스레드(조회)에서 접근하므로 메서드 단위로 동기화
+ */
+public class LevelLeaderboard {
+
+    private static final int MAX_HEIGHT = 32;
+
+    private final Node head = new Node(null, 0, 0, MAX_HEIGHT);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private int height = 1;
+    private int length; // 리스트에 연결된 노드 수
+
+    /** 순위표 항목 (조회용 복사본) */
+    public record Entry(UUID uuid, String name, int level, double exp) {}
+
+    /** 유저 점수 갱신 (값이 같으면 아무것도 하지 않음) */
+    public synchronized void update(UUID uuid, String name, int level, double exp) {
+        Node existing = nodes.get(uuid);
+        if (existing != null) {
+            if (name != null) existing.name = name;
+            if (existing.level == level && existing.exp == exp) return;
+            unlink(existing);
+        }
+        Node node = insert(uuid, level, exp);
+        node.name = name != null ? name : existing != null ? existing.name : null;
+        nodes.put(uuid, node);
+    }
+
+    /** 저장소에서 읽은 값으로 채우기: 이미 (접속 중 갱신으로) 들어있는 유저는 건드리지 않음 */
+    public synchronized void seed(UUID uuid, int level, double exp) {
+        if (nodes.containsKey(uuid)) return;
+        nodes.put(uuid, insert(uuid, level, exp));
+    }
+
+    public synchronized void remove(UUID uuid) {
+        Node node = nodes.remove(uuid);
+        if (node != null) unlink(node);
+    }
+
+    /** rank 위 항목 (1부터), 없으면 null */
+    public synchronized Entry get(int rank) {
+        if (rank < 1 || rank > length) return null;
+        Node x = head;
+        int traversed = 0;
+        for (int i = height - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) break;
+        }
+        if (x.name == null) x.name = resolveName(x.uuid); // 한 번만 조회 후 보관
+        return new Entry(x.uuid, x.name, x.level, x.exp);
+    }
+
+    /** 유저 순위 (1부터), 순위표에 없으면 0 */
+    public synchronized int rankOf(UUID uuid) {
+        Node target = nodes.get(uuid);
+        if (target == null) return 0;
+        Node x = head;
+        int rank = 0;
+        for (int i = height - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], target) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == target) return rank;
+        }
+        return rank;
+    }
+
+    public synchronized int size() { return nodes.size(); }
+
+    public synchronized void clear() {
+        for (int i = 0; i < MAX_HEIGHT; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        nodes.clear();
+        height = 1;
+        length = 0;
+    }
+
+    // --- skip list 내부 ---
+
+    private Node insert(UUID uuid, int level, double exp) {
+        Node node = new Node(uuid, level, exp, randomHeight());
+        Node[] update = new Node[MAX_HEIGHT];
+        int[] rank = new int[MAX_HEIGHT];
+
+        Node x = head;
+        for (int i = height - 1; i >= 0; i--) {
+            rank[i] = i == height - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], node) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeHeight = node.next.length;
+        if (nodeHeight > height) {
+            for (int i = height; i < nodeHeight; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = length; // 새 레벨: head 에서 끝까지
+            }
+            height = nodeHeight;
+        }
+
+        for (int i = 0; i < nodeHeight; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeHeight; i < height; i++) update[i].span[i]++;
+        length++;
+        return node;
+    }
+
+    private void unlink(Node node) {
+        Node[] update = new Node[MAX_HEIGHT];
+        Node x = head;
+        for (int i = height - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], node) < 0) x = x.next[i];
+            update[i] = x;
+        }
+        for (int i = 0; i < height; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (height > 1 && head.next[height - 1] == null) height--;
+        length--;
+    }
+
+    /** 음수면 a 가 더 높은 순위 */
+    private static int compare(Node a, Node b) {
+        if (a.level != b.level) return Integer.compare(b.level, a.level);
+        if (a.exp != b.exp) return Double.compare(b.exp, a.exp);
+        return a.uuid.compareTo(b.uuid);
+    }
+
+    private static int randomHeight() {
+        int h = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (h < MAX_HEIGHT && random.nextInt(4) == 0) h++; // p = 1/4
+        return h;
+    }
+
+    private static String resolveName(UUID uuid) {
+        OfflinePlayer player = Bukkit.getOfflinePlayer(uuid); // UUID 조회는 로컬 캐시만 사용 (네트워크 조회 없음)
+        return player.getName() != null ? player.getName() : uuid.toString().substring(0, 8);
+    }
+
+    private static final class Node {
+        final UUID uuid;
+        final int level;
+        final double exp;
+        final Node[] next;
+        final int[] span;
+        String name;
+
+        Node(UUID uuid, int level, double exp, int height) {
+            this.uuid = uuid;
+            this.level = level;
+            this.exp = exp;
+            this.next = new Node[height];
+            this.span = new int[height];
+        }
+    }
+}
@@ -1,18 +1,18 @@
 package com.mahirung.rpgcore.data;
 
 import com.mahirung.rpgcore.RPGCore;
-import org.bukkit.configuration.MemoryConfiguration;
-import org.bukkit.configuration.MemorySection;
+import com.mahirung.rpgcore.managers.PlayerDataManager;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * 플레이어 데이터 객체
  * - 직업, 레벨, 경험치, 스탯, 마나 관리
- * - YML 파일 저장/로드 및 DB 저장 지원
+ * - YML 파일 로드 지원 (저장은 PlayerDataSnapshot을 통해 처리)
  */
 public class PlayerData {
 
@@ -25,7 +25,7 @@ public class PlayerData {
     private double currentExp;
     private double requiredExp;
 
-    // --- 2. 스탯 (Base: 직업/레벨, Bonus: 룬/버프) ---
+    // --- 2. 스탯 (Base: 직업/레벨, Bonus: 장비 강화/룬, StatManager 가 장비 변경 시 갱신) ---
     private double baseAttack, bonusAttack;
     private double baseMaxMana, bonusMaxMana, currentMana;
     private double baseDefense, bonusDefense;
@@ -34,15 +34,35 @@ public class PlayerData {
 
     // --- 3. 기타 데이터 ---
     private boolean isNewPlayer;
+    private volatile int dirtyMask; // 마지막 저장 이후 변경된 필드 비트 (Write-Behind 저장용)
+    private final RowVersion rowVersion; // DB 행 버전 (스냅샷과 공유, 다른 서버의 저장을 덮어쓰지 않도록)
 
-    // --- 4. 커스텀 NBT (스킨 등 부가 데이터) ---
-    private MemorySection customNBT;
+    // --- 4. 커스텀 데이터 (스킨 등 부가 데이터, CustomKeys 로 선언된 키는 슬롯 배열에 저장) ---
+    private final CustomData customData = new CustomData();
+
+    // --- 5. 전투 스탯 캐시 (저장하지 않음) ---
+    private CombatStats combatStats;       // 기본 + 보너스 합계, 스탯 setter 가 무효화 → 다음 조회 시 재생성
+    private long equipmentFingerprint;     // 마지막으로 보너스를 계산한 장비 지문 (StatManager)
 
     // --- 경험치 계산 상수 ---
     private static final double EXP_BASE = 100.0;
     private static final double EXP_MULTIPLIER = 1.15;
     private static final int MAX_LEVEL = 100;
 
+    // --- 변경 필드 비트 (DB 컬럼 단위 부분 저장용) ---
+    public static final int FIELD_CLASS = 1;
+    public static final int FIELD_LEVEL = 1 << 1;
+    public static final int FIELD_EXP = 1 << 2;
+    public static final int FIELD_BASE_ATTACK = 1 << 3;
+    public static final int FIELD_BASE_DEFENSE = 1 << 4;
+    public static final int FIELD_BASE_MANA = 1 << 5;
+    public static final int FIELD_CURRENT_MANA = 1 << 6;
+    public static final int FIELD_REQUIRED_EXP = 1 << 7;
+    public static final int FIELD_BONUS_STATS = 1 << 8;  // bonus_* (공격/방어/마나/치명타)
+    public static final int FIELD_CRIT_STATS = 1 << 9;   // base_crit_*
+    public static final int FIELD_CUSTOM = 1 << 10;      // custom-nbt
+    public static final int ALL_FIELDS = (1 << 11) - 1;
+
     /** 신규 유저 생성자 */
     public PlayerData(RPGCore plugin, UUID uuid) {
         this.plugin = plugin;
@@ -56,7 +76,8 @@ public class PlayerData {
         this.baseMaxMana = 100.0;
         this.currentMana = 100.0;
 
-        this.customNBT = new MemoryConfiguration();
+        this.dirtyMask = ALL_FIELDS; // 신규 유저는 아직 저장된 적이 없음
+        this.rowVersion = new RowVersion(RowVersion.ABSENT);
     }
 
     /** 기존 유저 생성자 (파일 로드용) */
@@ -64,9 +85,36 @@ public class PlayerData {
         this.plugin = plugin;
         this.uuid = uuid;
         this.isNewPlayer = false;
+        this.rowVersion = RowVersion.unknown();
 
         loadFromFile(playerFile);
-        if (this.customNBT == null) this.customNBT = new MemoryConfiguration();
+    }
+
+    /** 스냅샷 복원 생성자 (저장 대기 중이던 데이터 재사용 등) */
+    public PlayerData(RPGCore plugin, PlayerDataSnapshot snapshot) {
+        this.plugin = plugin;
+        this.uuid = snapshot.uuid();
+        this.isNewPlayer = false;
+        this.rowVersion = snapshot.rowVersion() != null ? snapshot.rowVersion() : RowVersion.unknown();
+
+        this.playerClass = snapshot.playerClass();
+        this.level = snapshot.level();
+        this.currentExp = snapshot.currentExp();
+        this.requiredExp = snapshot.requiredExp();
+
+        this.baseAttack = snapshot.baseAttack();
+        this.bonusAttack = snapshot.bonusAttack();
+        this.baseMaxMana = snapshot.baseMaxMana();
+        this.bonusMaxMana = snapshot.bonusMaxMana();
+        this.currentMana = snapshot.currentMana();
+        this.baseDefense = snapshot.baseDefense();
+        this.bonusDefense = snapshot.bonusDefense();
+        this.baseCritChance = snapshot.baseCritChance();
+        this.bonusCritChance = snapshot.bonusCritChance();
+        this.baseCritDamage = snapshot.baseCritDamage();
+        this.bonusCritDamage = snapshot.bonusCritDamage();
+
+        snapshot.customData().forEach(this.customData::put);
     }
 
     /** YML 파일에서 데이터 로드 */
@@ -90,33 +138,40 @@ public class PlayerData {
         this.baseCritDamage = config.getDouble("stats.base.crit-damage", 0);
         this.bonusCritDamage = config.getDouble("stats.bonus.crit-damage", 0);
 
-        this.customNBT = (MemorySection) config.get("custom-nbt", new MemoryConfiguration());
+        // 기존 custom-nbt 섹션: 하위 경로 값을 평탄화해서 복원 (등록된 키는 슬롯으로, 나머지는 보존)
+        ConfigurationSection custom = config.getConfigurationSection("custom-nbt");
+        if (custom != null) {
+            for (Map.Entry<String, Object> entry : custom.getValues(true).entrySet()) {
+                if (entry.getValue() instanceof ConfigurationSection) continue;
+                customData.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 현재 상태의 불변 스냅샷 생성 (데이터를 수정하는 스레드 = 메인 스레드에서 호출)
+     * - 필드 값 복사 + custom-data 슬롯 배열 복사만 수행
+     */
+    public PlayerDataSnapshot snapshot() {
+        return new PlayerDataSnapshot(
+                uuid, playerClass, level, currentExp, requiredExp,
+                baseAttack, bonusAttack,
+                baseMaxMana, bonusMaxMana, currentMana,
+                baseDefense, bonusDefense,
+                baseCritChance, bonusCritChance,
+                baseCritDamage, bonusCritDamage,
+                customData.copy(),
+                dirtyMask,
+                PlayerDataSnapshot.nextRevision(),
+                rowVersion
+        );
     }
 
-    /** YML 파일에 데이터 저장 */
-    public void saveToFile(File file) throws IOException {
-        YamlConfiguration config = new YamlConfiguration();
-
-        config.set("class", playerClass);
-        config.set("level", level);
-        config.set("experience.current", currentExp);
-        config.set("experience.required", requiredExp);
-
-        config.set("stats.base.attack", baseAttack);
-        config.set("stats.bonus.attack", bonusAttack);
-        config.set("stats.base.max-mana", baseMaxMana);
-        config.set("stats.bonus.max-mana", bonusMaxMana);
-        config.set("stats.current-mana", currentMana);
-        config.set("stats.base.defense", baseDefense);
-        config.set("stats.bonus.defense", bonusDefense);
-        config.set("stats.base.crit-chance", baseCritChance);
-        config.set("stats.bonus.crit-chance", bonusCritChance);
-        config.set("stats.base.crit-damage", baseCritDamage);
-        config.set("stats.bonus.crit-damage", bonusCritDamage);
-
-        config.set("custom-nbt", customNBT);
-
-        config.save(file);
+    /** 메모리 사용량 대략 추정 (warm 캐시 용량 계산용) */
+    public long estimateSize() {
+        long size = 256; // 객체 헤더 + 고정 필드
+        if (playerClass != null) size += 40 + playerClass.length() * 2L;
+        return size + customData.estimateSize();
     }
 
     /** 경험치 추가 및 레벨업 여부 반환 */
@@ -132,24 +187,47 @@ public class PlayerData {
             this.requiredExp = calculateRequiredExpForLevel(this.level);
             leveledUp = true;
         }
+        markDirty(leveledUp ? FIELD_EXP | FIELD_LEVEL | FIELD_REQUIRED_EXP : FIELD_EXP);
+        updateRanking();
         return leveledUp;
     }
 
-    /** 해당 레벨에 필요한 경험치 계산 */
-    private double calculateRequiredExpForLevel(int level) {
+    /** 레벨 순위표에 현재 레벨/경험치 반영 (해당 유저 1명만 재배치, O(log n)) */
+    private void updateRanking() {
+        PlayerDataManager manager = plugin != null ? plugin.getPlayerDataManager() : null;
+        LevelLeaderboard leaderboard = manager != null ? manager.getLeaderboard() : null;
+        if (leaderboard != null) leaderboard.update(uuid, null, level, currentExp);
+    }
+
+    /** 해당 레벨에 필요한 경험치 계산 (DB 백필 마이그레이션과 같은 공식) */
+    public static double calculateRequiredExpForLevel(int level) {
         if (level >= MAX_LEVEL) return Double.MAX_VALUE;
         return Math.floor(EXP_BASE * Math.pow(EXP_MULTIPLIER, level - 1));
     }
 
     // --- 마나 관리 ---
     public void spendMana(double amount) {
-        this.currentMana = Math.max(0, this.currentMana - amount);
+        setCurrentMana(Math.max(0, this.currentMana - amount));
     }
 
     public void regenMana(double amount) {
-        this.currentMana = Math.min(getMaxMana(), this.currentMana + amount);
+        setCurrentMana(Math.min(getMaxMana(), this.currentMana + amount));
     }
 
+    // --- 변경 추적 (Dirty Mask) ---
+    /** 변경된 필드 표시 (customData 직접 수정 시 FIELD_CUSTOM 으로 호출 필요) */
+    public void markDirty(int fields) { this.dirtyMask |= fields; }
+
+    /** 어떤 값이 바뀌었는지 모를 때: 전체 저장 대상으로 표시 */
+    public void markDirty() { markDirty(ALL_FIELDS); }
+
+    /** 저장 직전에 호출: 이후 변경분은 다시 dirty로 표시됨 */
+    public void clearDirty() { this.dirtyMask = 0; }
+
+    public boolean isDirty() { return dirtyMask != 0; }
+    public int getDirtyMask() { return dirtyMask; }
+    public RowVersion getRowVersion() { return rowVersion; }
+
     // --- Getters ---
     public UUID getUuid() { return uuid; }
     public String getPlayerClass() { return playerClass; }
@@ -167,33 +245,68 @@ public class PlayerData {
     public double getCritChance() { return baseCritChance + bonusCritChance; }
     public double getCritDamage() { return baseCritDamage + bonusCritDamage; }
 
+    /** 전투 계산용 합계 스탯 (메인 스레드, 스탯이 바뀐 뒤 첫 조회만 생성) */
+    public CombatStats getCombatStats() {
+        CombatStats stats = combatStats;
+        if (stats == null) {
+            stats = new CombatStats(getAttack(), getDefense(), getMaxMana(), getCritChance(), getCritDamage());
+            combatStats = stats;
+        }
+        return stats;
+    }
+
+    public long getEquipmentFingerprint() { return equipmentFingerprint; }
+
+    /**
+     * 장비 보너스 반영 (StatManager 에서 장비 지문이 바뀌었을 때만 호출)
+     * - 값이 그대로면 dirty 표시 없이 지문만 갱신
+     */
+    public void applyEquipmentBonus(CombatStats bonus, long fingerprint) {
+        this.equipmentFingerprint = fingerprint;
+        if (bonusAttack == bonus.attack() && bonusDefense == bonus.defense() && bonusMaxMana == bonus.maxMana()
+                && bonusCritChance == bonus.critChance() && bonusCritDamage == bonus.critDamage()) return;
+        this.bonusAttack = bonus.attack();
+        this.bonusDefense = bonus.defense();
+        this.bonusMaxMana = bonus.maxMana();
+        this.bonusCritChance = bonus.critChance();
+        this.bonusCritDamage = bonus.critDamage();
+        this.combatStats = null;
+        markDirty(FIELD_BONUS_STATS);
+    }
+
     // --- [추가됨] 기본 스탯 Getter (DB 저장 시 사용) ---
     public double getBaseAttack() { return baseAttack; }
     public double getBaseDefense() { return baseDefense; }
     public double getBaseMaxMana() { return baseMaxMana; }
 
     // --- Setters ---
-    public void setPlayerClass(String playerClass) { this.playerClass = playerClass; }
+    public void setPlayerClass(String playerClass) { this.playerClass = playerClass; markDirty(FIELD_CLASS); }
     public void setLevel(int level) {
         this.level = level;
         this.requiredExp = calculateRequiredExpForLevel(level);
+        markDirty(FIELD_LEVEL | FIELD_REQUIRED_EXP);
+        updateRanking();
     }
-    public void setCurrentExp(double currentExp) { this.currentExp = currentExp; }
-    public void setRequiredExp(double requiredExp) { this.requiredExp = requiredExp; }
+    public void setCurrentExp(double currentExp) { this.currentExp = currentExp; markDirty(FIELD_EXP); updateRanking(); }
+    public void setRequiredExp(double requiredExp) { this.requiredExp = requiredExp; markDirty(FIELD_REQUIRED_EXP); }
     public void setNewPlayer(boolean newPlayer) { this.isNewPlayer = newPlayer; }
 
-    public void setBaseAttack(double baseAttack) { this.baseAttack = baseAttack; }
-    public void setBaseMaxMana(double baseMaxMana) { this.baseMaxMana = baseMaxMana; }
-    public void setBaseDefense(double baseDefense) { this.baseDefense = baseDefense; }
-    public void setBaseCritChance(double baseCritChance) { this.baseCritChance = baseCritChance; }
-    public void setBaseCritDamage(double baseCritDamage) { this.baseCritDamage = baseCritDamage; }
-    public void setCurrentMana(double currentMana) { this.currentMana = currentMana; }
+    public void setBaseAttack(double baseAttack) { this.baseAttack = baseAttack; combatStats = null; markDirty(FIELD_BASE_ATTACK); }
+    public void setBaseMaxMana(double baseMaxMana) { this.baseMaxMana = baseMaxMana; combatStats = null; markDirty(FIELD_BASE_MANA); }
+    public void setBaseDefense(double baseDefense) { this.baseDefense = baseDefense; combatStats = null; markDirty(FIELD_BASE_DEFENSE); }
+    public void setBaseCritChance(double baseCritChance) { this.baseCritChance = baseCritChance; combatStats = null; markDirty(FIELD_CRIT_STATS); }
+    public void setBaseCritDamage(double baseCritDamage) { this.baseCritDamage = baseCritDamage; combatStats = null; markDirty(FIELD_CRIT_STATS); }
+    public void setCurrentMana(double currentMana) {
+        if (this.currentMana == currentMana) return; // 가득 찬 상태의 리젠 등은 변경으로 보지 않음
+        this.currentMana = currentMana;
+        markDirty(FIELD_CURRENT_MANA);
+    }
 
-    public void setBonusAttack(double bonusAttack) { this.bonusAttack = bonusAttack; }
-    public void setBonusMaxMana(double bonusMaxMana) { this.bonusMaxMana = bonusMaxMana; }
-    public void setBonusDefense(double bonusDefense) { this.bonusDefense = bonusDefense; }
-    public void setBonusCritChance(double bonusCritChance) { this.bonusCritChance = bonusCritChance; }
-    public void setBonusCritDamage(double bonusCritDamage) { this.bonusCritDamage = bonusCritDamage; }
+    public void setBonusAttack(double bonusAttack) { this.bonusAttack = bonusAttack; combatStats = null; markDirty(FIELD_BONUS_STATS); }
+    public void setBonusMaxMana(double bonusMaxMana) { this.bonusMaxMana = bonusMaxMana; combatStats = null; markDirty(FIELD_BONUS_STATS); }
+    public void setBonusDefense(double bonusDefense) { this.bonusDefense = bonusDefense; combatStats = null; markDirty(FIELD_BONUS_STATS); }
+    public void setBonusCritChance(double bonusCritChance) { this.bonusCritChance = bonusCritChance; combatStats = null; markDirty(FIELD_BONUS_STATS); }
+    public void setBonusCritDamage(double bonusCritDamage) { this.bonusCritDamage = bonusCritDamage; combatStats = null; markDirty(FIELD_BONUS_STATS); }
 
-    public MemorySection getCustomNBT() { return customNBT; }
+    public CustomData getCustomData() { return customData; }
 }
\ No newline at end of file
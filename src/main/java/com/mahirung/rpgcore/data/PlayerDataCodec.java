@@ -0,0 +1,220 @@
+package com.mahirung.rpgcore.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * PlayerDataSnapshot 바이너리 코덱 (파일 모드 저장 포맷)
+ *
+ * [헤더]  magic(int "RPGD") | version(short) | uuid(long, long)
+ * [본문]  class(문자열, null 허용) | level(int) | exp/required(double x2) | 스탯(double x13)
+ * [NBT]   섹션 길이(int) | 항목 수(int) | (키, 타입 태그, 값) 반복
+ * [푸터]  CRC32(int) - 헤더부터 NBT 섹션 끝까지
+ */
+public final class PlayerDataCodec {
+
+    public static final int MAGIC = 0x52504744; // "RPGD"
+    public static final short VERSION = 1;
+
+    // custom-nbt 값 타입 태그
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_BOOLEAN = 5;
+    private static final byte TAG_STRING_LIST = 6;
+
+    private PlayerDataCodec() {
+        throw new UnsupportedOperationException("이 클래스는 인스턴스화할 수 없습니다.");
+    }
+
+    /** 스냅샷 → 바이트 배열 */
+    public static byte[] encode(PlayerDataSnapshot s) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(s.uuid().getMostSignificantBits());
+            out.writeLong(s.uuid().getLeastSignificantBits());
+
+            writeString(out, s.playerClass());
+            out.writeInt(s.level());
+            out.writeDouble(s.currentExp());
+            out.writeDouble(s.requiredExp());
+            out.writeDouble(s.baseAttack());
+            out.writeDouble(s.bonusAttack());
+            out.writeDouble(s.baseMaxMana());
+            out.writeDouble(s.bonusMaxMana());
+            out.writeDouble(s.currentMana());
+            out.writeDouble(s.baseDefense());
+            out.writeDouble(s.bonusDefense());
+            out.writeDouble(s.baseCritChance());
+            out.writeDouble(s.bonusCritChance());
+            out.writeDouble(s.baseCritDamage());
+            out.writeDouble(s.bonusCritDamage());
+
+            byte[] custom = encodeCustom(s.customData());
+            out.writeInt(custom.length);
+            out.write(custom);
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream은 IOException을 던지지 않음
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 바이트 배열 → 스냅샷
+     * @throws IOException 매직/버전 불일치, CRC 불일치, 잘린 데이터
+     */
+    public static PlayerDataSnapshot decode(byte[] data) throws IOException {
+        if (data.length < 4 + 2 + 16 + 4) throw new IOException("데이터가 너무 짧습니다: " + data.length + " bytes");
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        if (buf.getInt(data.length - 4) != (int) crc.getValue()) throw new IOException("CRC 불일치 (파일 손상)");
+
+        try {
+            if (buf.getInt() != MAGIC) throw new IOException("잘못된 파일 형식 (magic 불일치)");
+            short version = buf.getShort();
+            if (version != VERSION) throw new IOException("지원하지 않는 버전: " + version);
+
+            UUID uuid = new UUID(buf.getLong(), buf.getLong());
+            String playerClass = readString(buf);
+            int level = buf.getInt();
+            double currentExp = buf.getDouble();
+            double requiredExp = buf.getDouble();
+            double baseAttack = buf.getDouble();
+            double bonusAttack = buf.getDouble();
+            double baseMaxMana = buf.getDouble();
+            double bonusMaxMana = buf.getDouble();
+            double currentMana = buf.getDouble();
+            double baseDefense = buf.getDouble();
+            double bonusDefense = buf.getDouble();
+            double baseCritChance = buf.getDouble();
+            double bonusCritChance = buf.getDouble();
+            double baseCritDamage = buf.getDouble();
+            double bonusCritDamage = buf.getDouble();
+
+            int customLength = buf.getInt();
+            ByteBuffer customBuf = buf.slice(buf.position(), customLength);
+            CustomData custom = decodeCustom(customBuf);
+
+            return new PlayerDataSnapshot(uuid, playerClass, level, currentExp, requiredExp,
+                    baseAttack, bonusAttack, baseMaxMana, bonusMaxMana, currentMana,
+                    baseDefense, bonusDefense, baseCritChance, bonusCritChance,
+                    baseCritDamage, bonusCritDamage, custom, 0, PlayerDataSnapshot.nextRevision(), RowVersion.unknown());
+        } catch (RuntimeException e) { // BufferUnderflow, IndexOutOfBounds 등
+            throw new IOException("잘린 데이터: " + e.getMessage(), e);
+        }
+    }
+
+    // --- custom-nbt 섹션 ---
+
+    private static byte[] encodeCustom(CustomData custom) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(custom.size());
+        try {
+            custom.forEach((name, value) -> {
+                try {
+                    writeCustomEntry(out, name, value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeCustomEntry(DataOutputStream out, String name, Object value) throws IOException {
+        writeString(out, name);
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Integer i) {
+            out.writeByte(TAG_INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Number n) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(n.doubleValue());
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_STRING_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) writeString(out, element == null ? null : element.toString());
+        } else {
+            out.writeByte(TAG_STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    private static CustomData decodeCustom(ByteBuffer buf) throws IOException {
+        int count = buf.getInt();
+        CustomData custom = new CustomData();
+        for (int i = 0; i < count; i++) {
+            String key = readString(buf);
+            byte tag = buf.get();
+            Object value = switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_STRING -> readString(buf);
+                case TAG_INT -> buf.getInt();
+                case TAG_LONG -> buf.getLong();
+                case TAG_DOUBLE -> buf.getDouble();
+                case TAG_BOOLEAN -> buf.get() != 0;
+                case TAG_STRING_LIST -> {
+                    int size = buf.getInt();
+                    List<String> list = new ArrayList<>(size);
+                    for (int j = 0; j < size; j++) list.add(readString(buf));
+                    yield Collections.unmodifiableList(list);
+                }
+                default -> throw new IOException("알 수 없는 custom-nbt 타입 태그: " + tag);
+            };
+            custom.put(key, value);
+        }
+        return custom;
+    }
+
+    // --- 문자열 (길이 -1 = null) ---
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) return null;
+        String value = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+        return value;
+    }
+}
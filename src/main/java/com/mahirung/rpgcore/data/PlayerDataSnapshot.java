@@ -0,0 +1,87 @@
+package com.mahirung.rpgcore.data;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PlayerData 불변 스냅샷
+ * - 메인 스레드에서 필드 값만 복사해서 생성 (YAML/MemorySection 생성 없음)
+ * - 저장 스레드는 PlayerData 대신 스냅샷만 읽으므로 잠금 없이 병렬 저장 가능
+ * - revision: 캡처 순서 (늦게 캡처된 스냅샷일수록 큼, 오래된 저장이 최신 저장을 덮어쓰지 않도록 사용)
+ *
+ * @param customData custom-data 복사본 (스냅샷 전용, 생성 후 수정하지 않음)
+ * @param dirtyMask  마지막 저장 이후 변경된 필드 (PlayerData.FIELD_*, DB 부분 저장용)
+ * @param rowVersion 원본 PlayerData 와 공유하는 DB 행 버전 (CAS 저장용)
+ */
+public record PlayerDataSnapshot(
+        UUID uuid,
+        String playerClass,
+        int level,
+        double currentExp,
+        double requiredExp,
+        double baseAttack, double bonusAttack,
+        double baseMaxMana, double bonusMaxMana, double currentMana,
+        double baseDefense, double bonusDefense,
+        double baseCritChance, double bonusCritChance,
+        double baseCritDamage, double bonusCritDamage,
+        CustomData customData,
+        int dirtyMask,
+        long revision,
+        RowVersion rowVersion
+) {
+
+    private static final AtomicLong REVISION_SEQUENCE = new AtomicLong();
+
+    /** 다음 캡처 순번 발급 */
+    static long nextRevision() {
+        return REVISION_SEQUENCE.incrementAndGet();
+    }
+
+    /** 변경 필드만 바꾼 복사본 (병합된 스냅샷이 이전 스냅샷의 미저장 변경분을 이어받도록) */
+    public PlayerDataSnapshot withDirtyMask(int mask) {
+        if (mask == dirtyMask) return this;
+        return new PlayerDataSnapshot(uuid, playerClass, level, currentExp, requiredExp,
+                baseAttack, bonusAttack, baseMaxMana, bonusMaxMana, currentMana,
+                baseDefense, bonusDefense, baseCritChance, bonusCritChance,
+                baseCritDamage, bonusCritDamage, customData, mask, revision, rowVersion);
+    }
+
+    /** 행 버전만 바꾼 복사본 (바이너리 state 컬럼에서 복원한 스냅샷에 행의 version 연결) */
+    public PlayerDataSnapshot withRowVersion(RowVersion version) {
+        return new PlayerDataSnapshot(uuid, playerClass, level, currentExp, requiredExp,
+                baseAttack, bonusAttack, baseMaxMana, bonusMaxMana, currentMana,
+                baseDefense, bonusDefense, baseCritChance, bonusCritChance,
+                baseCritDamage, bonusCritDamage, customData, dirtyMask, revision, version);
+    }
+
+    /** YML 파일에 저장 (저장 스레드에서 호출) */
+    public void saveToFile(File file) throws IOException {
+        YamlConfiguration config = new YamlConfiguration();
+
+        config.set("class", playerClass);
+        config.set("level", level);
+        config.set("experience.current", currentExp);
+        config.set("experience.required", requiredExp);
+
+        config.set("stats.base.attack", baseAttack);
+        config.set("stats.bonus.attack", bonusAttack);
+        config.set("stats.base.max-mana", baseMaxMana);
+        config.set("stats.bonus.max-mana", bonusMaxMana);
+        config.set("stats.current-mana", currentMana);
+        config.set("stats.base.defense", baseDefense);
+        config.set("stats.bonus.defense", bonusDefense);
+        config.set("stats.base.crit-chance", baseCritChance);
+        config.set("stats.bonus.crit-chance", bonusCritChance);
+        config.set("stats.base.crit-damage", baseCritDamage);
+        config.set("stats.bonus.crit-damage", bonusCritDamage);
+
+        config.createSection("custom-nbt");
+        customData.forEach((name, value) -> config.set("custom-nbt." + name, value));
+
+        config.save(file);
+    }
+}
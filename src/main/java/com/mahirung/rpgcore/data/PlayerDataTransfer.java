@@ -0,0 +1,559 @@
+package com.mahirung.rpgcore.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 전체 플레이어 데이터 내보내기/가져오기 (/rpgcore data export|import)
+ * - 내보내기: 현재 저장소를 uuid 순서로 스트리밍 (Storage.forEachSnapshot) → exports/players-<시각>.ndjson|csv
+ * - 가져오기: exports/ 의 파일을 한 줄씩 읽어 batch-size 단위로 현재 저장소에 saveBatch
+ * - batch-size 행마다 <파일>.checkpoint 에 위치(바이트 오프셋, 마지막 uuid) 기록 → resume 지정 시 이어서 진행
+ * - 메모리에는 커서/묶음 1개 분량만 유지 (전체 유저를 힙에 올리지 않음)
+ * - 비동기 스레드에서 호출 (블로킹, 저장소 I/O 실행기를 점유하지 않음)
+ */
+public final class PlayerDataTransfer {
+
+    public enum Format {
+        NDJSON(".ndjson"), CSV(".csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+
+        public static Format parse(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "ndjson", "jsonl", "json" -> NDJSON;
+                case "csv" -> CSV;
+                default -> null;
+            };
+        }
+
+        static Format of(File file) {
+            for (Format format : values()) {
+                if (file.getName().endsWith(format.extension)) return format;
+            }
+            return null;
+        }
+    }
+
+    /** 진행 상황 콜백 (비동기 스레드에서 호출, percent < 0 이면 전체 크기를 알 수 없음) */
+    @FunctionalInterface
+    public interface Progress {
+        void report(long rows, double percent);
+    }
+
+    // 내보내기 컬럼 (rpg_player_data 컬럼명과 같음, 3 ~ 15 는 double)
+    private static final String[] COLUMNS = {
+            "uuid", "player_class", "level",
+            "exp", "required_exp",
+            "base_attack", "bonus_attack", "base_mana", "bonus_mana", "current_mana",
+            "base_defense", "bonus_defense", "base_crit_chance", "bonus_crit_chance",
+            "base_crit_damage", "bonus_crit_damage",
+            "custom_nbt"
+    };
+    private static final int FIRST_DOUBLE = 3;
+    private static final int CUSTOM = 16;
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String IMPORT_CHECKPOINT_SUFFIX = ".import-checkpoint";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long MAX_POOL_WAIT_MILLIS = 5000;
+
+    private final RPGCore plugin;
+    private final File folder;
+    private final int batchSize;
+    private final long progressNanos;
+
+    public PlayerDataTransfer(RPGCore plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "exports");
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("transfer.batch-size", 1000));
+        this.progressNanos = Math.max(1, plugin.getConfig().getLong("transfer.progress-seconds", 10)) * 1_000_000_000L;
+    }
+
+    // --- 내보내기 ---
+
+    /**
+     * 현재 저장소 전체를 파일로 내보내기
+     * @param resume true 면 같은 포맷의 마지막 미완료 내보내기를 체크포인트부터 이어서 진행 (없으면 새로 시작)
+     */
+    public Result export(Storage source, Format format, boolean resume, Progress progress) throws Exception {
+        long start = System.currentTimeMillis();
+        if (!folder.exists()) folder.mkdirs();
+
+        File file = resume ? findUnfinished(format) : null;
+        Checkpoint checkpoint = file != null ? Checkpoint.read(checkpointFile(file, CHECKPOINT_SUFFIX)) : null;
+        boolean resumed = checkpoint != null;
+        if (!resumed) {
+            file = new File(folder, "players-" + LocalDateTime.now().format(FILE_TIME) + format.extension);
+            checkpoint = Checkpoint.EMPTY;
+        }
+        File checkpointFile = checkpointFile(file, CHECKPOINT_SUFFIX);
+
+        Cursor cursor = new Cursor(checkpoint);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < checkpoint.offset()) {
+                throw new IOException("체크포인트가 파일보다 깁니다: " + file.getName());
+            }
+            channel.truncate(checkpoint.offset()); // 마지막 체크포인트 이후 기록된 부분은 다시 기록
+            channel.position(checkpoint.offset());
+            Writer out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 64 * 1024);
+            if (!resumed) {
+                if (format == Format.CSV) {
+                    out.write(String.join(",", COLUMNS));
+                    out.write('\n');
+                }
+                saveExportCheckpoint(out, channel, checkpointFile, cursor);
+            }
+
+            source.forEachSnapshot(checkpoint.lastUuid(), snapshot -> {
+                if (format == Format.NDJSON) writeJsonRow(out, snapshot);
+                else writeCsvRow(out, snapshot);
+                cursor.rows++;
+                cursor.lastUuid = snapshot.uuid().toString();
+                if (cursor.rows % batchSize == 0) saveExportCheckpoint(out, channel, checkpointFile, cursor);
+                cursor.report(progress, -1);
+            });
+            out.flush();
+            channel.force(false);
+        }
+        Files.deleteIfExists(checkpointFile.toPath()); // 완료
+        return new Result(file, cursor.rows, 0, 0, System.currentTimeMillis() - start, resumed);
+    }
+
+    /** 기록한 내용을 디스크에 반영한 뒤 위치 기록 (체크포인트가 가리키는 곳까지는 항상 파일에 있음) */
+    private void saveExportCheckpoint(Writer out, FileChannel channel, File checkpointFile, Cursor cursor) throws IOException {
+        out.flush();
+        channel.force(false);
+        new Checkpoint(cursor.lastUuid, channel.position(), cursor.rows, 0, 0).write(checkpointFile);
+    }
+
+    /** 체크포인트가 남아 있는 (중단된) 내보내기 중 가장 최근 파일 */
+    private File findUnfinished(Format format) {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(format.extension)
+                && new File(dir, name + CHECKPOINT_SUFFIX).exists());
+        if (files == null || files.length == 0) return null;
+        File latest = files[0];
+        for (File file : files) {
+            if (file.lastModified() > latest.lastModified()) latest = file;
+        }
+        return latest;
+    }
+
+    private static void writeJsonRow(Writer out, PlayerDataSnapshot snapshot) throws IOException {
+        JsonWriter json = new JsonWriter(out); // 버퍼 없음, 닫지 않고 out 에 바로 기록
+        json.setLenient(true); // NaN/Infinity 허용
+        json.beginObject();
+        json.name(COLUMNS[0]).value(snapshot.uuid().toString());
+        json.name(COLUMNS[1]).value(snapshot.playerClass());
+        json.name(COLUMNS[2]).value(snapshot.level());
+        double[] stats = stats(snapshot);
+        for (int i = 0; i < stats.length; i++) json.name(COLUMNS[FIRST_DOUBLE + i]).value(stats[i]);
+        json.name(COLUMNS[CUSTOM]);
+        writeCustom(json, snapshot.customData());
+        json.endObject();
+        out.write('\n');
+    }
+
+    private static void writeCsvRow(Writer out, PlayerDataSnapshot snapshot) throws IOException {
+        out.write(snapshot.uuid().toString());
+        out.write(',');
+        if (snapshot.playerClass() != null) out.write(csvQuote(snapshot.playerClass()));
+        out.write(',');
+        out.write(Integer.toString(snapshot.level()));
+        for (double stat : stats(snapshot)) {
+            out.write(',');
+            out.write(Double.toString(stat));
+        }
+        out.write(',');
+        if (!snapshot.customData().isEmpty()) {
+            StringWriter custom = new StringWriter();
+            JsonWriter json = new JsonWriter(custom);
+            json.setLenient(true);
+            writeCustom(json, snapshot.customData());
+            out.write(csvQuote(custom.toString()));
+        }
+        out.write('\n');
+    }
+
+    private static void writeCustom(JsonWriter json, CustomData custom) throws IOException {
+        json.beginObject();
+        try {
+            custom.forEach((name, value) -> {
+                try {
+                    json.name(name);
+                    if (value instanceof Number number) json.value(number);
+                    else if (value instanceof Boolean bool) json.value(bool);
+                    else if (value instanceof List<?> list) {
+                        json.beginArray();
+                        for (Object element : list) json.value(element == null ? null : element.toString());
+                        json.endArray();
+                    } else json.value(value.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.endObject();
+    }
+
+    private static double[] stats(PlayerDataSnapshot s) {
+        return new double[] {
+                s.currentExp(), s.requiredExp(),
+                s.baseAttack(), s.bonusAttack(), s.baseMaxMana(), s.bonusMaxMana(), s.currentMana(),
+                s.baseDefense(), s.bonusDefense(), s.baseCritChance(), s.bonusCritChance(),
+                s.baseCritDamage(), s.bonusCritDamage()
+        };
+    }
+
+    // --- 가져오기 ---
+
+    /**
+     * exports/ 폴더의 파일을 현재 저장소로 가져오기 (포맷은 확장자로 판단)
+     * - 현재 저장소에 이미 있는 유저는 건너뜀 (overwrite 지정 시 덮어씀)
+     *   - 유저마다 조회하지 않고 묶음을 Storage.insertAbsent 로 기록 → 기록되지 않은 행을 건너뜀으로 셈
+     * - 접속 중(메모리에 로드된) 유저는 항상 건너뜀
+     * @param loaded 건너뛸 유저 (메인 스레드에서 복사한 접속 중 유저 목록)
+     * @param resume true 면 이 파일의 가져오기 체크포인트부터 이어서 진행 (없으면 처음부터)
+     */
+    public Result importFile(String name, Storage target, Set<UUID> loaded, boolean overwrite, boolean resume, Progress progress) throws Exception {
+        long start = System.currentTimeMillis();
+        File file = resolve(name);
+        Format format = Format.of(file);
+        if (format == null) throw new IllegalArgumentException("지원하지 않는 파일 형식입니다 (.ndjson / .csv): " + file.getName());
+
+        File checkpointFile = checkpointFile(file, IMPORT_CHECKPOINT_SUFFIX);
+        Checkpoint checkpoint = resume ? Checkpoint.read(checkpointFile) : null;
+        boolean resumed = checkpoint != null;
+        if (!resumed) checkpoint = Checkpoint.EMPTY;
+
+        Cursor cursor = new Cursor(checkpoint);
+        long total = Math.max(1, file.length());
+        List<PlayerDataSnapshot> chunk = new ArrayList<>(batchSize);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), 64 * 1024)) {
+            LineReader reader = new LineReader(in);
+            Map<String, Integer> header = null;
+            if (format == Format.CSV) {
+                String line = reader.readLine();
+                if (line == null) throw new IOException("빈 CSV 파일입니다: " + file.getName());
+                header = parseHeader(line);
+            }
+            reader.skipTo(checkpoint.offset());
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                PlayerDataSnapshot snapshot;
+                try {
+                    snapshot = format == Format.NDJSON ? parseJsonRow(line) : parseCsvRow(line, header);
+                } catch (RuntimeException e) {
+                    cursor.failed++;
+                    plugin.getLogger().warning("[Import] " + file.getName() + " 읽기 실패 (" + reader.getPosition() + "B): " + e.getMessage());
+                    continue;
+                }
+                UUID uuid = snapshot.uuid();
+                if (loaded.contains(uuid)) {
+                    cursor.skipped++;
+                    continue;
+                }
+                chunk.add(snapshot);
+                if (chunk.size() >= batchSize) {
+                    flush(target, chunk, overwrite, cursor);
+                    new Checkpoint("", reader.getPosition(), cursor.rows, cursor.skipped, cursor.failed).write(checkpointFile);
+                }
+                cursor.report(progress, reader.getPosition() * 100.0 / total);
+            }
+            flush(target, chunk, overwrite, cursor);
+        }
+        Files.deleteIfExists(checkpointFile.toPath()); // 완료
+        return new Result(file, cursor.rows, cursor.skipped, cursor.failed, System.currentTimeMillis() - start, resumed);
+    }
+
+    /**
+     * 묶음 저장 (DB 커넥션 풀을 기다리는 스레드가 있으면 게임 저장이 먼저 끝나도록 잠시 양보)
+     * - overwrite 가 아니면 없는 유저만 기록하고 나머지는 건너뜀으로 셈
+     */
+    private void flush(Storage target, List<PlayerDataSnapshot> chunk, boolean overwrite, Cursor cursor) throws Exception {
+        if (chunk.isEmpty()) return;
+        if (target instanceof PostgresStorage postgres) {
+            long deadline = System.currentTimeMillis() + MAX_POOL_WAIT_MILLIS;
+            while (postgres.getConnectionWaiters() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+        List<PlayerDataSnapshot> batch = new ArrayList<>(chunk);
+        chunk.clear();
+        if (overwrite) {
+            cursor.rows += target.saveBatch(batch);
+        } else {
+            int written = target.insertAbsent(batch);
+            cursor.rows += written;
+            cursor.skipped += batch.size() - written;
+        }
+    }
+
+    /** exports/ 폴더 안의 파일만 허용 */
+    private File resolve(String name) throws IOException {
+        File file = new File(folder, name);
+        if (!file.getCanonicalPath().startsWith(folder.getCanonicalPath() + File.separator)) {
+            throw new IllegalArgumentException("exports 폴더 안의 파일만 가져올 수 있습니다: " + name);
+        }
+        if (!file.isFile()) throw new IllegalArgumentException("파일을 찾을 수 없습니다: exports/" + name);
+        return file;
+    }
+
+    private static PlayerDataSnapshot parseJsonRow(String line) {
+        JsonObject row = JsonParser.parseString(line).getAsJsonObject();
+        String[] values = new String[COLUMNS.length];
+        for (int i = 0; i < CUSTOM; i++) {
+            JsonElement element = row.get(COLUMNS[i]);
+            values[i] = element == null || element.isJsonNull() ? null : element.getAsString();
+        }
+        JsonElement custom = row.get(COLUMNS[CUSTOM]);
+        return toSnapshot(values, custom == null || custom.isJsonNull() ? null : custom.getAsJsonObject());
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) header.put(names.get(i).trim(), i);
+        if (!header.containsKey(COLUMNS[0])) throw new IllegalArgumentException("CSV 헤더에 uuid 컬럼이 없습니다.");
+        return header;
+    }
+
+    private static PlayerDataSnapshot parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> fields = splitCsv(line);
+        String[] values = new String[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Integer index = header.get(COLUMNS[i]);
+            if (index != null && index < fields.size() && !fields.get(index).isEmpty()) values[i] = fields.get(index);
+        }
+        JsonObject custom = values[CUSTOM] == null ? null : JsonParser.parseReader(new StringReader(values[CUSTOM])).getAsJsonObject();
+        return toSnapshot(values, custom);
+    }
+
+    /** 컬럼 문자열 → 스냅샷 (없는 스탯은 신규 유저 기본값, 가져온 행은 전체 기록) */
+    private static PlayerDataSnapshot toSnapshot(String[] values, JsonObject custom) {
+        if (values[0] == null) throw new IllegalArgumentException("uuid 가 없습니다.");
+        UUID uuid = UUID.fromString(values[0]);
+        int level = values[2] == null ? 1 : Integer.parseInt(values[2]);
+        double[] stats = new double[CUSTOM - FIRST_DOUBLE];
+        for (int i = 0; i < stats.length; i++) {
+            String value = values[FIRST_DOUBLE + i];
+            stats[i] = value != null ? Double.parseDouble(value) : defaultStat(FIRST_DOUBLE + i, level);
+        }
+        return new PlayerDataSnapshot(uuid, values[1], level, stats[0], stats[1],
+                stats[2], stats[3], stats[4], stats[5], stats[6],
+                stats[7], stats[8], stats[9], stats[10],
+                stats[11], stats[12],
+                toCustomData(custom), PlayerData.ALL_FIELDS, PlayerDataSnapshot.nextRevision(), RowVersion.unknown());
+    }
+
+    private static double defaultStat(int column, int level) {
+        return switch (COLUMNS[column]) {
+            case "required_exp" -> PlayerData.calculateRequiredExpForLevel(level);
+            case "base_mana", "current_mana" -> 100.0;
+            default -> 0.0;
+        };
+    }
+
+    private static CustomData toCustomData(JsonObject json) {
+        CustomData custom = new CustomData();
+        if (json == null) return custom;
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            JsonElement element = entry.getValue();
+            if (element.isJsonArray()) {
+                JsonArray array = element.getAsJsonArray();
+                List<String> list = new ArrayList<>(array.size());
+                for (JsonElement item : array) list.add(item.isJsonNull() ? null : item.getAsString());
+                custom.put(entry.getKey(), list);
+            } else if (element.isJsonPrimitive()) {
+                custom.put(entry.getKey(), toValue(element.getAsJsonPrimitive()));
+            }
+        }
+        return custom;
+    }
+
+    /** JSON 값 → custom-data 값 (정수는 int 범위면 Integer, 아니면 Long) */
+    private static Object toValue(JsonPrimitive primitive) {
+        if (primitive.isBoolean()) return primitive.getAsBoolean();
+        if (!primitive.isNumber()) return primitive.getAsString();
+        String text = primitive.getAsString();
+        if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0 || text.indexOf('N') >= 0 || text.indexOf('I') >= 0) {
+            return primitive.getAsDouble();
+        }
+        long value = primitive.getAsLong();
+        return value == (int) value ? (Object) (int) value : (Object) value;
+    }
+
+    /**
+     * CSV 필드 인용 (쉼표/이중 따옴표)
+     * - 가져오기는 줄 단위로 읽으므로 줄바꿈이 있는 값은 기록하지 않음 (custom_nbt JSON 은 JsonWriter 가 \n 으로 이스케이프)
+     */
+    private static String csvQuote(String value) throws IOException {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IOException("줄바꿈이 포함된 값은 CSV 로 내보낼 수 없습니다 (ndjson 으로 내보내세요): " + value.strip());
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /** CSV 한 줄 분리 (따옴표 안의 쉼표/이중 따옴표 처리) */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static File checkpointFile(File file, String suffix) {
+        return new File(file.getPath() + suffix);
+    }
+
+    /** 진행 위치 (마지막 uuid = 내보내기 재개 지점, offset = 이 바이트까지 처리 완료) */
+    private record Checkpoint(String lastUuid, long offset, long rows, long skipped, long failed) {
+
+        static final Checkpoint EMPTY = new Checkpoint("", 0, 0, 0, 0);
+
+        static Checkpoint read(File file) throws IOException {
+            if (!file.exists()) return null;
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                properties.load(in);
+            }
+            return new Checkpoint(properties.getProperty("last-uuid", ""),
+                    Long.parseLong(properties.getProperty("offset", "0")),
+                    Long.parseLong(properties.getProperty("rows", "0")),
+                    Long.parseLong(properties.getProperty("skipped", "0")),
+                    Long.parseLong(properties.getProperty("failed", "0")));
+        }
+
+        void write(File file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("last-uuid", lastUuid);
+            properties.setProperty("offset", Long.toString(offset));
+            properties.setProperty("rows", Long.toString(rows));
+            properties.setProperty("skipped", Long.toString(skipped));
+            properties.setProperty("failed", Long.toString(failed));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            properties.store(bytes, "RPGCore data transfer checkpoint");
+            PlayerFileStore.writeAtomically(file.toPath(), bytes.toByteArray());
+        }
+    }
+
+    /** 진행 중 집계 (내보내기/가져오기 스레드 1개에서만 사용) */
+    private final class Cursor {
+        long rows;
+        long skipped;
+        long failed;
+        String lastUuid;
+        private long lastReport = System.nanoTime();
+
+        Cursor(Checkpoint checkpoint) {
+            this.rows = checkpoint.rows();
+            this.skipped = checkpoint.skipped();
+            this.failed = checkpoint.failed();
+            this.lastUuid = checkpoint.lastUuid();
+        }
+
+        void report(Progress progress, double percent) {
+            long now = System.nanoTime();
+            if (progress == null || now - lastReport < progressNanos) return;
+            lastReport = now;
+            progress.report(rows, percent);
+        }
+    }
+
+    /** 바이트 위치를 세면서 한 줄씩 읽기 (UTF-8, 체크포인트 오프셋용) */
+    private static final class LineReader {
+        private final InputStream in;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+        private long position;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        String readLine() throws IOException {
+            line.reset();
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') break;
+                line.write(b);
+            }
+            if (b == -1 && line.size() == 0) return null;
+            String text = line.toString(StandardCharsets.UTF_8);
+            return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+        }
+
+        void skipTo(long offset) throws IOException {
+            if (offset <= position) return;
+            in.skipNBytes(offset - position);
+            position = offset;
+        }
+
+        long getPosition() { return position; }
+    }
+
+    /** 내보내기/가져오기 결과 (행 수는 재개 이전 분량 포함) */
+    public record Result(File file, long rows, long skipped, long failed, long elapsedMillis, boolean resumed) {}
+}
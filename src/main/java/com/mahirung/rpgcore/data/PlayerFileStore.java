@@ -0,0 +1,273 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.util.PerfMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * 파일 모드 플레이어 저장소 (playerdata/<uuid>.dat)
+ * - PlayerDataCodec 바이너리 포맷 사용
+ * - 임시 파일에 기록 후 rename 하여 원자적으로 교체 (저장 도중 종료되어도 이전 파일 유지)
+ * - 기존 <uuid>.yml 은 첫 로드 시 자동으로 .dat 으로 변환 후 .yml.bak 으로 보관
+ * - 비활성 유저는 archive/<uuid 앞 2자리>.zip (256개 버킷) 으로 이동, 로드 시 없으면 버킷에서 꺼내 .dat 으로 복원
+ */
+public class PlayerFileStore {
+
+    public static final String DATA_EXTENSION = ".dat";
+    public static final String LEGACY_EXTENSION = ".yml";
+    // 보관 이동 중 (버킷 zip 기록이 끝나면 삭제, 로드 시 버킷보다 먼저 확인)
+    public static final String ARCHIVING_EXTENSION = ".dat.archiving";
+
+    private final RPGCore plugin;
+    private final File folder;
+    private final File archiveFolder;
+    private final Object[] bucketLocks = new Object[256]; // 버킷 zip 교체와 읽기를 버킷 단위로 직렬화
+
+    public PlayerFileStore(RPGCore plugin) {
+        this(plugin, new File(plugin.getDataFolder(), "playerdata"));
+    }
+
+    /** 지정 폴더 사용 (벤치마크 등 임시 저장소용) */
+    public PlayerFileStore(RPGCore plugin, File folder) {
+        this.plugin = plugin;
+        this.folder = folder;
+        this.archiveFolder = new File(folder, "archive");
+        if (!folder.exists()) folder.mkdirs();
+        for (int i = 0; i < bucketLocks.length; i++) bucketLocks[i] = new Object();
+    }
+
+    /**
+     * 플레이어 데이터 로드 (저장 스레드에서 호출)
+     * @return 저장된 데이터, 없으면 null (신규 유저)
+     */
+    public PlayerData load(UUID uuid) throws IOException {
+        File dataFile = getDataFile(uuid);
+        if (dataFile.exists()) {
+            try {
+                return new PlayerData(plugin, PlayerDataCodec.decode(Files.readAllBytes(dataFile.toPath())));
+            } catch (NoSuchFileException e) {
+                // 확인 직후 보관으로 이동됨 → 아래에서 복원
+            }
+        }
+
+        File legacyFile = new File(folder, uuid + LEGACY_EXTENSION);
+        if (legacyFile.exists()) {
+            return migrateLegacy(uuid, legacyFile);
+        }
+
+        PlayerDataSnapshot archived = readArchived(uuid);
+        if (archived == null) return null;
+        save(archived); // .dat 으로 복원 (버킷의 항목은 다음 보관 때 덮어씀, .dat 이 항상 우선)
+        return new PlayerData(plugin, archived);
+    }
+
+    /** 보관된 데이터 읽기 (이동 중인 파일 → 버킷 zip 순서), 없으면 null */
+    private PlayerDataSnapshot readArchived(UUID uuid) throws IOException {
+        long start = System.nanoTime();
+        byte[] payload = null;
+        synchronized (bucketLock(uuid)) {
+            File moving = new File(folder, uuid + ARCHIVING_EXTENSION);
+            File bucket = getBucketFile(uuid);
+            if (moving.exists()) {
+                payload = Files.readAllBytes(moving.toPath());
+            } else if (bucket.exists()) {
+                try (ZipFile zip = new ZipFile(bucket)) {
+                    ZipEntry entry = zip.getEntry(uuid + DATA_EXTENSION);
+                    if (entry != null) {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            payload = in.readAllBytes();
+                        }
+                    }
+                }
+            }
+        }
+        if (payload == null) return null;
+        PlayerDataSnapshot snapshot = PlayerDataCodec.decode(payload);
+        PerfMetrics.ARCHIVE_PROMOTE.recordSince(start);
+        return snapshot;
+    }
+
+    /**
+     * 마지막 저장(.dat 수정 시각)이 cutoffMillis 이전인 유저를 버킷 zip 으로 이동
+     * - 폴더를 한 번만 순회하며 버킷별로 모으고, 버킷에 batchSize 명이 모이면 그 버킷만 교체 (메모리: 버킷 256개 × batchSize 이하)
+     * - 이동 순서: .dat → .dat.archiving 이름 변경 → zip 기록 → .archiving 삭제 (어느 시점에 중단되어도 로드 가능)
+     * - 이름 변경 후 새로 저장된 .dat 은 그대로 활성 데이터로 남음 (보관 항목보다 우선)
+     */
+    public int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws IOException {
+        Map<String, List<UUID>> buckets = new HashMap<>();
+        int archived = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder.toPath(), "*" + DATA_EXTENSION)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(name.substring(0, name.length() - DATA_EXTENSION.length()));
+                    if (skip.test(uuid) || Files.getLastModifiedTime(path).toMillis() >= cutoffMillis) continue;
+                } catch (IllegalArgumentException | NoSuchFileException e) {
+                    continue; // UUID 가 아닌 파일 / 그 사이 삭제됨
+                }
+                List<UUID> bucket = buckets.computeIfAbsent(bucketName(uuid), key -> new ArrayList<>());
+                bucket.add(uuid);
+                if (bucket.size() >= batchSize) {
+                    archived += archiveBucket(bucket);
+                    bucket.clear();
+                    if (!proceed.getAsBoolean()) return archived;
+                }
+            }
+        }
+        for (List<UUID> bucket : buckets.values()) {
+            if (bucket.isEmpty()) continue;
+            archived += archiveBucket(bucket);
+            if (!proceed.getAsBoolean()) break;
+        }
+        return archived;
+    }
+
+    /** 같은 버킷의 유저들을 zip 에 추가 (zip 교체 1회) */
+    private int archiveBucket(List<UUID> uuids) throws IOException {
+        long start = System.nanoTime();
+        UUID first = uuids.get(0);
+        synchronized (bucketLock(first)) {
+            List<UUID> moved = new ArrayList<>(uuids.size());
+            for (UUID uuid : uuids) {
+                if (getDataFile(uuid).renameTo(new File(folder, uuid + ARCHIVING_EXTENSION))) moved.add(uuid);
+            }
+            if (moved.isEmpty()) return 0;
+
+            if (!archiveFolder.exists()) archiveFolder.mkdirs();
+            try (FileSystem zip = FileSystems.newFileSystem(getBucketFile(first).toPath(), Map.of("create", "true"))) {
+                for (UUID uuid : moved) {
+                    Files.copy(new File(folder, uuid + ARCHIVING_EXTENSION).toPath(), zip.getPath(uuid + DATA_EXTENSION),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            } // 닫을 때 임시 파일에 새 zip 을 쓰고 교체
+            for (UUID uuid : moved) {
+                Files.deleteIfExists(new File(folder, uuid + ARCHIVING_EXTENSION).toPath());
+            }
+            PerfMetrics.ARCHIVE_BATCH.recordSince(start);
+            return moved.size();
+        }
+    }
+
+    private static String bucketName(UUID uuid) {
+        return uuid.toString().substring(0, 2);
+    }
+
+    private Object bucketLock(UUID uuid) {
+        return bucketLocks[Integer.parseInt(bucketName(uuid), 16)];
+    }
+
+    public File getBucketFile(UUID uuid) {
+        return new File(archiveFolder, bucketName(uuid) + ".zip");
+    }
+
+    /**
+     * 변환(.yml → .dat) 없이 읽기 (저장소 가져오기용, 원본 파일을 건드리지 않음)
+     * @return 저장된 데이터, 없으면 null
+     */
+    public PlayerData peek(UUID uuid) throws IOException {
+        File dataFile = getDataFile(uuid);
+        if (dataFile.exists()) {
+            return new PlayerData(plugin, PlayerDataCodec.decode(Files.readAllBytes(dataFile.toPath())));
+        }
+        File legacyFile = new File(folder, uuid + LEGACY_EXTENSION);
+        return legacyFile.exists() ? new PlayerData(plugin, uuid, legacyFile) : null;
+    }
+
+    /**
+     * 저장된 데이터가 있는지 확인 (.dat / .yml / 보관 이동 중 파일 / 버킷 zip 항목)
+     * - load 와 달리 변환/복원하지 않고 파일 내용도 읽지 않음 (zip 은 목록만 확인)
+     */
+    public boolean exists(UUID uuid) throws IOException {
+        if (getDataFile(uuid).exists() || new File(folder, uuid + LEGACY_EXTENSION).exists()) return true;
+        synchronized (bucketLock(uuid)) {
+            if (new File(folder, uuid + ARCHIVING_EXTENSION).exists()) return true;
+            File bucket = getBucketFile(uuid);
+            if (!bucket.exists()) return false;
+            try (ZipFile zip = new ZipFile(bucket)) {
+                return zip.getEntry(uuid + DATA_EXTENSION) != null;
+            }
+        }
+    }
+
+    /** 폴더에 저장된 유저 목록 (.dat / .yml, 파일명이 UUID 가 아닌 파일은 제외) */
+    public Set<UUID> listStored() {
+        Set<UUID> uuids = new LinkedHashSet<>();
+        String[] names = folder.list();
+        if (names == null) return uuids;
+        for (String name : names) {
+            String base;
+            if (name.endsWith(DATA_EXTENSION)) base = name.substring(0, name.length() - DATA_EXTENSION.length());
+            else if (name.endsWith(LEGACY_EXTENSION)) base = name.substring(0, name.length() - LEGACY_EXTENSION.length());
+            else continue;
+            try {
+                uuids.add(UUID.fromString(base));
+            } catch (IllegalArgumentException ignored) {
+                // 임시 파일 등
+            }
+        }
+        return uuids;
+    }
+
+    /** 스냅샷 저장 (임시 파일 → 원자적 rename) */
+    public void save(PlayerDataSnapshot snapshot) throws IOException {
+        writeAtomically(getDataFile(snapshot.uuid()).toPath(), PlayerDataCodec.encode(snapshot));
+    }
+
+    /** 이미 인코딩된 페이로드 저장 (저널 압축용) */
+    public void saveEncoded(UUID uuid, byte[] payload) throws IOException {
+        writeAtomically(getDataFile(uuid).toPath(), payload);
+    }
+
+    /** YML → 바이너리 변환 (원본은 .yml.bak 으로 보관) */
+    private PlayerData migrateLegacy(UUID uuid, File legacyFile) throws IOException {
+        PlayerData data = new PlayerData(plugin, uuid, legacyFile);
+        save(data.snapshot());
+
+        File backup = new File(folder, uuid + LEGACY_EXTENSION + ".bak");
+        if (!legacyFile.renameTo(backup)) {
+            plugin.getLogger().warning("YML 백업 이름 변경 실패 (다음 로드부터는 .dat 사용): " + legacyFile.getName());
+        }
+        plugin.getLogger().log(Level.FINE, "플레이어 파일 변환 완료 (yml → dat): " + uuid);
+        return data;
+    }
+
+    static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public File getDataFile(UUID uuid) {
+        return new File(folder, uuid + DATA_EXTENSION);
+    }
+
+    public File getFolder() { return folder; }
+}
@@ -0,0 +1,302 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * 파일 모드 저널 (append-only, 세그먼트 회전)
+ * - 저장 시 유저별 파일을 덮어쓰는 대신 journal/segment-*.log 에 순차 기록 (배치당 fsync 1회)
+ * - 레코드: 길이(int) | 시퀀스(long) | PlayerDataCodec 페이로드 | CRC32(int)
+ * - 압축(compaction): 닫힌 세그먼트의 최신 상태를 playerdata/<uuid>.dat 베이스 파일로 접고 세그먼트 삭제
+ *   (저장소 I/O 실행기에서 주기 실행 → 저장/로드와 같은 스레드 수 제한 안에서 동작)
+ * - 시작 시 복구: 남아있는 세그먼트를 순서대로 재생하고, 손상/잘린 꼬리 레코드는 잘라냄
+ */
+public class PlayerJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final RPGCore plugin;
+    private final PlayerFileStore fileStore;
+    private final File folder;
+    private final long segmentSizeBytes;
+
+    // 아직 베이스 파일로 접히지 않은 유저별 최신 레코드 (로드 시 베이스보다 우선)
+    private final Map<UUID, TailEntry> tail = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Object appendLock = new Object();
+    private final Object compactLock = new Object();
+    private FileChannel activeChannel;
+    private File activeSegment;
+
+    private final Executor executor;
+    private final long compactIntervalMillis;
+    private volatile boolean closed;
+
+    public PlayerJournal(RPGCore plugin, PlayerFileStore fileStore, Executor executor) {
+        this.plugin = plugin;
+        this.fileStore = fileStore;
+        this.executor = executor;
+        this.folder = new File(plugin.getDataFolder(), "journal");
+        this.segmentSizeBytes = Math.max(64, plugin.getConfig().getLong("save.journal.segment-size-kb", 4096)) * 1024L;
+        if (!folder.exists()) folder.mkdirs();
+
+        recover();
+
+        this.compactIntervalMillis = Math.max(10, plugin.getConfig().getLong("save.journal.compact-interval-seconds", 300)) * 1000L;
+        scheduleCompaction();
+    }
+
+    /** 다음 압축 예약 (대기 중에는 스레드를 점유하지 않음, 끝나면 다시 예약) */
+    private void scheduleCompaction() {
+        CompletableFuture.delayedExecutor(compactIntervalMillis, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (closed) return;
+            compact();
+            scheduleCompaction();
+        });
+    }
+
+    /**
+     * 스냅샷 묶음을 저널 끝에 추가 (저장 스레드에서 호출)
+     * - 레코드 전체를 한 번에 쓰고 fsync 1회 (group commit)
+     */
+    public void append(Collection<PlayerDataSnapshot> snapshots) throws IOException {
+        if (snapshots.isEmpty()) return;
+
+        synchronized (appendLock) {
+            List<byte[]> payloads = new ArrayList<>(snapshots.size());
+            int total = 0;
+            for (PlayerDataSnapshot snapshot : snapshots) {
+                byte[] payload = PlayerDataCodec.encode(snapshot);
+                payloads.add(payload);
+                total += 4 + 8 + payload.length + 4;
+            }
+
+            ByteBuffer buf = ByteBuffer.allocate(total);
+            long[] seqs = new long[payloads.size()];
+            for (int i = 0; i < payloads.size(); i++) {
+                seqs[i] = sequence.incrementAndGet();
+                writeRecord(buf, seqs[i], payloads.get(i));
+            }
+            buf.flip();
+
+            FileChannel channel = channel();
+            while (buf.hasRemaining()) channel.write(buf);
+            channel.force(false);
+
+            int i = 0;
+            for (PlayerDataSnapshot snapshot : snapshots) {
+                long seq = seqs[i];
+                byte[] payload = payloads.get(i++);
+                tail.merge(snapshot.uuid(), new TailEntry(seq, payload), (old, now) -> now.seq > old.seq ? now : old);
+            }
+
+            if (channel.size() >= segmentSizeBytes) rotate();
+        }
+    }
+
+    /**
+     * 플레이어 로드: 저널에 남은 최신 레코드 → 없으면 베이스 파일
+     * @return 저장된 데이터, 없으면 null (신규 유저)
+     */
+    public PlayerData load(UUID uuid) throws IOException {
+        TailEntry entry = tail.get(uuid);
+        if (entry != null) {
+            return new PlayerData(plugin, PlayerDataCodec.decode(entry.payload));
+        }
+        return fileStore.load(uuid);
+    }
+
+    /**
+     * 닫힌 세그먼트를 베이스 파일로 접기 (비동기 주기 실행 + 종료 시 동기 실행)
+     */
+    public void compact() {
+        synchronized (compactLock) {
+            List<File> sealed;
+            Map<UUID, TailEntry> folding = new HashMap<>();
+            synchronized (appendLock) {
+                if (tail.isEmpty()) return;
+                try {
+                    rotate();
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.SEVERE, "[Journal] 세그먼트 회전 실패", e);
+                    return;
+                }
+                sealed = new ArrayList<>(Arrays.asList(listSegments()));
+                sealed.remove(activeSegment);
+                folding.putAll(tail);
+            }
+
+            // 베이스 파일 기록 (잠금 밖에서 수행 → 저장 경로를 막지 않음)
+            for (Map.Entry<UUID, TailEntry> entry : folding.entrySet()) {
+                try {
+                    fileStore.saveEncoded(entry.getKey(), entry.getValue().payload);
+                } catch (IOException e) {
+                    // 세그먼트를 지우지 않고 다음 압축에서 재시도
+                    plugin.getLogger().log(Level.SEVERE, "[Journal] 베이스 파일 기록 실패: " + entry.getKey(), e);
+                    return;
+                }
+            }
+
+            // 접힌 이후 새 레코드가 추가되지 않은 유저만 tail 에서 제거
+            folding.forEach(tail::remove);
+            for (File segment : sealed) {
+                if (!segment.delete()) {
+                    plugin.getLogger().warning("[Journal] 세그먼트 삭제 실패: " + segment.getName());
+                }
+            }
+        }
+    }
+
+    /** 종료 시: 남은 레코드를 베이스로 접고 채널 닫기 */
+    public void close() {
+        closed = true;
+        compact();
+        synchronized (appendLock) {
+            closeActive();
+        }
+    }
+
+    // --- 복구 ---
+
+    /** 시작 시 남아있는 세그먼트를 순서대로 재생 */
+    private void recover() {
+        File[] segments = listSegments();
+        int records = 0;
+        for (File segment : segments) {
+            try {
+                records += replay(segment);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "[Journal] 세그먼트 재생 실패: " + segment.getName(), e);
+            }
+        }
+        if (records > 0) {
+            plugin.getLogger().info("[Journal] 복구: " + segments.length + "개 세그먼트에서 " + records
+                    + "개 레코드 재생 (" + tail.size() + "명)");
+            compact();
+        }
+    }
+
+    /** 세그먼트 1개 재생, 손상된 꼬리는 잘라냄 */
+    private int replay(File segment) throws IOException {
+        byte[] data = Files.readAllBytes(segment.toPath());
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        int records = 0;
+        int validEnd = 0;
+
+        while (buf.remaining() >= 4) {
+            int length = buf.getInt();
+            if (length < 8 || buf.remaining() < length + 4) break; // 잘린 레코드
+
+            long seq = buf.getLong();
+            byte[] payload = new byte[length - 8];
+            buf.get(payload);
+            int storedCrc = buf.getInt();
+
+            CRC32 crc = new CRC32();
+            crc.update(data, validEnd + 4, length);
+            if (storedCrc != (int) crc.getValue()) break; // 손상된 레코드
+
+            UUID uuid;
+            try {
+                uuid = PlayerDataCodec.decode(payload).uuid();
+            } catch (IOException e) {
+                break;
+            }
+            tail.merge(uuid, new TailEntry(seq, payload), (old, now) -> now.seq > old.seq ? now : old);
+            sequence.accumulateAndGet(seq, Math::max);
+            records++;
+            validEnd = buf.position();
+        }
+
+        if (validEnd < data.length) {
+            plugin.getLogger().warning("[Journal] " + segment.getName() + " 의 손상된 꼬리 " + (data.length - validEnd) + " bytes 를 잘라냅니다.");
+            try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+            }
+        }
+        return records;
+    }
+
+    // --- 세그먼트 관리 ---
+
+    private static void writeRecord(ByteBuffer buf, long seq, byte[] payload) {
+        int start = buf.position();
+        buf.putInt(8 + payload.length);
+        buf.putLong(seq);
+        buf.put(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), start + 4, 8 + payload.length);
+        buf.putInt((int) crc.getValue());
+    }
+
+    private FileChannel channel() throws IOException {
+        if (activeChannel == null) {
+            activeSegment = new File(folder, SEGMENT_PREFIX + String.format("%020d", sequence.get() + 1) + SEGMENT_SUFFIX);
+            activeChannel = FileChannel.open(activeSegment.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return activeChannel;
+    }
+
+    /** 현재 세그먼트를 닫음 (다음 append 시 새 세그먼트 생성) */
+    private void rotate() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(true);
+            closeActive();
+        }
+    }
+
+    private void closeActive() {
+        if (activeChannel == null) return;
+        try {
+            activeChannel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "[Journal] 세그먼트 닫기 실패", e);
+        }
+        activeChannel = null;
+        activeSegment = null;
+    }
+
+    /** 시퀀스 순으로 정렬된 세그먼트 목록 (파일명이 0 패딩된 시작 시퀀스) */
+    private File[] listSegments() {
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) return new File[0];
+        Arrays.sort(files);
+        return files;
+    }
+
+    // --- 상태 Getter ---
+    public int getTailSize() { return tail.size(); }
+    public Set<UUID> getTailUuids() { return new HashSet<>(tail.keySet()); }
+    public boolean contains(UUID uuid) { return tail.containsKey(uuid); }
+    public int getSegmentCount() { return listSegments().length; }
+    public long getSequence() { return sequence.get(); }
+
+    /** 베이스로 아직 접히지 않은 레코드 */
+    private record TailEntry(long seq, byte[] payload) {}
+}
@@ -0,0 +1,93 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.managers.DatabaseManager;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * PostgreSQL(Supabase) 저장소
+ * - DatabaseManager 의 배치 저장(변경 컬럼만 UPDATE)과 로드를 그대로 사용
+ * - 원격 저장소 → WriteBehindQueue 가 서킷 브레이커 + 디스크 대기열을 앞에 둠
+ */
+public class PostgresStorage implements Storage {
+
+    private final DatabaseManager dbManager;
+    private final Executor executor;
+
+    public PostgresStorage(DatabaseManager dbManager, Executor executor) {
+        this.dbManager = dbManager;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getName() { return "PostgreSQL"; }
+
+    @Override
+    public PlayerData load(UUID uuid) throws Exception {
+        return dbManager.loadPlayerData(uuid);
+    }
+
+    /** 버전을 아는 스냅샷은 WriteBehindQueue 를 거쳐야 함 → 여기서 충돌이 나면 조용히 버리지 않고 예외 */
+    @Override
+    public int saveBatch(List<PlayerDataSnapshot> snapshots) throws Exception {
+        List<UUID> conflicts = new ArrayList<>();
+        int written = dbManager.savePlayerDataBatch(snapshots, (snapshot, currentVersion) -> conflicts.add(snapshot.uuid()));
+        if (!conflicts.isEmpty()) {
+            throw new SQLException("버전 충돌로 기록하지 않은 행 " + conflicts.size() + "개: " + conflicts);
+        }
+        return written;
+    }
+
+    @Override
+    public int saveBatch(List<PlayerDataSnapshot> snapshots, ConflictConsumer conflicts) throws Exception {
+        return dbManager.savePlayerDataBatch(snapshots, conflicts);
+    }
+
+    @Override
+    public int insertAbsent(List<PlayerDataSnapshot> snapshots) throws Exception {
+        return dbManager.insertAbsentBatch(snapshots);
+    }
+
+    @Override
+    public void forEachLevel(LevelConsumer consumer) throws Exception {
+        dbManager.forEachLevel(consumer);
+    }
+
+    @Override
+    public void forEachSnapshot(String afterUuid, SnapshotConsumer consumer) throws Exception {
+        dbManager.forEachSnapshot(afterUuid, consumer);
+    }
+
+    @Override
+    public int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws Exception {
+        return dbManager.archiveInactive(cutoffMillis, batchSize, skip, proceed);
+    }
+
+    @Override
+    public Executor getExecutor() { return executor; }
+
+    @Override
+    public boolean isRemote() { return true; }
+
+    @Override
+    public void saveAllOnShutdown() {
+        // 커넥션 풀은 RPGCore.onDisable 에서 DatabaseManager.close() 로 종료
+    }
+
+    /** 커넥션을 기다리는 스레드 수 (풀이 포화되었는지, 저장량 조절용) */
+    public int getConnectionWaiters() {
+        HikariDataSource dataSource = dbManager.getDataSource();
+        return dataSource != null && dataSource.getHikariPoolMXBean() != null
+                ? dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection()
+                : 0;
+    }
+
+    public DatabaseManager getDatabaseManager() { return dbManager; }
+}
@@ -0,0 +1,27 @@
+package com.mahirung.rpgcore.data;
+
+/**
+ * rpg_player_data.version 추적 (PlayerData 와 그 스냅샷들이 같은 객체를 공유)
+ * - 로드 시 행의 version 으로 시작, 저장 스레드가 CAS(WHERE version = ?) 성공 시 +1
+ * - 같은 유저의 기록은 WriteBehindQueue 의 writeLock 안에서 순서대로 실행되므로 별도 잠금 없음
+ */
+public final class RowVersion {
+
+    /** 출처를 모르는 데이터 (비상 파일, 파일 저장소 등) → 조건 없이 UPSERT */
+    public static final long UNKNOWN = -1L;
+    /** 로드 시 행이 없었음 (신규 유저) → INSERT, 그 사이 다른 서버가 만들었으면 충돌 */
+    public static final long ABSENT = 0L;
+
+    private volatile long value;
+
+    public RowVersion(long value) {
+        this.value = value;
+    }
+
+    public static RowVersion unknown() {
+        return new RowVersion(UNKNOWN);
+    }
+
+    public long get() { return value; }
+    public void set(long value) { this.value = value; }
+}
@@ -0,0 +1,188 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * DB 장애 시 로컬 디스크 저장 대기열 (spill/queue.log)
+ * - DB에 기록하지 못한 스냅샷을 파일 끝에 추가하고 fsync (서버가 꺼져도 유지)
+ * - 메모리 색인: UUID별 최신 스냅샷 (추가된 순서 유지) → DB 복구 후 이 순서대로 배치 기록
+ * - 파일은 색인을 복원하기 위한 용도, 기록이 끝나면 색인 기준으로 다시 써서 줄임 (compact)
+ * - 파일: magic(int "RPGQ") | 레코드 반복, 레코드: 행 버전(long) | 길이(int) | PlayerDataCodec 페이로드 (페이로드 CRC 로 잘린 꼬리 감지)
+ * - 행 버전을 함께 보관 → 재시작 후 기록해도 CAS 로 기록되어 그 사이 다른 서버가 저장한 행을 되돌리지 않음
+ *   (magic 이 없는 이전 포맷 파일은 버전 없이 읽고 조건 없이 기록)
+ * - 추가/대체/기록은 WriteBehindQueue 의 기록 잠금 안에서만 호출 (DB 기록 순서 보장)
+ */
+public class SpillQueue {
+
+    private static final int MAGIC = 0x52504751; // "RPGQ"
+
+    private final RPGCore plugin;
+    private final File file;
+
+    // UUID → 아직 DB에 반영되지 않은 최신 스냅샷 (전체 컬럼 기록 대상)
+    private final LinkedHashMap<UUID, PlayerDataSnapshot> index = new LinkedHashMap<>();
+    private FileChannel channel;
+
+    public SpillQueue(RPGCore plugin) {
+        this.plugin = plugin;
+        File folder = new File(plugin.getDataFolder(), "spill");
+        if (!folder.exists()) folder.mkdirs();
+        this.file = new File(folder, "queue.log");
+        recover();
+    }
+
+    /** 스냅샷 추가 (fsync 후 반환) */
+    public synchronized void append(Collection<PlayerDataSnapshot> snapshots) throws IOException {
+        if (snapshots.isEmpty()) return;
+
+        FileChannel ch = channel();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (ch.size() == 0) out.writeInt(MAGIC);
+            for (PlayerDataSnapshot snapshot : snapshots) writeRecord(out, snapshot);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+        while (buf.hasRemaining()) ch.write(buf);
+        ch.force(false);
+
+        for (PlayerDataSnapshot snapshot : snapshots) {
+            PlayerDataSnapshot old = index.get(snapshot.uuid());
+            if (old != null && old.revision() > snapshot.revision()) continue;
+            index.remove(snapshot.uuid()); // 순서상 맨 뒤로
+            index.put(snapshot.uuid(), snapshot.withDirtyMask(PlayerData.ALL_FIELDS));
+        }
+    }
+
+    /** 대기 중인 (DB보다 최신인) 스냅샷 */
+    public synchronized PlayerDataSnapshot get(UUID uuid) {
+        return index.get(uuid);
+    }
+
+    /**
+     * 대기 중인 스냅샷보다 새로운 스냅샷은 전체 컬럼 기록으로 승격
+     * - 부분 UPDATE 만 하면 대기 중이던 스냅샷의 변경분이 빠진 채로 대체될 수 있으므로
+     */
+    public synchronized List<PlayerDataSnapshot> coverSpilled(List<PlayerDataSnapshot> chunk) {
+        if (index.isEmpty()) return chunk;
+        List<PlayerDataSnapshot> result = new ArrayList<>(chunk.size());
+        for (PlayerDataSnapshot snapshot : chunk) {
+            PlayerDataSnapshot spilled = index.get(snapshot.uuid());
+            result.add(spilled != null && spilled.revision() < snapshot.revision()
+                    ? snapshot.withDirtyMask(PlayerData.ALL_FIELDS)
+                    : snapshot);
+        }
+        return result;
+    }
+
+    /** DB에 기록된 스냅샷보다 오래된 대기 항목 제거 */
+    public synchronized void supersede(Collection<PlayerDataSnapshot> written) {
+        if (index.isEmpty()) return;
+        for (PlayerDataSnapshot snapshot : written) {
+            PlayerDataSnapshot spilled = index.get(snapshot.uuid());
+            if (spilled != null && spilled.revision() <= snapshot.revision()) {
+                index.remove(snapshot.uuid());
+            }
+        }
+    }
+
+    /** 대기 항목 (추가된 순서) */
+    public synchronized List<PlayerDataSnapshot> entries() {
+        return new ArrayList<>(index.values());
+    }
+
+    /** 파일을 현재 색인 내용으로 다시 씀 (비어있으면 삭제) */
+    public synchronized void compact() throws IOException {
+        closeChannel();
+        if (index.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            for (PlayerDataSnapshot snapshot : index.values()) writeRecord(out, snapshot);
+        }
+        PlayerFileStore.writeAtomically(file.toPath(), bytes.toByteArray());
+    }
+
+    private static void writeRecord(DataOutputStream out, PlayerDataSnapshot snapshot) throws IOException {
+        byte[] payload = PlayerDataCodec.encode(snapshot);
+        out.writeLong(EmergencySpill.rowVersionOf(snapshot));
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    /** 시작 시 파일에서 색인 복원 (잘린 꼬리는 무시) */
+    private void recover() {
+        if (!file.exists()) return;
+        int records = 0;
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            boolean versioned = buf.remaining() >= 4 && buf.getInt(0) == MAGIC;
+            if (versioned) buf.getInt();
+            while (buf.remaining() >= (versioned ? 12 : 4)) {
+                long version = versioned ? buf.getLong() : RowVersion.UNKNOWN;
+                int length = buf.getInt();
+                if (length < 0 || length > buf.remaining()) break;
+                byte[] payload = new byte[length];
+                buf.get(payload);
+                PlayerDataSnapshot snapshot;
+                try {
+                    snapshot = PlayerDataCodec.decode(payload).withRowVersion(new RowVersion(version));
+                } catch (IOException e) {
+                    break;
+                }
+                index.remove(snapshot.uuid());
+                index.put(snapshot.uuid(), snapshot.withDirtyMask(PlayerData.ALL_FIELDS));
+                records++;
+            }
+            if (!index.isEmpty()) {
+                plugin.getLogger().warning("[Spill] DB에 기록되지 않은 데이터 " + index.size() + "명 (" + records + "개 레코드)을 복원했습니다.");
+            }
+            compact(); // 손상된 꼬리 제거 + 중복 정리
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "[Spill] 대기열 파일 복원 실패 (" + records + "개 레코드까지 복원)", e);
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "[Spill] 대기열 파일 닫기 실패", e);
+        }
+        channel = null;
+    }
+
+    // --- 상태 Getter ---
+    public synchronized int size() { return index.size(); }
+    public synchronized boolean isEmpty() { return index.isEmpty(); }
+    public long getFileBytes() { return file.length(); }
+}
@@ -0,0 +1,260 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.database.PlayerArchive;
+import com.mahirung.rpgcore.database.PlayerDataMigrations;
+import com.mahirung.rpgcore.database.PlayerDataTable;
+import com.mahirung.rpgcore.database.SchemaMigrator;
+import com.mahirung.rpgcore.util.PerfMetrics;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * 내장 SQLite 저장소 (plugins/RPGCore/playerdata.db)
+ * - DB 서버에 접속할 수 없는 서버용: 파일 1개에 PostgreSQL 과 같은 rpg_player_data 스키마로 저장
+ * - WAL 모드: 읽기 연결은 쓰기 중에도 막히지 않음
+ * - 쓰기는 전용 스레드 1개(RPGCore-SQLite-Writer)가 연결 1개로 직렬 처리 → SQLITE_BUSY 없음
+ * - 묶음 저장 = 트랜잭션 1개 + 재사용하는 UPSERT prepared statement 배치 (커밋 1회 = WAL fsync 1회)
+ */
+public class SqliteStorage implements Storage {
+
+    private final RPGCore plugin;
+    private final File file;
+    private final Executor executor;
+    private final ExecutorService writer;
+    private final SQLiteDataSource dataSource;
+
+    // 쓰기 전용 (writer 스레드에서만 사용)
+    private final Connection writeConnection;
+    private final PreparedStatement upsert;
+    // 읽기 전용 (readConnection 잠금으로 직렬화)
+    private final Connection readConnection;
+    private final PreparedStatement select;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    public SqliteStorage(RPGCore plugin, File file, Executor executor) {
+        this.plugin = plugin;
+        this.file = file;
+        this.executor = executor;
+        try {
+            File folder = file.getParentFile();
+            if (folder != null && !folder.exists()) folder.mkdirs();
+
+            SQLiteConfig config = new SQLiteConfig();
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+            config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL); // WAL 에서는 커밋 내구성 유지 + 체크포인트 때만 fsync
+            config.setBusyTimeout(5000);
+            this.dataSource = new SQLiteDataSource(config);
+            dataSource.setUrl("jdbc:sqlite:" + file.getAbsolutePath());
+
+            SchemaMigrator migrator = new SchemaMigrator(dataSource, plugin.getLogger());
+            migrator.migrate(PlayerDataMigrations.embedded());
+
+            this.writeConnection = dataSource.getConnection();
+            this.writeConnection.setAutoCommit(false);
+            this.upsert = writeConnection.prepareStatement(PlayerDataTable.UPSERT_SQL);
+            this.readConnection = dataSource.getConnection();
+            this.select = readConnection.prepareStatement(PlayerDataTable.SELECT_SQL);
+        } catch (SQLException e) {
+            throw new IllegalStateException("SQLite 저장소를 열 수 없습니다: " + file.getName(), e);
+        }
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RPGCore-SQLite-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() { return "SQLite (WAL)"; }
+
+    @Override
+    public PlayerData load(UUID uuid) throws Exception {
+        PlayerDataSnapshot stored;
+        synchronized (readConnection) {
+            select.setString(1, uuid.toString());
+            try (ResultSet rs = select.executeQuery()) {
+                stored = rs.next() ? PlayerDataTable.readRow(rs) : null;
+            }
+        }
+        if (stored == null) {
+            // 비활성으로 보관된 유저: 쓰기 스레드에서 복원 (없으면 신규 유저)
+            stored = onWriter(() -> PlayerArchive.promote(writeConnection, uuid, false));
+            if (stored == null) return null;
+        }
+        return new PlayerData(plugin, stored);
+    }
+
+    /** 비활성 유저 이동 (묶음마다 쓰기 스레드에 넘겨 트랜잭션 1개, 묶음 사이에는 게임 저장이 먼저 처리됨) */
+    @Override
+    public int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws Exception {
+        long cutoffSeconds = cutoffMillis / 1000;
+        String afterUuid = "";
+        int archived = 0;
+        while (true) {
+            long start = System.nanoTime();
+            String after = afterUuid;
+            PlayerArchive.Batch batch = onWriter(() -> PlayerArchive.archiveBatch(writeConnection, PlayerArchive.EMBEDDED_INACTIVE_SQL,
+                    cutoffSeconds, after, batchSize, skip));
+            PerfMetrics.ARCHIVE_BATCH.recordSince(start);
+            archived += batch.archived();
+            if (batch.scanned() < batchSize || !proceed.getAsBoolean()) return archived;
+            afterUuid = batch.lastUuid();
+        }
+    }
+
+    /** 별도 읽기 연결로 순회 (WAL 이므로 쓰기/일반 로드를 막지 않음) */
+    @Override
+    public void forEachLevel(LevelConsumer consumer) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(PlayerDataTable.LEVELS_SQL)) {
+            while (rs.next()) {
+                consumer.accept(UUID.fromString(rs.getString(1)), rs.getInt(2), rs.getDouble(3));
+            }
+        }
+    }
+
+    /** 별도 읽기 연결로 스트리밍 (sqlite-jdbc 는 next() 마다 한 행씩 읽으므로 결과 전체를 메모리에 두지 않음) */
+    @Override
+    public void forEachSnapshot(String afterUuid, SnapshotConsumer consumer) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(PlayerDataTable.STREAM_SQL)) {
+            ps.setString(1, afterUuid);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) consumer.accept(PlayerDataTable.readRow(rs));
+            }
+        }
+    }
+
+    /** 쓰기 스레드에 묶음을 넘기고 커밋될 때까지 대기 */
+    @Override
+    public int saveBatch(List<PlayerDataSnapshot> snapshots) throws Exception {
+        if (snapshots.isEmpty()) return 0;
+        return onWriter(() -> writeBatch(snapshots));
+    }
+
+    /** 쓰기 스레드에서 보관 유저 확인 + INSERT ... ON CONFLICT DO NOTHING 배치 → 커밋 1회 */
+    @Override
+    public int insertAbsent(List<PlayerDataSnapshot> snapshots) throws Exception {
+        if (snapshots.isEmpty()) return 0;
+        return onWriter(() -> {
+            int inserted = 0;
+            try (PreparedStatement insert = writeConnection.prepareStatement(PlayerDataTable.INSERT_IF_ABSENT_SQL)) {
+                Set<UUID> archived = PlayerArchive.archivedAmong(writeConnection, snapshots);
+                int rows = 0;
+                for (PlayerDataSnapshot snapshot : snapshots) {
+                    if (archived.contains(snapshot.uuid())) continue;
+                    PlayerDataTable.bindUpsert(insert, snapshot);
+                    insert.addBatch();
+                    rows++;
+                }
+                if (rows > 0) {
+                    for (int count : insert.executeBatch()) {
+                        if (count != 0) inserted++;
+                    }
+                }
+                writeConnection.commit();
+            } catch (SQLException e) {
+                writeConnection.rollback();
+                throw e;
+            }
+            batches.incrementAndGet();
+            rowsWritten.addAndGet(inserted);
+            return inserted;
+        });
+    }
+
+    /** 쓰기 스레드에서 실행하고 끝날 때까지 대기 */
+    private <T> T onWriter(Callable<T> task) throws Exception {
+        try {
+            return writer.submit(task).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /** 쓰기 스레드 전용: 변경된 행만 UPSERT 배치 → 커밋 1회 */
+    private int writeBatch(List<PlayerDataSnapshot> snapshots) throws SQLException {
+        int rows = 0;
+        try {
+            for (PlayerDataSnapshot snapshot : snapshots) {
+                if ((snapshot.dirtyMask() & PlayerDataTable.COLUMN_MASK) == 0) continue; // 저장된 값과 같음
+                PlayerDataTable.bindUpsert(upsert, snapshot);
+                upsert.addBatch();
+                rows++;
+            }
+            if (rows > 0) {
+                upsert.executeBatch();
+                writeConnection.commit();
+            }
+        } catch (SQLException e) {
+            upsert.clearBatch();
+            writeConnection.rollback();
+            throw e;
+        }
+        batches.incrementAndGet();
+        rowsWritten.addAndGet(rows);
+        return snapshots.size();
+    }
+
+    @Override
+    public Executor getExecutor() { return executor; }
+
+    @Override
+    public void saveAllOnShutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) writer.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.shutdownNow();
+        }
+        try (Statement st = writeConnection.createStatement()) {
+            writeConnection.setAutoCommit(true); // 열린 트랜잭션이 있으면 체크포인트가 끝까지 진행되지 않음
+            st.execute("PRAGMA wal_checkpoint(TRUNCATE)"); // WAL 내용을 본 파일로 합치고 비움
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "[SQLite] 체크포인트 실패", e);
+        }
+        synchronized (readConnection) {
+            closeQuietly(select);
+            closeQuietly(readConnection);
+        }
+        closeQuietly(upsert);
+        closeQuietly(writeConnection);
+    }
+
+    private void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "[SQLite] 종료 실패", e);
+        }
+    }
+
+    public File getFile() { return file; }
+    public long getBatches() { return batches.get(); }
+    public long getRowsWritten() { return rowsWritten.get(); }
+}
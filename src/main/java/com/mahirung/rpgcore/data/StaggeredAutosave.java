@@ -0,0 +1,161 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.util.PerfMetrics;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * 분산 자동 저장
+ * - 저장 주기(save.flush-interval-seconds)를 틱 단위 슬롯으로 나누고, 유저마다 UUID 해시로 슬롯 1개를 배정
+ * - 매 틱 차례가 된 슬롯의 변경된 유저만 캡처해서 저장 → 주기마다 전원을 한 번에 저장하던 부하를 고르게 분산
+ * - 코호트(한 번에 저장하는 인원) 한도는 AIMD 로 조정
+ *   - 저장이 목표 시간(target-millis)을 넘거나 커넥션 대기 스레드가 생기면 절반으로
+ *   - 한도를 채운 저장이 여유 있게 끝나면 1명씩 증가
+ *   - 한도를 넘는 슬롯은 다음 틱으로 밀림 (부하가 높으면 주기가 늘어남)
+ * - 이전 코호트 저장이 끝나기 전에는 다음 코호트를 보내지 않음
+ */
+public class StaggeredAutosave {
+
+    private final RPGCore plugin;
+    private final WriteBehindQueue writeBehindQueue;
+    private final Storage storage;
+    private final Executor executor;
+    private final Function<UUID, PlayerData> lookup;
+
+    private final int slotCount;
+    private final Set<UUID>[] slots;
+    private final long targetNanos;
+    private final int minCohort;
+    private final int maxCohort;
+
+    private BukkitTask task;
+    private long tick;
+    private int cursor;          // 다음에 처리할 슬롯
+    private volatile boolean inFlight; // 코호트 저장 중 (완료 시 I/O 스레드에서 해제)
+    private volatile int cohortLimit;
+
+    // --- 통계 ---
+    private volatile int lastCohort;
+    private volatile long lastElapsedMillis;
+    private volatile int lagSlots;
+    private volatile long cohorts; // 완료 콜백에서만 증가 (동시에 1개만 진행)
+
+    @SuppressWarnings("unchecked")
+    public StaggeredAutosave(RPGCore plugin, WriteBehindQueue writeBehindQueue, Storage storage, Executor executor,
+                             Function<UUID, PlayerData> lookup) {
+        this.plugin = plugin;
+        this.writeBehindQueue = writeBehindQueue;
+        this.storage = storage;
+        this.executor = executor;
+        this.lookup = lookup;
+
+        this.slotCount = (int) Math.max(1, plugin.getConfig().getLong("save.flush-interval-seconds", 60) * 20L);
+        this.slots = new Set[slotCount];
+        this.targetNanos = Math.max(1, plugin.getConfig().getLong("save.stagger.target-millis", 50)) * 1_000_000L;
+        this.minCohort = Math.max(1, plugin.getConfig().getInt("save.stagger.min-cohort", 1));
+        this.maxCohort = Math.max(minCohort, plugin.getConfig().getInt("save.stagger.max-cohort", 50));
+        this.cohortLimit = Math.max(minCohort, Math.min(maxCohort, plugin.getConfig().getInt("save.flush-size", 100) / 4));
+    }
+
+    public void start() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+    }
+
+    /** 메모리에 올라온 유저 등록 (메인 스레드) */
+    public void register(UUID uuid) {
+        int slot = slotOf(uuid);
+        if (slots[slot] == null) slots[slot] = new LinkedHashSet<>();
+        slots[slot].add(uuid);
+    }
+
+    /** 메모리에서 내려간 유저 제거 (메인 스레드) */
+    public void unregister(UUID uuid) {
+        Set<UUID> members = slots[slotOf(uuid)];
+        if (members != null) members.remove(uuid);
+    }
+
+    private int slotOf(UUID uuid) {
+        long bits = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        return (int) Math.floorMod(bits ^ (bits >>> 32), (long) slotCount);
+    }
+
+    /** 매 틱: 차례가 된 슬롯부터 한도만큼 캡처 후 비동기 저장 */
+    private void tick() {
+        int due = (int) (tick++ % slotCount);
+        if (inFlight) {
+            lagSlots = Math.floorMod(due + 1 - cursor, slotCount);
+            return;
+        }
+
+        List<PlayerData> cohort = new ArrayList<>();
+        boolean wrapped = false;
+        int limit = cohortLimit;
+        while (cohort.size() < limit) {
+            Set<UUID> members = slots[cursor];
+            if (members != null) {
+                for (UUID uuid : members) {
+                    PlayerData data = lookup.apply(uuid);
+                    if (data != null && data.isDirty()) cohort.add(data);
+                }
+            }
+            boolean reachedDue = cursor == due;
+            cursor = (cursor + 1) % slotCount;
+            if (cursor == 0) wrapped = true;
+            if (reachedDue) break;
+        }
+        lagSlots = Math.floorMod(due + 1 - cursor, slotCount);
+
+        int captured = writeBehindQueue.capture(cohort);
+        // 저장 실패로 대기열에 남은 항목은 주기마다 한 번 재시도 (변경된 유저가 없는 틱에는 보내지 않음)
+        if (captured == 0 && !(wrapped && writeBehindQueue.getPendingCount() > 0)) return;
+
+        inFlight = true;
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(writeBehindQueue::flush, executor).whenComplete((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            PerfMetrics.AUTOSAVE.record(elapsed);
+            adapt(captured, limit, elapsed, error != null || (result != null && result.getFailed() > 0));
+            lastCohort = captured;
+            lastElapsedMillis = elapsed / 1_000_000L;
+            cohorts++;
+            inFlight = false;
+            if (error != null) plugin.getLogger().log(Level.SEVERE, "[AutoSave] 분산 저장 실패", error);
+        });
+    }
+
+    /** AIMD: 느리거나 커넥션을 기다리면 절반, 한도를 채우고도 여유 있으면 +1 */
+    private void adapt(int captured, int limit, long elapsedNanos, boolean failed) {
+        if (failed || elapsedNanos > targetNanos || connectionWaiters() > 0) {
+            cohortLimit = Math.max(minCohort, limit / 2);
+        } else if (captured >= limit) {
+            cohortLimit = Math.min(maxCohort, limit + 1);
+        }
+    }
+
+    private int connectionWaiters() {
+        return storage instanceof PostgresStorage postgres ? postgres.getConnectionWaiters() : 0;
+    }
+
+    // --- 통계 Getter ---
+    public int getSlotCount() { return slotCount; }
+    public int getCohortLimit() { return cohortLimit; }
+    public int getLastCohort() { return lastCohort; }
+    public long getLastElapsedMillis() { return lastElapsedMillis; }
+    public int getLagSlots() { return lagSlots; }
+    public long getCohorts() { return cohorts; }
+}
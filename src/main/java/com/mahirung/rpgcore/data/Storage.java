@@ -1,31 +1,140 @@
 package com.mahirung.rpgcore.data;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 /**
  * 데이터 저장/로드 인터페이스
- * - 현재는 PlayerData가 직접 파일 I/O를 처리하지만,
- *   향후 DB 연동, Redis 캐싱, 클라우드 저장소 등을 붙일 때 이 인터페이스를 구현하면 됨.
+ * - 구현체: PostgresStorage (DB), SqliteStorage (내장 DB 파일), FileStorage (유저별 .dat + 저널)
+ * - 어떤 구현체를 쓸지는 config.yml 의 storage.type 으로 선택 (StorageFactory)
+ * - load/saveBatch 는 블로킹 → 전용 I/O 실행기(getExecutor) 또는 로그인 스레드에서만 호출
+ * - 비동기 메서드는 위 블로킹 메서드를 I/O 실행기 위에서 CompletableFuture 로 감싼 것
  */
 public interface Storage {
 
+    /** 저장소 이름 (상태 표시용) */
+    String getName();
+
+    /**
+     * 플레이어 데이터를 동기로 로드합니다.
+     * @return 저장된 데이터, 없으면 null (신규 유저)
+     * @throws Exception 저장소 오류 (신규 유저로 취급하면 안 됨)
+     */
+    PlayerData load(UUID uuid) throws Exception;
+
+    /**
+     * 스냅샷 묶음을 동기로 저장합니다. (전부 저장되거나 예외)
+     * - 스냅샷은 전체 상태이므로 실패 후 같은 묶음을 다시 저장해도 결과가 같음
+     * @return 처리된 스냅샷 수
+     */
+    int saveBatch(List<PlayerDataSnapshot> snapshots) throws Exception;
+
+    /**
+     * 저장소에 없는 유저만 기록 (덮어쓰기 없는 가져오기용)
+     * - 이미 있는 유저, 보관된 유저는 건드리지 않음 (load 와 달리 보관 데이터를 복원하지 않음)
+     * - DB: INSERT ... ON CONFLICT DO NOTHING 배치 1회 (유저마다 조회하지 않음) / 파일: 파일 존재 여부 확인 후 기록
+     * @return 기록된 스냅샷 수 (나머지는 이미 있어서 건너뜀)
+     */
+    int insertAbsent(List<PlayerDataSnapshot> snapshots) throws Exception;
+
+    /**
+     * 행 버전(CAS) 충돌을 구분하는 저장 (WriteBehindQueue 전용)
+     * - 다른 서버가 먼저 기록해서 덮어쓰지 않은 스냅샷은 기록 수에 넣지 않고 conflicts 로 넘김 (저장소 커밋 이후 호출)
+     * - 행 버전이 없는 저장소는 충돌이 없으므로 saveBatch 와 같음
+     * @return 기록된 스냅샷 수 (충돌 제외)
+     */
+    default int saveBatch(List<PlayerDataSnapshot> snapshots, ConflictConsumer conflicts) throws Exception {
+        return saveBatch(snapshots);
+    }
+
+    /**
+     * 저장된 모든 유저의 레벨/경험치 순회 (레벨 순위표 초기화용, I/O 스레드에서 호출)
+     * - 전체 데이터 대신 순위에 필요한 값만 읽음
+     */
+    void forEachLevel(LevelConsumer consumer) throws Exception;
+
+    /**
+     * 저장된 모든 유저의 전체 데이터를 uuid 문자열 순서로 순회 (내보내기용, 비동기 스레드에서 호출)
+     * - 한 번에 일부만 메모리에 올림 (DB: 커서 fetchSize, 파일: 묶음 단위 병렬 읽기)
+     * - 콜백이 돌아와야 다음 행을 읽으므로 느린 기록 쪽에 맞춰 읽기 속도가 조절됨
+     * @param afterUuid 이 uuid 이후부터 (처음이면 "", 중단된 내보내기 재개용)
+     */
+    void forEachSnapshot(String afterUuid, SnapshotConsumer consumer) throws Exception;
+
+    /**
+     * 마지막 저장이 cutoffMillis 이전인 유저를 보관소로 이동 (batchSize 명씩, 묶음마다 트랜잭션/보관 파일 교체 1회)
+     * - 보관된 유저는 load 시 자동으로 복원되므로 호출 측은 구분하지 않음
+     * - forEachLevel / forEachSnapshot 순회에는 포함되지 않음 (순위표, 내보내기는 활성 유저만)
+     * @param skip    옮기지 않을 유저 (접속 중, 저장 대기 중 등)
+     * @param proceed 묶음 사이마다 호출, false 면 중단 (속도 조절 / 종료용)
+     * @return 이동한 유저 수
+     */
+    int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws Exception;
+
+    /** 이 저장소의 I/O 를 실행하는 전용 실행기 */
+    Executor getExecutor();
+
+    /** 원격 저장소 여부 (true 면 서킷 브레이커 + 로컬 디스크 대기열을 앞에 둠) */
+    default boolean isRemote() { return false; }
+
     /**
      * 플레이어 데이터를 비동기로 로드합니다.
      * @param uuid 로드할 플레이어 UUID
-     * @return PlayerData를 반환하는 CompletableFuture
+     * @return PlayerData를 반환하는 CompletableFuture (없으면 null)
      */
-    CompletableFuture<PlayerData> loadPlayerDataAsync(UUID uuid);
+    default CompletableFuture<PlayerData> loadPlayerDataAsync(UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(uuid);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, getExecutor());
+    }
 
     /**
      * 플레이어 데이터를 비동기로 저장합니다.
+     * - 스냅샷은 호출한 스레드(데이터를 수정하는 메인 스레드)에서 뜸
      * @param playerData 저장할 데이터 객체
      * @return 저장 성공 여부를 반환하는 CompletableFuture
      */
-    CompletableFuture<Boolean> savePlayerDataAsync(PlayerData playerData);
+    default CompletableFuture<Boolean> savePlayerDataAsync(PlayerData playerData) {
+        PlayerDataSnapshot snapshot = playerData.snapshot();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return saveBatch(List.of(snapshot)) == 1;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, getExecutor());
+    }
 
     /**
-     * 서버 종료 시 모든 데이터를 동기(즉시)로 저장합니다.
+     * 서버 종료 시 저장소를 마무리합니다. (저널 압축, WAL 체크포인트, 연결 종료 등)
+     * - 남은 스냅샷은 WriteBehindQueue 가 이 호출 전에 모두 기록함
      */
     void saveAllOnShutdown();
+
+    /** saveBatch 버전 충돌 콜백 (currentVersion: 저장소에 있는 행의 현재 버전, 행이 없으면 RowVersion.ABSENT) */
+    @FunctionalInterface
+    interface ConflictConsumer {
+        void accept(PlayerDataSnapshot snapshot, long currentVersion);
+    }
+
+    /** forEachSnapshot 콜백 */
+    @FunctionalInterface
+    interface SnapshotConsumer {
+        void accept(PlayerDataSnapshot snapshot) throws Exception;
+    }
+
+    /** forEachLevel 콜백 */
+    @FunctionalInterface
+    interface LevelConsumer {
+        void accept(UUID uuid, int level, double exp);
+    }
 }
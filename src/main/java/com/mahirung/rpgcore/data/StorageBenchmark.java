@@ -0,0 +1,77 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+/**
+ * 저장소(Storage) 구현체별 처리량 비교 (파일 vs SQLite)
+ * - /rpgcore storage bench 에서 비동기로 실행
+ * - 임시 폴더에 각 저장소를 만들어 flush-size 단위 saveBatch 후 1명씩 load, 끝나면 삭제
+ * - PostgreSQL 은 운영 DB 에 더미 행이 생기므로 제외 (/rpgcore storage 의 플러시 통계로 확인)
+ */
+public final class StorageBenchmark {
+
+    private static final Executor DIRECT = Runnable::run; // 벤치마크 스레드에서 바로 실행
+
+    private final RPGCore plugin;
+
+    public StorageBenchmark(RPGCore plugin) {
+        this.plugin = plugin;
+    }
+
+    /** 벤치마크 실행 (저장 스레드에서 호출) */
+    public List<Result> run(int players) throws Exception {
+        File dir = new File(plugin.getDataFolder(), "bench-tmp-storage");
+        int batchSize = Math.max(1, plugin.getConfig().getInt("save.flush-size", 100));
+
+        List<PlayerDataSnapshot> samples = new ArrayList<>(players);
+        CustomData custom = new CustomData();
+        custom.setString(CustomKeys.DAMAGE_SKIN, "default");
+        for (int i = 0; i < players; i++) {
+            samples.add(new PlayerDataSnapshot(UUID.randomUUID(), "warrior", 1 + i % 100, i * 1.5, 1500.0,
+                    30.0, 5.0, 120.0, 10.0, 87.5, 25.0, 4.0, 0.1, 0.05, 0.5, 0.1,
+                    custom, PlayerData.ALL_FIELDS, PlayerDataSnapshot.nextRevision(), RowVersion.unknown()));
+        }
+
+        List<Result> results = new ArrayList<>();
+        try {
+            results.add(measure(new FileStorage(new PlayerFileStore(plugin, new File(dir, "file")), null, DIRECT), samples, batchSize));
+            results.add(measure(new SqliteStorage(plugin, new File(dir, StorageFactory.SQLITE_FILE_NAME), DIRECT), samples, batchSize));
+            return results;
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private Result measure(Storage storage, List<PlayerDataSnapshot> samples, int batchSize) throws Exception {
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < samples.size(); i += batchSize) {
+                storage.saveBatch(samples.subList(i, Math.min(i + batchSize, samples.size())));
+            }
+            long saveNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (PlayerDataSnapshot s : samples) storage.load(s.uuid());
+            long loadNanos = System.nanoTime() - start;
+
+            return new Result(storage.getName(), samples.size(), saveNanos, loadNanos);
+        } finally {
+            storage.saveAllOnShutdown();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) for (File child : children) delete(child);
+        file.delete();
+    }
+
+    /** 저장소별 처리량 결과 (나노초) */
+    public record Result(String storage, int players, long saveNanos, long loadNanos) {}
+}
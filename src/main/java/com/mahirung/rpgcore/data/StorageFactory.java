@@ -0,0 +1,76 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.DatabaseManager;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * config.yml 의 storage.type 에 맞는 Storage 구현체 생성
+ * - postgres: DatabaseManager (database.* 설정 사용)
+ * - sqlite: plugins/RPGCore/playerdata.db (소규모 서버 권장)
+ * - file: playerdata/<uuid>.dat (+ 저널)
+ * - storage.type 이 없으면 기존 설정(database.enabled)으로 판단
+ */
+public final class StorageFactory {
+
+    public enum StorageType { POSTGRES, SQLITE, FILE }
+
+    public static final String SQLITE_FILE_NAME = "playerdata.db";
+
+    private StorageFactory() {}
+
+    /** 설정에서 저장소 종류 결정 */
+    public static StorageType resolveType(FileConfiguration config) {
+        String type = config.getString("storage.type", "");
+        return switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case "postgres", "postgresql", "database" -> StorageType.POSTGRES;
+            case "sqlite" -> StorageType.SQLITE;
+            case "file", "yaml" -> StorageType.FILE;
+            default -> config.getBoolean("database.enabled") ? StorageType.POSTGRES : StorageType.FILE;
+        };
+    }
+
+    /**
+     * 저장소 I/O 전용 스레드 풀 (Bukkit 비동기 스케줄러와 분리 → 다른 플러그인 작업과 스레드를 다투지 않음)
+     * - storage.io-threads (기본 4)
+     */
+    public static ExecutorService createExecutor(RPGCore plugin) {
+        int threads = Math.max(1, plugin.getConfig().getInt("storage.io-threads", 4));
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "RPGCore-IO-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 저장소 생성 (플러그인 활성화 시 메인 스레드에서 호출)
+     * - 파일 모드 저널 복구(재생)는 첫 로드보다 먼저 끝나야 하므로 여기서 동기 실행
+     */
+    public static Storage create(RPGCore plugin, ExecutorService executor) {
+        return switch (resolveType(plugin.getConfig())) {
+            case POSTGRES -> {
+                DatabaseManager dbManager = plugin.getDatabaseManager();
+                if (dbManager == null) {
+                    throw new IllegalStateException("storage.type 이 postgres 이지만 데이터베이스가 연결되지 않았습니다.");
+                }
+                yield new PostgresStorage(dbManager, executor);
+            }
+            case SQLITE -> new SqliteStorage(plugin, new File(plugin.getDataFolder(), SQLITE_FILE_NAME), executor);
+            case FILE -> {
+                PlayerFileStore fileStore = new PlayerFileStore(plugin);
+                PlayerJournal journal = plugin.getConfig().getBoolean("save.journal.enabled", true)
+                        ? new PlayerJournal(plugin, fileStore, executor)
+                        : null;
+                yield new FileStorage(fileStore, journal, executor);
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.DatabaseManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * 다른 저장 방식의 데이터를 현재 저장소로 일괄 가져오기 (/rpgcore storage import <file|postgres>)
+ * - file: playerdata/ 폴더의 .dat / .yml (원본 파일은 변환하지 않고 그대로 둠)
+ * - postgres: rpg_player_data 를 uuid 순서로 페이지 조회 (database.* 설정으로 임시 연결)
+ * - flush-size 단위로 Storage.saveBatch (overwrite) / Storage.insertAbsent (기본)
+ * - 현재 저장소에 이미 있는 유저는 건너뜀 (overwrite 지정 시 덮어씀) → 중간에 실패해도 다시 실행하면 이어서 진행
+ *   - 유저마다 조회하지 않고 insertAbsent 가 기록하지 않은 행을 건너뜀으로 셈
+ * - 접속 중(메모리에 로드된) 유저는 항상 건너뜀 (메모리 데이터가 최신이므로)
+ */
+public final class StorageImporter {
+
+    public enum Source { FILE, POSTGRES }
+
+    private final RPGCore plugin;
+    private final Storage target;
+    private final boolean overwrite;
+    private final int batchSize;
+
+    public StorageImporter(RPGCore plugin, Storage target, boolean overwrite) {
+        this.plugin = plugin;
+        this.target = target;
+        this.overwrite = overwrite;
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("save.flush-size", 100));
+    }
+
+    public static Source parseSource(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "file", "yaml", "yml" -> Source.FILE;
+            case "postgres", "postgresql", "database", "db" -> Source.POSTGRES;
+            default -> null;
+        };
+    }
+
+    /**
+     * 가져오기 실행 (전용 비동기 스레드에서 호출, 블로킹 → 저장소 I/O 스레드를 점유하지 않도록)
+     * @param loaded 건너뛸 유저 (메인 스레드에서 복사한 접속 중 유저 목록)
+     */
+    public Result run(Source source, Set<UUID> loaded) throws Exception {
+        if (source == Source.FILE && target instanceof FileStorage
+                || source == Source.POSTGRES && target instanceof PostgresStorage) {
+            throw new IllegalArgumentException("현재 저장소와 같은 방식에서는 가져올 수 없습니다.");
+        }
+        long start = System.currentTimeMillis();
+        Result result = source == Source.FILE ? importFiles(loaded) : importPostgres(loaded);
+        return new Result(result.imported(), result.skipped(), result.failed(), System.currentTimeMillis() - start);
+    }
+
+    private Result importFiles(Set<UUID> loaded) throws Exception {
+        File journalFolder = new File(plugin.getDataFolder(), "journal");
+        String[] segments = journalFolder.list((dir, name) -> name.endsWith(".log"));
+        if (segments != null && segments.length > 0) {
+            plugin.getLogger().warning("[Import] 저널 세그먼트 " + segments.length + "개가 남아 있습니다. 파일 모드로 한 번 정상 종료한 뒤 가져와야 최신 데이터가 반영됩니다.");
+        }
+
+        PlayerFileStore source = new PlayerFileStore(plugin);
+        List<PlayerDataSnapshot> chunk = new ArrayList<>(batchSize);
+        Counts counts = new Counts();
+        for (UUID uuid : source.listStored()) {
+            try {
+                if (loaded.contains(uuid)) {
+                    counts.skipped++;
+                    continue;
+                }
+                PlayerData data = source.peek(uuid);
+                if (data == null) continue;
+                chunk.add(data.snapshot().withDirtyMask(PlayerData.ALL_FIELDS));
+            } catch (Exception e) {
+                counts.failed++;
+                plugin.getLogger().log(Level.WARNING, "[Import] 파일 읽기 실패: " + uuid, e);
+                continue;
+            }
+            if (chunk.size() >= batchSize) flush(chunk, counts);
+        }
+        flush(chunk, counts);
+        return new Result(counts.imported, counts.skipped, counts.failed, 0L);
+    }
+
+    private Result importPostgres(Set<UUID> loaded) throws Exception {
+        DatabaseManager db = plugin.getDatabaseManager();
+        boolean temporary = db == null;
+        if (temporary) db = new DatabaseManager(plugin); // database.* 설정으로 임시 연결 (끝나면 닫음)
+        try {
+            Counts counts = new Counts();
+            String lastUuid = "";
+            List<PlayerDataSnapshot> chunk = new ArrayList<>(batchSize);
+            while (true) {
+                List<PlayerDataSnapshot> page = db.loadPage(lastUuid, batchSize);
+                if (page.isEmpty()) break;
+                lastUuid = page.get(page.size() - 1).uuid().toString();
+                for (PlayerDataSnapshot row : page) {
+                    if (loaded.contains(row.uuid())) {
+                        counts.skipped++;
+                        continue;
+                    }
+                    chunk.add(row.withDirtyMask(PlayerData.ALL_FIELDS));
+                }
+                flush(chunk, counts);
+            }
+            return new Result(counts.imported, counts.skipped, 0, 0L);
+        } finally {
+            if (temporary) db.close();
+        }
+    }
+
+    /** 묶음 저장 (overwrite 가 아니면 없는 유저만 기록하고 나머지는 건너뜀으로 셈) */
+    private void flush(List<PlayerDataSnapshot> chunk, Counts counts) throws Exception {
+        if (chunk.isEmpty()) return;
+        List<PlayerDataSnapshot> batch = new ArrayList<>(chunk);
+        chunk.clear();
+        if (overwrite) {
+            counts.imported += target.saveBatch(batch);
+        } else {
+            int written = target.insertAbsent(batch);
+            counts.imported += written;
+            counts.skipped += batch.size() - written;
+        }
+    }
+
+    /** 진행 중 집계 */
+    private static final class Counts {
+        int imported;
+        int skipped;
+        int failed;
+    }
+
+    /** 가져오기 결과 */
+    public record Result(int imported, int skipped, int failed, long elapsedMillis) {}
+}
@@ -0,0 +1,123 @@
+package com.mahirung.rpgcore.data;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 최근 퇴장한 유저의 PlayerData 보관소 (재접속 대비 warm 계층, LRU)
+ * - 퇴장 저장이 성공한 데이터만 들어옴 → 어느 시점에 밀려나도 저장소와 내용이 같음
+ * - TTL 이 지나거나 용량(추정 바이트) 초과 시 가장 오래 사용되지 않은 항목부터 제거
+ * - 메인 스레드와 로그인 스레드(선로딩 확인)에서 접근하므로 메서드 단위로 동기화
+ */
+public class WarmCache {
+
+    private final long ttlNanos;
+    private final long maxBytes;
+
+    // accessOrder = true → 순회 순서가 LRU (가장 오래된 항목이 먼저)
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // --- 통계 ---
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public WarmCache(long ttlNanos, long maxBytes) {
+        this.ttlNanos = ttlNanos;
+        this.maxBytes = maxBytes;
+    }
+
+    /** 저장이 확인된 데이터 보관 (용량 초과 시 LRU 제거) */
+    public synchronized void put(PlayerData data) {
+        long bytes = data.estimateSize();
+        Entry previous = entries.put(data.getUuid(), new Entry(data, bytes, System.nanoTime()));
+        if (previous != null) totalBytes -= previous.bytes();
+        totalBytes += bytes;
+
+        for (Iterator<Entry> it = entries.values().iterator(); totalBytes > maxBytes && it.hasNext(); ) {
+            Entry eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.bytes();
+            evicted.incrementAndGet();
+        }
+    }
+
+    /**
+     * 재접속 시 꺼내기 (꺼낸 항목은 캐시에서 제거됨)
+     * @return TTL 안의 데이터, 없으면 null
+     */
+    public synchronized PlayerData take(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        totalBytes -= entry.bytes();
+        if (System.nanoTime() - entry.storedNanos() > ttlNanos) {
+            expired.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.data();
+    }
+
+    public synchronized boolean contains(UUID uuid) {
+        return entries.containsKey(uuid);
+    }
+
+    /** 꺼내지 않고 조회 (적중 통계 없음, 재접속 전 버전 확인용) */
+    public synchronized PlayerData peek(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null ? entry.data() : null;
+    }
+
+    /** 저장소보다 오래된 항목 폐기 (다른 서버에서 플레이한 뒤 돌아온 경우) */
+    public synchronized void invalidate(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry != null) totalBytes -= entry.bytes();
+    }
+
+    /** TTL 이 지난 항목 제거 (주기 실행) */
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (now - entry.storedNanos() > ttlNanos) {
+                it.remove();
+                totalBytes -= entry.bytes();
+                expired.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    // --- 통계 Getter ---
+    public synchronized Set<UUID> keys() { return new HashSet<>(entries.keySet()); }
+    public synchronized int getSize() { return entries.size(); }
+    public synchronized long getTotalBytes() { return totalBytes; }
+    public long getMaxBytes() { return maxBytes; }
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getExpired() { return expired.get(); }
+    public long getEvicted() { return evicted.get(); }
+
+    /** 재접속 조회 적중률 (0~1) */
+    public double getHitRate() {
+        long h = hits.get(), total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    private record Entry(PlayerData data, long bytes, long storedNanos) {}
+}
@@ -0,0 +1,437 @@
+package com.mahirung.rpgcore.data;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.DatabaseManager;
+import com.mahirung.rpgcore.util.PerfMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Write-Behind 저장 큐
+ * - capture(): 메인 스레드에서 변경(dirty)된 PlayerData의 스냅샷만 떠서 대기열에 병합 (UUID당 최신 1개)
+ * - flush(): 저장 스레드에서 스냅샷만 읽어서 flush-size 단위로 Storage.saveBatch 호출
+ *   - PostgreSQL: 커넥션 1개 + JDBC 배치(addBatch/executeBatch), 변경된 컬럼만 UPDATE
+ *   - SQLite: 트랜잭션 1개 / 파일: 저널에 순차 추가 (저널 미사용 시 유저별 .dat 파일)
+ * - 원격 저장소: 서킷 브레이커가 열려 있거나 기록에 실패하면 로컬 디스크 대기열(SpillQueue)에 보관 → 복구 후 순서대로 배치 기록
+ * - 종료 시: 청크를 여러 스레드로 나눠 병렬 기록 + 전체 제한 시간 (flush(parallelism, timeout))
+ * - 행 버전 충돌(다른 서버가 먼저 기록): ConflictResolver 가 다시 기록하기로 하면 전체 컬럼으로 대기열에 되돌리고, 아니면 명시적으로 버림
+ * - 플러시마다 저장/건너뜀 건수 + 부분 저장으로 아낀 컬럼/바이트 통계 기록
+ */
+public class WriteBehindQueue {
+
+    private final RPGCore plugin;
+    private final Storage storage;
+    private final DatabaseManager dbManager; // PostgreSQL 저장소일 때만 (부분 저장 통계용)
+    private final CircuitBreaker breaker;  // 원격 저장소 전용
+    private final SpillQueue spillQueue;   // 원격 저장소 전용
+    private final ConflictResolver conflictResolver;
+
+    // 저장 대기 스냅샷 (같은 유저는 최신 revision 하나로 병합됨)
+    private final Map<UUID, PlayerDataSnapshot> pending = new ConcurrentHashMap<>();
+    // 기록 순서 보장용 (오래된 스냅샷이 최신 스냅샷보다 늦게 기록되지 않도록)
+    private final Object writeLock = new Object();
+
+    private final int flushSize;
+
+    // --- 통계 ---
+    private final AtomicInteger skippedSinceFlush = new AtomicInteger();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalWritten = new AtomicLong();
+    private final AtomicLong totalSkipped = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private final AtomicLong totalSpilled = new AtomicLong();
+    private final AtomicLong totalDrained = new AtomicLong();
+    private final AtomicLong totalConflicts = new AtomicLong();
+    private final AtomicLong totalReapplied = new AtomicLong();
+    private final AtomicLong totalDiscarded = new AtomicLong();
+    private volatile FlushResult lastResult = new FlushResult(0, 0, 0, 0L, 0L, 0L, 0, 0);
+
+    public WriteBehindQueue(RPGCore plugin, Storage storage, ConflictResolver conflictResolver) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.conflictResolver = conflictResolver;
+        this.dbManager = storage instanceof PostgresStorage postgres ? postgres.getDatabaseManager() : null;
+        this.flushSize = Math.max(1, plugin.getConfig().getInt("save.flush-size", 100));
+
+        if (storage.isRemote()) {
+            this.breaker = new CircuitBreaker(
+                    plugin.getConfig().getInt("save.circuit-breaker.failure-threshold", 3),
+                    Math.max(1, plugin.getConfig().getLong("save.circuit-breaker.open-seconds", 30)) * 1000L);
+            this.spillQueue = new SpillQueue(plugin);
+        } else {
+            this.breaker = null;
+            this.spillQueue = null;
+        }
+    }
+
+    /**
+     * 변경된 데이터만 스냅샷으로 캡처하여 대기열에 등록 (메인 스레드에서 호출)
+     * @return 캡처된 인원 수
+     */
+    public int capture(Collection<PlayerData> candidates) {
+        int captured = 0;
+        for (PlayerData data : candidates) {
+            if (!data.isDirty()) {
+                skippedSinceFlush.incrementAndGet();
+                continue;
+            }
+            // 캡처 직후 플래그 해제 → 이후 변경은 다음 캡처에서 처리
+            PlayerDataSnapshot snapshot = data.snapshot();
+            data.clearDirty();
+            enqueue(snapshot);
+            captured++;
+        }
+        return captured;
+    }
+
+    /**
+     * 스냅샷을 대기열에 병합 (이미 더 최신 스냅샷이 있으면 그쪽을 유지)
+     * - 변경 필드는 합침: 밀려난 스냅샷의 미저장 컬럼도 함께 기록되도록
+     */
+    public void enqueue(PlayerDataSnapshot snapshot) {
+        pending.merge(snapshot.uuid(), snapshot, (old, now) -> {
+            PlayerDataSnapshot newer = now.revision() >= old.revision() ? now : old;
+            return newer.withDirtyMask(old.dirtyMask() | now.dirtyMask());
+        });
+    }
+
+    /** 재접속 시 대기 중인 (DB보다 최신인) 스냅샷을 회수 */
+    public PlayerDataSnapshot takePending(UUID uuid) {
+        return pending.remove(uuid);
+    }
+
+    /**
+     * 대기열의 스냅샷을 모두 기록 (저장 스레드에서 호출)
+     */
+    public FlushResult flush() {
+        return flush(1, 0L);
+    }
+
+    /**
+     * 대기열의 스냅샷을 청크 단위로 병렬 기록 (종료 시 메인 스레드에서 동기 호출)
+     * - 같은 유저는 대기열에서 1개로 병합되어 있으므로 청크끼리 겹치지 않음 → 병렬 기록해도 순서 문제 없음
+     * - 제한 시간이 있으면 청크 1개뿐이어도 별도 스레드에서 기록하고 기다림 → 느린/멈춘 DB 에서도 제한 시간에 돌아옴
+     * - 청크 크기: 스레드 수로 나눈 크기 (최대 flush-size) → 인원이 적어도 병렬로 기록
+     * - 제한 시간 안에 끝나지 않은 청크는 대기열로 되돌림 (호출 측에서 drainPending() 으로 회수)
+     * @param parallelism 동시 기록 스레드 수
+     * @param timeoutMillis 전체 제한 시간 (0 이하면 무제한, 병렬 1 이하와 함께면 현재 스레드에서 순차 기록)
+     */
+    public FlushResult flush(int parallelism, long timeoutMillis) {
+        synchronized (writeLock) {
+            long start = System.currentTimeMillis();
+
+            boolean timed = timeoutMillis > 0 || parallelism > 1;
+            List<PlayerDataSnapshot> targets = drainPending();
+            int chunkSize = timed
+                    ? Math.min(flushSize, Math.max(1, (targets.size() + parallelism - 1) / Math.max(1, parallelism)))
+                    : flushSize;
+            List<List<PlayerDataSnapshot>> chunks = new ArrayList<>();
+            for (int i = 0; i < targets.size(); i += chunkSize) {
+                chunks.add(targets.subList(i, Math.min(i + chunkSize, targets.size())));
+            }
+
+            int skipped = skippedSinceFlush.getAndSet(0);
+            long spilledBefore = totalSpilled.get();
+            long conflictsBefore = totalConflicts.get();
+            long columnsBefore = dbManager != null ? dbManager.getColumnsSaved() : 0L;
+            long bytesBefore = dbManager != null ? dbManager.getBytesSaved() : 0L;
+            int written = 0;
+            int failed = 0;
+            if (!timed) {
+                for (List<PlayerDataSnapshot> chunk : chunks) {
+                    int ok = writeChunk(chunk);
+                    written += ok;
+                    failed += chunk.size() - ok;
+                }
+            } else if (!chunks.isEmpty()) {
+                int[] counts = writeChunksParallel(chunks, Math.max(1, parallelism), timeoutMillis);
+                written = counts[0];
+                failed = counts[1];
+            }
+
+            long savedColumns = dbManager != null ? dbManager.getColumnsSaved() - columnsBefore : 0L;
+            long savedBytes = dbManager != null ? dbManager.getBytesSaved() - bytesBefore : 0L;
+            // 디스크 대기열로 넘어간 건, 버전 충돌로 처리된 건은 실패가 아닌 별도 집계
+            int spilled = (int) (totalSpilled.get() - spilledBefore);
+            int conflicts = (int) (totalConflicts.get() - conflictsBefore);
+            failed = Math.max(0, failed - spilled - conflicts);
+            FlushResult result = new FlushResult(written, skipped, failed, System.currentTimeMillis() - start, savedColumns, savedBytes, spilled, conflicts);
+            lastResult = result;
+            flushCount.incrementAndGet();
+            totalWritten.addAndGet(written);
+            totalSkipped.addAndGet(skipped);
+            totalFailed.addAndGet(failed);
+            return result;
+        }
+    }
+
+    /**
+     * 청크를 고정 크기 스레드 풀로 병렬 기록
+     * @return {저장 성공 건수, 실패/시간 초과 건수}
+     */
+    private int[] writeChunksParallel(List<List<PlayerDataSnapshot>> chunks, int parallelism, long timeoutMillis) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "RPGCore-ShutdownFlush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+        for (List<PlayerDataSnapshot> chunk : chunks) {
+            futures.add(executor.submit(() -> writeChunk(chunk)));
+        }
+        executor.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int written = 0;
+        int failed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            List<PlayerDataSnapshot> chunk = chunks.get(i);
+            try {
+                long remaining = timeoutMillis > 0 ? Math.max(0L, deadline - System.nanoTime()) : Long.MAX_VALUE;
+                int ok = futures.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                written += ok;
+                failed += chunk.size() - ok; // 실패분은 writeChunk 가 이미 대기열로 되돌림
+            } catch (TimeoutException e) {
+                // 커밋 여부를 알 수 없으므로 대기열로 되돌림 (전체 상태 스냅샷이라 두 번 기록되어도 결과 동일)
+                futures.get(i).cancel(true);
+                chunk.forEach(this::enqueue);
+                failed += chunk.size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.get(i).cancel(true);
+                chunk.forEach(this::enqueue);
+                failed += chunk.size();
+            } catch (ExecutionException e) {
+                chunk.forEach(this::enqueue);
+                failed += chunk.size();
+                plugin.getLogger().log(Level.SEVERE, "[WriteBehind] 병렬 저장 실패 (" + chunk.size() + "명)", e.getCause());
+            }
+        }
+        executor.shutdownNow();
+        return new int[]{written, failed};
+    }
+
+    /** 디스크 대기열에 보관, 디스크 기록도 실패하면 메모리 대기열로 되돌림 */
+    private void spill(List<PlayerDataSnapshot> chunk) {
+        try {
+            spillQueue.append(chunk);
+            totalSpilled.addAndGet(chunk.size());
+        } catch (IOException e) {
+            chunk.forEach(this::enqueue);
+            plugin.getLogger().log(Level.SEVERE, "[Spill] 디스크 대기열 기록 실패 (" + chunk.size() + "명, 메모리 대기열 유지)", e);
+        }
+    }
+
+    /**
+     * 디스크 대기열을 추가된 순서대로 배치 기록 (저장 스레드에서 주기 호출)
+     * - 브레이커가 요청을 허용할 때만 시도, 실패하면 중단하고 남은 항목은 유지
+     * @return 기록된 인원 수
+     */
+    public int drainSpill() {
+        if (spillQueue == null) return 0;
+        synchronized (writeLock) {
+            List<PlayerDataSnapshot> entries = spillQueue.entries();
+            int drained = 0;
+            for (int i = 0; i < entries.size(); i += flushSize) {
+                if (!breaker.allowRequest()) break;
+                List<PlayerDataSnapshot> chunk = entries.subList(i, Math.min(i + flushSize, entries.size()));
+                try {
+                    int written = storage.saveBatch(chunk, this::onConflict);
+                    breaker.recordSuccess();
+                    spillQueue.supersede(chunk); // 충돌한 항목도 onConflict 에서 처리됨 (대기열로 되돌리거나 버림)
+                    drained += written;
+                } catch (Exception e) {
+                    breaker.recordFailure();
+                    plugin.getLogger().log(Level.WARNING, "[Spill] 대기열 기록 실패 (남은 " + (entries.size() - drained) + "명, 브레이커 " + breaker.getState() + ")", e);
+                    break;
+                }
+            }
+            try {
+                if (drained > 0 || (spillQueue.isEmpty() && spillQueue.getFileBytes() > 0)) spillQueue.compact();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "[Spill] 대기열 파일 정리 실패", e);
+            }
+            totalDrained.addAndGet(drained);
+            return drained;
+        }
+    }
+
+    /** 저장소보다 최신인 디스크 대기 스냅샷 (로드 시 저장소 대신 사용) */
+    public PlayerDataSnapshot getSpilled(UUID uuid) {
+        return spillQueue != null ? spillQueue.get(uuid) : null;
+    }
+
+    /** 종료 시 디스크 대기열 파일 닫기 */
+    public void close() {
+        if (spillQueue != null) spillQueue.close();
+    }
+
+    /** 대기열을 비우고 남아있던 스냅샷을 반환 (종료 시 비상 파일 기록용) */
+    public List<PlayerDataSnapshot> drainPending() {
+        List<PlayerDataSnapshot> drained = new ArrayList<>(pending.size());
+        for (Iterator<PlayerDataSnapshot> it = pending.values().iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * 스냅샷 1개를 즉시 기록 (퇴장/레벨업 저장용, 저장 스레드에서 호출)
+     * - 대기열에 있던 같은 유저의 이전 스냅샷은 버림 (변경 필드는 이어받음)
+     * @return 저장(또는 디스크 대기열 보관) 성공 여부 (실패 시 대기열에 다시 등록됨)
+     */
+    public boolean writeNow(PlayerDataSnapshot snapshot) {
+        synchronized (writeLock) {
+            PlayerDataSnapshot queued = pending.get(snapshot.uuid());
+            if (queued != null && queued.revision() <= snapshot.revision() && pending.remove(snapshot.uuid(), queued)) {
+                snapshot = snapshot.withDirtyMask(snapshot.dirtyMask() | queued.dirtyMask());
+            }
+            long spilledBefore = totalSpilled.get();
+            long conflictsBefore = totalConflicts.get();
+            boolean success = writeChunk(List.of(snapshot)) == 1;
+            if (success) totalWritten.incrementAndGet();
+            else if (totalSpilled.get() > spilledBefore) return true; // 디스크 대기열에 안전하게 보관됨
+            else if (totalConflicts.get() == conflictsBefore) totalFailed.incrementAndGet(); // 충돌은 onConflict 에서 집계
+            return success;
+        }
+    }
+
+    /**
+     * 청크 단위 저장 (Storage.saveBatch 1회)
+     * - 실패한 청크는 대기열에 다시 등록하여 다음 플러시에서 재시도 (원격 저장소는 디스크 대기열로)
+     * @return 저장 성공 건수
+     */
+    private int writeChunk(List<PlayerDataSnapshot> chunk) {
+        if (breaker != null) {
+            if (!breaker.allowRequest()) {
+                spill(chunk); // DB 장애 중: 커넥션 타임아웃을 기다리지 않고 바로 디스크로
+                return 0;
+            }
+            List<PlayerDataSnapshot> covered = spillQueue.coverSpilled(chunk);
+            try {
+                long start = System.nanoTime();
+                int written = storage.saveBatch(covered, this::onConflict);
+                PerfMetrics.STORAGE_SAVE.recordSince(start);
+                breaker.recordSuccess();
+                spillQueue.supersede(covered);
+                return written;
+            } catch (Exception e) {
+                breaker.recordFailure();
+                plugin.getLogger().log(Level.SEVERE, "[WriteBehind] 배치 저장 실패 (" + chunk.size() + "명, 브레이커 " + breaker.getState() + ")", e);
+                spill(chunk);
+                return 0;
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            int written = storage.saveBatch(chunk, this::onConflict);
+            PerfMetrics.STORAGE_SAVE.recordSince(start);
+            return written;
+        } catch (Exception e) {
+            // 일부만 기록되었을 수 있지만 전체 상태 스냅샷이므로 청크 전체를 다시 기록해도 결과 동일
+            chunk.forEach(this::enqueue);
+            plugin.getLogger().log(Level.SEVERE, "[WriteBehind] " + storage.getName() + " 저장 실패 (" + chunk.size() + "명)", e);
+            return 0;
+        }
+    }
+
+    /**
+     * 버전 충돌 처리 (저장소 커밋 이후, 저장 스레드)
+     * - 다시 기록: 행 버전은 resolver 가 현재 버전으로 맞춤 → 다음 플러시에서 전체 컬럼으로 덮어씀
+     * - 버림: 다른 서버의 기록이 최신 (이 서버에는 더 이상 유저가 없음)
+     */
+    private void onConflict(PlayerDataSnapshot snapshot, long currentVersion) {
+        totalConflicts.incrementAndGet();
+        if (conflictResolver.reapply(snapshot, currentVersion)) {
+            enqueue(snapshot.withDirtyMask(PlayerData.ALL_FIELDS));
+            totalReapplied.incrementAndGet();
+            plugin.getLogger().warning("[Version] 접속 중인 유저라 현재 버전(" + currentVersion + ") 기준으로 다시 기록: " + snapshot.uuid());
+        } else {
+            totalDiscarded.incrementAndGet();
+            plugin.getLogger().warning("[Version] 다른 서버의 기록이 최신이라 이 서버의 스냅샷을 버림: " + snapshot.uuid()
+                    + " (revision " + snapshot.revision() + ")");
+        }
+    }
+
+    // --- 통계 Getter ---
+    public int getPendingCount() { return pending.size(); }
+    public Set<UUID> getPendingUuids() { return new HashSet<>(pending.keySet()); }
+    /** 아직 저장소에 기록되지 않은 스냅샷이 있는지 (저장 대기열 또는 디스크 대기열) */
+    public boolean isQueued(UUID uuid) { return pending.containsKey(uuid) || getSpilled(uuid) != null; }
+    public int getFlushSize() { return flushSize; }
+    public long getFlushCount() { return flushCount.get(); }
+    public long getTotalWritten() { return totalWritten.get(); }
+    public long getTotalSkipped() { return totalSkipped.get(); }
+    public long getTotalFailed() { return totalFailed.get(); }
+    public long getTotalSpilled() { return totalSpilled.get(); }
+    public long getTotalDrained() { return totalDrained.get(); }
+    public long getTotalConflicts() { return totalConflicts.get(); }
+    public long getTotalReapplied() { return totalReapplied.get(); }
+    public long getTotalDiscarded() { return totalDiscarded.get(); }
+    public CircuitBreaker getBreaker() { return breaker; }
+    public SpillQueue getSpillQueue() { return spillQueue; }
+    public Storage getStorage() { return storage; }
+    public FlushResult getLastResult() { return lastResult; }
+
+    /** 행 버전 충돌 시 이 서버의 스냅샷을 다시 기록할지 결정 (저장 스레드에서 호출) */
+    @FunctionalInterface
+    public interface ConflictResolver {
+        /**
+         * @param currentVersion 저장소에 있는 행의 현재 버전
+         * @return true 면 다시 기록 (구현체가 snapshot.rowVersion() 을 currentVersion 으로 맞춰야 함), false 면 버림
+         */
+        boolean reapply(PlayerDataSnapshot snapshot, long currentVersion);
+    }
+
+    /** 플러시 1회 결과 */
+    public static class FlushResult {
+        private final int written;
+        private final int skipped;
+        private final int failed;
+        private final long elapsedMillis;
+        private final long savedColumns; // 부분 UPDATE로 기록하지 않은 컬럼 수 (DB 모드)
+        private final long savedBytes;   // 그만큼 줄어든 바인딩 데이터 크기 추정치 (DB 모드)
+        private final int spilled;       // DB 대신 디스크 대기열에 보관된 인원 (DB 모드)
+        private final int conflicts;     // 다른 서버가 먼저 기록해서 기록하지 않은 인원 (DB 모드, 다시 기록 대기 + 버림)
+
+        public FlushResult(int written, int skipped, int failed, long elapsedMillis, long savedColumns, long savedBytes, int spilled, int conflicts) {
+            this.written = written;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+            this.savedColumns = savedColumns;
+            this.savedBytes = savedBytes;
+            this.spilled = spilled;
+            this.conflicts = conflicts;
+        }
+
+        public int getWritten() { return written; }
+        public int getSkipped() { return skipped; }
+        public int getFailed() { return failed; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public long getSavedColumns() { return savedColumns; }
+        public long getSavedBytes() { return savedBytes; }
+        public int getSpilled() { return spilled; }
+        public int getConflicts() { return conflicts; }
+    }
+}
@@ -0,0 +1,71 @@
+package com.mahirung.rpgcore.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * 키셋 페이지네이션 백필
+ * - 기본키 순서로 batchSize 건씩 잘라서 UPDATE, 배치마다 커밋
+ * - OFFSET 없이 마지막 키 이후부터 조회하므로 테이블이 커져도 배치당 비용이 일정
+ * - 각 배치는 짧은 트랜잭션이라 운영 중인 DB에서 행 잠금을 오래 잡지 않음
+ * - where 조건으로 이미 처리된 행을 제외하므로 중간에 끊겨도 다시 실행하면 이어서 진행
+ */
+public final class KeysetBackfill {
+
+    private KeysetBackfill() {}
+
+    /**
+     * @param table     대상 테이블
+     * @param key       정렬/범위 기준 키 컬럼 (기본키)
+     * @param set       SET 절 (예: "required_exp = FLOOR(...)")
+     * @param where     아직 백필되지 않은 행 조건 (예: "required_exp IS NULL")
+     * @param batchSize 배치당 최대 행 수
+     * @return 갱신된 행 수
+     */
+    public static long run(Connection conn, String table, String key, String set, String where,
+                           int batchSize, Logger logger) throws SQLException {
+        String selectSql = "SELECT " + key + " FROM " + table + " WHERE " + key + " > ? AND (" + where + ") ORDER BY " + key + " LIMIT ?";
+        String updateSql = "UPDATE " + table + " SET " + set + " WHERE " + key + " >= ? AND " + key + " <= ? AND (" + where + ")";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        long updated = 0;
+        int batches = 0;
+        String lastKey = "";
+        try (PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement update = conn.prepareStatement(updateSql)) {
+            while (true) {
+                String firstKey = null;
+                String batchLastKey = null;
+                select.setString(1, lastKey);
+                select.setInt(2, batchSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        if (firstKey == null) firstKey = rs.getString(1);
+                        batchLastKey = rs.getString(1);
+                    }
+                }
+                if (firstKey == null) break;
+
+                update.setString(1, firstKey);
+                update.setString(2, batchLastKey);
+                updated += update.executeUpdate();
+                conn.commit();
+
+                lastKey = batchLastKey;
+                if (++batches % 20 == 0) {
+                    logger.info("[Migration] " + table + " 백필 진행 중: " + updated + "행");
+                }
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mahirung.rpgcore.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 번호가 붙은 스키마 변경 1단계
+ * - version 순서대로 한 번만 적용되며 schema_version 테이블에 기록됨
+ * - transactional = true: 변경 + 버전 기록을 트랜잭션 1개로 처리 (실패 시 전부 롤백)
+ * - transactional = false: 대용량 백필처럼 자체적으로 배치마다 커밋 (중단되어도 다시 실행 가능하게 작성)
+ */
+public interface Migration {
+
+    int version();
+
+    String description();
+
+    void apply(Connection conn) throws SQLException;
+
+    default boolean transactional() { return true; }
+
+    /** SQL 문 목록을 순서대로 실행하는 트랜잭션 마이그레이션 */
+    static Migration sql(int version, String description, String... statements) {
+        return new Migration() {
+            @Override public int version() { return version; }
+            @Override public String description() { return description; }
+            @Override public void apply(Connection conn) throws SQLException {
+                try (Statement st = conn.createStatement()) {
+                    for (String sql : statements) st.execute(sql);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,231 @@
+package com.mahirung.rpgcore.database;
+
+import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataCodec;
+import com.mahirung.rpgcore.data.PlayerDataSnapshot;
+import com.mahirung.rpgcore.data.RowVersion;
+import com.mahirung.rpgcore.util.PerfMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 비활성 유저 보관 테이블 (rpg_player_archive)
+ * - 마지막 저장(last_updated)이 오래된 행을 압축된 바이너리(PlayerDataCodec + Deflate) 1컬럼으로 옮겨 rpg_player_data 를 작게 유지
+ * - 이동: 묶음마다 트랜잭션 1개 (version 조건 DELETE → 보관 INSERT), 그 사이 저장된 행은 버전이 달라 옮기지 않음
+ * - 복원: 로드 시 행이 없으면 보관 행을 꺼내 rpg_player_data 에 다시 INSERT 하고 보관 행 삭제 (트랜잭션 1개)
+ * - 옮긴 직후 이미 로드되어 있던 유저가 저장하면 CAS UPDATE 0행 → INSERT 로 다시 생성되므로 진행도는 유지
+ * - SQL 은 PostgreSQL / SQLite 공통 (비활성 조건만 다름)
+ */
+public final class PlayerArchive {
+
+    public static final String TABLE = "rpg_player_archive";
+
+    // 비활성 행 키셋 조회 (PostgreSQL: TIMESTAMP 비교 / SQLite: CURRENT_TIMESTAMP 가 UTC 문자열이므로 datetime 으로 변환해서 비교)
+    public static final String INACTIVE_SQL = "SELECT * FROM " + PlayerDataTable.TABLE
+            + " WHERE uuid > ? AND last_updated < ? ORDER BY uuid LIMIT ?";
+    public static final String EMBEDDED_INACTIVE_SQL = "SELECT * FROM " + PlayerDataTable.TABLE
+            + " WHERE uuid > ? AND last_updated < datetime(?, 'unixepoch') ORDER BY uuid LIMIT ?";
+
+    private static final String DELETE_HOT_SQL = "DELETE FROM " + PlayerDataTable.TABLE + " WHERE uuid = ? AND version = ?";
+    private static final String DELETE_SQL = "DELETE FROM " + TABLE + " WHERE uuid = ?";
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (uuid, level, state) VALUES (?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT state FROM " + TABLE + " WHERE uuid = ?";
+    private static final int IN_LIST_SIZE = 500; // IN (...) 자리표시자 수 제한 (SQLite 기본 999)
+
+    private PlayerArchive() {}
+
+    /**
+     * 묶음 중 보관된 유저 (덮어쓰기 없는 가져오기에서 건너뛸 대상, promote 와 달리 옮기지 않음)
+     * - IN 목록으로 IN_LIST_SIZE 명씩 조회 (유저마다 조회하지 않음)
+     */
+    public static Set<UUID> archivedAmong(Connection conn, List<PlayerDataSnapshot> snapshots) throws SQLException {
+        Set<UUID> archived = new HashSet<>();
+        for (int from = 0; from < snapshots.size(); from += IN_LIST_SIZE) {
+            List<PlayerDataSnapshot> part = snapshots.subList(from, Math.min(from + IN_LIST_SIZE, snapshots.size()));
+            String sql = "SELECT uuid FROM " + TABLE + " WHERE uuid IN (" + "?,".repeat(part.size() - 1) + "?)";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < part.size(); i++) ps.setString(i + 1, part.get(i).uuid().toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) archived.add(UUID.fromString(rs.getString(1)));
+                }
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * 비활성 유저 한 묶음 이동 (트랜잭션 1개)
+     * @param selectSql    INACTIVE_SQL 또는 EMBEDDED_INACTIVE_SQL
+     * @param cutoff       이 시각 이전에 마지막으로 저장된 행이 대상 (Timestamp 또는 epoch 초)
+     * @param afterUuid    이전 묶음의 마지막 uuid (처음이면 "")
+     * @param skip         옮기지 않을 유저 (접속 중 등)
+     */
+    public static Batch archiveBatch(Connection conn, String selectSql, Object cutoff, String afterUuid, int limit,
+                                     Predicate<UUID> skip) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            List<PlayerDataSnapshot> rows = new ArrayList<>(limit);
+            int scanned = 0;
+            String lastUuid = afterUuid;
+            try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+                ps.setString(1, afterUuid);
+                ps.setObject(2, cutoff);
+                ps.setInt(3, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        scanned++;
+                        lastUuid = rs.getString("uuid");
+                        PlayerDataSnapshot row = PlayerDataTable.readRow(rs);
+                        if (!skip.test(row.uuid())) rows.add(row);
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                conn.commit();
+                return new Batch(scanned, 0, lastUuid);
+            }
+
+            // 버전이 그대로인 행만 삭제 (조회 후 저장된 행은 활성 유저)
+            int[] deleted;
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_HOT_SQL)) {
+                for (PlayerDataSnapshot row : rows) {
+                    ps.setString(1, row.uuid().toString());
+                    ps.setLong(2, row.rowVersion().get());
+                    ps.addBatch();
+                }
+                deleted = ps.executeBatch();
+            }
+            int archived = 0;
+            try (PreparedStatement delete = conn.prepareStatement(DELETE_SQL);
+                 PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (deleted[i] == 0) continue;
+                    PlayerDataSnapshot row = rows.get(i);
+                    delete.setString(1, row.uuid().toString()); // 복원 후 남은 이전 보관 행
+                    delete.addBatch();
+                    insert.setString(1, row.uuid().toString());
+                    insert.setInt(2, row.level());
+                    insert.setBytes(3, compress(PlayerDataCodec.encode(row)));
+                    insert.addBatch();
+                    archived++;
+                }
+                if (archived > 0) {
+                    delete.executeBatch();
+                    insert.executeBatch();
+                }
+            }
+            conn.commit();
+            return new Batch(scanned, archived, lastUuid);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 보관된 유저를 rpg_player_data 로 복원 (로드 시 행이 없을 때 호출)
+     * @param stateFormat 복원할 행 포맷 (database.row-format)
+     * @return 복원된 스냅샷 (행 버전 1), 보관 행이 없거나 그 사이 다른 곳에서 행을 만들었으면 null → 다시 조회
+     */
+    public static PlayerDataSnapshot promote(Connection conn, UUID uuid, boolean stateFormat) throws SQLException {
+        long start = System.nanoTime();
+        byte[] compressed;
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_SQL)) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                compressed = rs.getBytes(1);
+            }
+        }
+
+        byte[] state = decompress(compressed);
+        PlayerDataSnapshot snapshot;
+        try {
+            snapshot = PlayerDataCodec.decode(state).withDirtyMask(PlayerData.ALL_FIELDS);
+        } catch (IOException e) {
+            throw new SQLException("보관 데이터 손상: " + uuid + " (" + e.getMessage() + ")", e);
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int inserted;
+            try (PreparedStatement ps = conn.prepareStatement(stateFormat ? PlayerDataTable.STATE_INSERT_IF_ABSENT_SQL : PlayerDataTable.INSERT_IF_ABSENT_SQL)) {
+                if (stateFormat) PlayerDataTable.bindStateInsert(ps, snapshot, state);
+                else PlayerDataTable.bindUpsert(ps, snapshot);
+                inserted = ps.executeUpdate();
+            }
+            if (inserted == 0) { // 다른 서버가 먼저 복원/생성
+                conn.rollback();
+                return null;
+            }
+            try (PreparedStatement ps = conn.prepareStatement(DELETE_SQL)) {
+                ps.setString(1, uuid.toString());
+                ps.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        PerfMetrics.ARCHIVE_PROMOTE.recordSince(start);
+        return snapshot.withDirtyMask(0).withRowVersion(new RowVersion(1));
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data) throws SQLException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SQLException("보관 데이터가 잘렸습니다.");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SQLException("보관 데이터 압축 해제 실패: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /** 묶음 1개 결과 (scanned = 0 이면 더 이상 대상 없음) */
+    public record Batch(int scanned, int archived, String lastUuid) {}
+}
@@ -0,0 +1,137 @@
+package com.mahirung.rpgcore.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * rpg_player_data 스키마 변경 이력
+ * - 새 변경은 항상 목록 끝에 다음 번호로 추가 (이미 배포된 마이그레이션은 수정하지 않음)
+ * - all(): PostgreSQL / embedded(): 내장 SQLite (v1 부터 현재 컬럼 전체로 생성, 이후 변경은 양쪽에 추가)
+ */
+public final class PlayerDataMigrations {
+
+    private PlayerDataMigrations() {}
+
+    public static List<Migration> all(Logger logger, int backfillBatchSize) {
+        return List.of(
+                // v1: 기존 CREATE TABLE IF NOT EXISTS 와 동일 (이미 있는 테이블은 그대로)
+                Migration.sql(1, "rpg_player_data 생성",
+                        "CREATE TABLE IF NOT EXISTS rpg_player_data (" +
+                                "uuid VARCHAR(36) PRIMARY KEY, " +
+                                "player_class VARCHAR(32), " +
+                                "level INT DEFAULT 1, " +
+                                "exp DOUBLE PRECISION DEFAULT 0, " +
+                                "base_attack DOUBLE PRECISION DEFAULT 0, " +
+                                "base_defense DOUBLE PRECISION DEFAULT 0, " +
+                                "base_mana DOUBLE PRECISION DEFAULT 100, " +
+                                "current_mana DOUBLE PRECISION DEFAULT 100, " +
+                                "last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                                ")"),
+
+                // v2: 치명타/보너스 스탯, 필요 경험치 (required_exp 는 v4 에서 백필하므로 기본값 없음)
+                Migration.sql(2, "치명타/보너스 스탯, 필요 경험치 컬럼 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS required_exp DOUBLE PRECISION",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS bonus_attack DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS bonus_defense DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS bonus_mana DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS base_crit_chance DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS bonus_crit_chance DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS base_crit_damage DOUBLE PRECISION DEFAULT 0",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS bonus_crit_damage DOUBLE PRECISION DEFAULT 0"),
+
+                // v3: custom-nbt (스킨 등), YAML 문자열로 저장
+                Migration.sql(3, "custom_nbt 컬럼 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS custom_nbt TEXT"),
+
+                // v4: 기존 행의 필요 경험치를 레벨 공식으로 채움 (PlayerData.calculateRequiredExpForLevel 과 동일)
+                new Migration() {
+                    @Override public int version() { return 4; }
+                    @Override public String description() { return "required_exp 백필"; }
+                    @Override public boolean transactional() { return false; }
+                    @Override public void apply(Connection conn) throws SQLException {
+                        long rows = KeysetBackfill.run(conn, "rpg_player_data", "uuid",
+                                "required_exp = CASE WHEN level >= 100 THEN 1.7976931348623157E308 " +
+                                        "ELSE FLOOR(100.0 * POWER(1.15, level - 1)) END",
+                                "required_exp IS NULL",
+                                backfillBatchSize, logger);
+                        logger.info("[Migration] required_exp 백필 완료: " + rows + "행");
+                    }
+                },
+
+                // v5: 다중 서버 - 행 버전(CAS 저장) + 세션 소유권 (기존 행은 1부터, 0 은 '행 없음' 으로 사용)
+                Migration.sql(5, "version 컬럼, rpg_player_session 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1",
+                        "CREATE TABLE IF NOT EXISTS rpg_player_session (" +
+                                "uuid VARCHAR(36) PRIMARY KEY, " +
+                                "server_id VARCHAR(64) NOT NULL, " +
+                                "heartbeat TIMESTAMP NOT NULL" +
+                                ")"),
+
+                // v6: 단일 컬럼 state 포맷 (PlayerDataCodec 바이너리) + 순위/조회용 스칼라 인덱스
+                Migration.sql(6, "state 컬럼, level 인덱스 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN IF NOT EXISTS state BYTEA",
+                        "CREATE INDEX IF NOT EXISTS idx_rpg_player_data_level ON rpg_player_data (level DESC, exp DESC)"),
+
+                // v7: 비활성 유저 보관 테이블 (PlayerArchive) + 비활성 조회용 인덱스
+                Migration.sql(7, "rpg_player_archive 추가",
+                        "CREATE TABLE IF NOT EXISTS rpg_player_archive (" +
+                                "uuid VARCHAR(36) PRIMARY KEY, " +
+                                "level INT, " +
+                                "state BYTEA NOT NULL, " +
+                                "archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                                ")",
+                        "CREATE INDEX IF NOT EXISTS idx_rpg_player_data_last_updated ON rpg_player_data (last_updated)")
+        );
+    }
+
+    /**
+     * 내장 SQLite 용 이력 (SQLite 는 ADD COLUMN IF NOT EXISTS 가 없으므로 PostgreSQL v1~v4 결과를 한 번에 생성)
+     * - 컬럼 구성은 PostgreSQL 과 같음 → PlayerDataTable 의 SQL 을 그대로 사용
+     */
+    public static List<Migration> embedded() {
+        return List.of(
+                Migration.sql(1, "rpg_player_data 생성",
+                        "CREATE TABLE IF NOT EXISTS rpg_player_data (" +
+                                "uuid VARCHAR(36) PRIMARY KEY, " +
+                                "player_class VARCHAR(32), " +
+                                "level INT DEFAULT 1, " +
+                                "exp DOUBLE PRECISION DEFAULT 0, " +
+                                "base_attack DOUBLE PRECISION DEFAULT 0, " +
+                                "base_defense DOUBLE PRECISION DEFAULT 0, " +
+                                "base_mana DOUBLE PRECISION DEFAULT 100, " +
+                                "current_mana DOUBLE PRECISION DEFAULT 100, " +
+                                "required_exp DOUBLE PRECISION, " +
+                                "bonus_attack DOUBLE PRECISION DEFAULT 0, " +
+                                "bonus_defense DOUBLE PRECISION DEFAULT 0, " +
+                                "bonus_mana DOUBLE PRECISION DEFAULT 0, " +
+                                "base_crit_chance DOUBLE PRECISION DEFAULT 0, " +
+                                "bonus_crit_chance DOUBLE PRECISION DEFAULT 0, " +
+                                "base_crit_damage DOUBLE PRECISION DEFAULT 0, " +
+                                "bonus_crit_damage DOUBLE PRECISION DEFAULT 0, " +
+                                "custom_nbt TEXT, " +
+                                "last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                                ")"),
+
+                // v2: 행 버전 (PostgreSQL v5 와 같은 컬럼, 세션 테이블은 단일 서버라 불필요)
+                Migration.sql(2, "version 컬럼 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN version BIGINT NOT NULL DEFAULT 1"),
+
+                // v3: state 컬럼 + level 인덱스 (PostgreSQL v6 과 같음)
+                Migration.sql(3, "state 컬럼, level 인덱스 추가",
+                        "ALTER TABLE rpg_player_data ADD COLUMN state BLOB",
+                        "CREATE INDEX IF NOT EXISTS idx_rpg_player_data_level ON rpg_player_data (level DESC, exp DESC)"),
+
+                // v4: 비활성 유저 보관 테이블 (PostgreSQL v7 과 같음)
+                Migration.sql(4, "rpg_player_archive 추가",
+                        "CREATE TABLE IF NOT EXISTS rpg_player_archive (" +
+                                "uuid VARCHAR(36) PRIMARY KEY, " +
+                                "level INT, " +
+                                "state BLOB NOT NULL, " +
+                                "archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                                ")",
+                        "CREATE INDEX IF NOT EXISTS idx_rpg_player_data_last_updated ON rpg_player_data (last_updated)")
+        );
+    }
+}
@@ -0,0 +1,250 @@
+package com.mahirung.rpgcore.database;
+
+import com.mahirung.rpgcore.data.CustomData;
+import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataCodec;
+import com.mahirung.rpgcore.data.PlayerDataSnapshot;
+import com.mahirung.rpgcore.data.RowVersion;
+import com.mahirung.rpgcore.util.PerfMetrics;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * rpg_player_data 테이블 ↔ PlayerDataSnapshot 변환
+ * - PostgreSQL(DatabaseManager) 과 내장 SQLite(SqliteStorage) 가 같은 컬럼/SQL 을 공유
+ * - UPSERT(ON CONFLICT ... DO UPDATE) 와 EXCLUDED 는 두 DB 모두 지원
+ * - version: 기록할 때마다 +1, 부분 UPDATE 는 로드한 버전과 같을 때만 적용 (다른 서버의 저장을 덮어쓰지 않음)
+ * - 행 포맷 2가지 (database.row-format)
+ *   - columns: 필드마다 컬럼 1개, 변경된 컬럼만 UPDATE (state = NULL)
+ *   - state: 전체 상태를 PlayerDataCodec 바이너리로 state 컬럼 1개에 기록 + 조회/순위용 스칼라(player_class, level, exp)
+ * - 읽을 때는 state 가 있으면 state, 없으면 컬럼 값 사용 → 두 포맷의 행이 섞여 있어도 로드 가능
+ */
+public final class PlayerDataTable {
+
+    public static final String TABLE = "rpg_player_data";
+    public static final String SELECT_SQL = "SELECT * FROM " + TABLE + " WHERE uuid = ?";
+    // 키셋 페이지 조회 (가져오기/내보내기용, OFFSET 없이 마지막 uuid 이후부터)
+    public static final String PAGE_SQL = "SELECT * FROM " + TABLE + " WHERE uuid > ? ORDER BY uuid LIMIT ?";
+    // 전체 스트리밍 조회 (내보내기용, 커서로 나눠 받고 중단 시 마지막 uuid 이후부터 재개)
+    public static final String STREAM_SQL = "SELECT * FROM " + TABLE + " WHERE uuid > ? ORDER BY uuid";
+    // 레벨 순위표 초기화용 (필요한 컬럼만)
+    public static final String LEVELS_SQL = "SELECT uuid, level, exp FROM " + TABLE;
+    // 현재 행 버전 (warm 캐시 검증용)
+    public static final String VERSION_SQL = "SELECT version FROM " + TABLE + " WHERE uuid = ?";
+
+    // 저장 컬럼 (uuid 제외) 과 각 컬럼의 변경 필드 비트 (PlayerData.FIELD_*, 여러 컬럼이 한 비트를 공유할 수 있음)
+    private static final String[] COLUMN_NAMES = {
+            "player_class", "level", "exp", "base_attack", "base_defense", "base_mana", "current_mana",
+            "required_exp",
+            "bonus_attack", "bonus_defense", "bonus_mana", "bonus_crit_chance", "bonus_crit_damage",
+            "base_crit_chance", "base_crit_damage",
+            "custom_nbt"
+    };
+    private static final int[] COLUMN_FIELDS = {
+            PlayerData.FIELD_CLASS, PlayerData.FIELD_LEVEL, PlayerData.FIELD_EXP, PlayerData.FIELD_BASE_ATTACK,
+            PlayerData.FIELD_BASE_DEFENSE, PlayerData.FIELD_BASE_MANA, PlayerData.FIELD_CURRENT_MANA,
+            PlayerData.FIELD_REQUIRED_EXP,
+            PlayerData.FIELD_BONUS_STATS, PlayerData.FIELD_BONUS_STATS, PlayerData.FIELD_BONUS_STATS,
+            PlayerData.FIELD_BONUS_STATS, PlayerData.FIELD_BONUS_STATS,
+            PlayerData.FIELD_CRIT_STATS, PlayerData.FIELD_CRIT_STATS,
+            PlayerData.FIELD_CUSTOM
+    };
+    public static final int COLUMN_COUNT = COLUMN_NAMES.length;
+    public static final int COLUMN_MASK = PlayerData.ALL_FIELDS;
+    public static final String UPSERT_SQL = buildUpsertSql();
+    // 행이 없을 때만 INSERT (신규 유저, 그 사이 다른 서버가 만들었으면 0행 → 충돌)
+    // 충돌 대상을 생략한 형태는 PostgreSQL/SQLite/H2(PostgreSQL 모드) 모두 지원
+    public static final String INSERT_IF_ABSENT_SQL = buildInsertSql() + " ON CONFLICT DO NOTHING";
+
+    // --- state 포맷 (바이너리 1컬럼 + 스칼라 3컬럼, 항상 전체 기록) ---
+    private static final String STATE_INSERT_SQL =
+            "INSERT INTO " + TABLE + " (uuid, player_class, level, exp, state, version) VALUES (?, ?, ?, ?, ?, 1)";
+    public static final String STATE_UPDATE_SQL = "UPDATE " + TABLE + " SET player_class = ?, level = ?, exp = ?, state = ?, "
+            + "version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE uuid = ? AND version = ?";
+    public static final String STATE_INSERT_IF_ABSENT_SQL = STATE_INSERT_SQL + " ON CONFLICT DO NOTHING";
+    public static final String STATE_UPSERT_SQL = STATE_INSERT_SQL + " ON CONFLICT (uuid) DO UPDATE SET "
+            + "player_class = EXCLUDED.player_class, level = EXCLUDED.level, exp = EXCLUDED.exp, state = EXCLUDED.state, "
+            + "version = " + TABLE + ".version + 1, last_updated = CURRENT_TIMESTAMP";
+    public static final int STATE_COLUMN_COUNT = 4;
+
+    private PlayerDataTable() {}
+
+    /** 컬럼이 변경 필드 조합에 포함되는지 */
+    public static boolean isDirty(int column, int mask) {
+        return (mask & COLUMN_FIELDS[column]) != 0;
+    }
+
+    /** INSERT INTO rpg_player_data (uuid, 전체 컬럼, version = 1) */
+    private static String buildInsertSql() {
+        StringBuilder columns = new StringBuilder("uuid");
+        StringBuilder values = new StringBuilder("?");
+        for (String column : COLUMN_NAMES) {
+            columns.append(", ").append(column);
+            values.append(", ?");
+        }
+        return "INSERT INTO " + TABLE + " (" + columns + ", version) VALUES (" + values + ", 1)";
+    }
+
+    /** INSERT ... ON CONFLICT (uuid) DO UPDATE SET (전체 컬럼, 버전 조건 없음 → 출처를 모르는 복구 데이터 / 내장 DB 전용) */
+    private static String buildUpsertSql() {
+        StringBuilder updates = new StringBuilder();
+        for (String column : COLUMN_NAMES) {
+            updates.append(column).append(" = EXCLUDED.").append(column).append(", ");
+        }
+        return buildInsertSql() + " ON CONFLICT (uuid) DO UPDATE SET " + updates
+                + "state = NULL, version = " + TABLE + ".version + 1, last_updated = CURRENT_TIMESTAMP";
+    }
+
+    /**
+     * UPDATE rpg_player_data SET (변경 컬럼들), state = NULL, version + 1, last_updated WHERE uuid = ? AND version = ?
+     * - state 로 저장된 행을 컬럼 포맷으로 되돌릴 때는 로드 시 전체 변경으로 표시되므로 첫 기록이 모든 컬럼을 채움
+     */
+    public static String buildUpdateSql(int mask) {
+        StringBuilder sql = new StringBuilder("UPDATE " + TABLE + " SET ");
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isDirty(column, mask)) sql.append(COLUMN_NAMES[column]).append(" = ?, ");
+        }
+        return sql.append("state = NULL, version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE uuid = ? AND version = ?").toString();
+    }
+
+    /** @param expectedVersion 로드(또는 마지막 기록) 시점의 버전 */
+    public static void bindUpdate(PreparedStatement ps, int mask, PlayerDataSnapshot snapshot, long expectedVersion) throws SQLException {
+        int index = 1;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isDirty(column, mask)) bindColumn(ps, index++, column, snapshot);
+        }
+        ps.setString(index++, snapshot.uuid().toString());
+        ps.setLong(index, expectedVersion);
+    }
+
+    public static void bindUpsert(PreparedStatement ps, PlayerDataSnapshot snapshot) throws SQLException {
+        ps.setString(1, snapshot.uuid().toString());
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            bindColumn(ps, column + 2, column, snapshot);
+        }
+    }
+
+    /** state 포맷 INSERT / UPSERT (uuid, player_class, level, exp, state) */
+    public static void bindStateInsert(PreparedStatement ps, PlayerDataSnapshot snapshot, byte[] state) throws SQLException {
+        ps.setString(1, snapshot.uuid().toString());
+        ps.setString(2, snapshot.playerClass());
+        ps.setInt(3, snapshot.level());
+        ps.setDouble(4, snapshot.currentExp());
+        ps.setBytes(5, state);
+    }
+
+    /** state 포맷 UPDATE (player_class, level, exp, state, uuid, 로드한 버전) */
+    public static void bindStateUpdate(PreparedStatement ps, PlayerDataSnapshot snapshot, byte[] state, long expectedVersion) throws SQLException {
+        ps.setString(1, snapshot.playerClass());
+        ps.setInt(2, snapshot.level());
+        ps.setDouble(3, snapshot.currentExp());
+        ps.setBytes(4, state);
+        ps.setString(5, snapshot.uuid().toString());
+        ps.setLong(6, expectedVersion);
+    }
+
+    private static void bindColumn(PreparedStatement ps, int index, int column, PlayerDataSnapshot snapshot) throws SQLException {
+        switch (column) {
+            case 0 -> ps.setString(index, snapshot.playerClass());
+            case 1 -> ps.setInt(index, snapshot.level());
+            case 2 -> ps.setDouble(index, snapshot.currentExp());
+            case 3 -> ps.setDouble(index, snapshot.baseAttack());
+            case 4 -> ps.setDouble(index, snapshot.baseDefense());
+            case 5 -> ps.setDouble(index, snapshot.baseMaxMana());
+            case 6 -> ps.setDouble(index, snapshot.currentMana());
+            case 7 -> ps.setDouble(index, snapshot.requiredExp());
+            case 8 -> ps.setDouble(index, snapshot.bonusAttack());
+            case 9 -> ps.setDouble(index, snapshot.bonusDefense());
+            case 10 -> ps.setDouble(index, snapshot.bonusMaxMana());
+            case 11 -> ps.setDouble(index, snapshot.bonusCritChance());
+            case 12 -> ps.setDouble(index, snapshot.bonusCritDamage());
+            case 13 -> ps.setDouble(index, snapshot.baseCritChance());
+            case 14 -> ps.setDouble(index, snapshot.baseCritDamage());
+            case 15 -> ps.setString(index, encodeCustomData(snapshot.customData()));
+            default -> throw new IllegalArgumentException("알 수 없는 컬럼: " + column);
+        }
+    }
+
+    /**
+     * 현재 행 → 스냅샷 (저장소와 같은 상태이므로 변경 필드 없음, revision 0, 행 버전 포함)
+     * - required_exp 가 NULL 인 행(백필 전)은 레벨 공식으로 계산
+     */
+    public static PlayerDataSnapshot readRow(ResultSet rs) throws SQLException {
+        byte[] state = rs.getBytes("state");
+        if (state != null) return readState(state, new RowVersion(rs.getLong("version")));
+
+        UUID uuid = UUID.fromString(rs.getString("uuid"));
+        int level = rs.getInt("level");
+        double requiredExp = rs.getDouble("required_exp");
+        if (rs.wasNull()) requiredExp = PlayerData.calculateRequiredExpForLevel(level); // 백필 전 행
+        return new PlayerDataSnapshot(uuid,
+                rs.getString("player_class"), level, rs.getDouble("exp"), requiredExp,
+                rs.getDouble("base_attack"), rs.getDouble("bonus_attack"),
+                rs.getDouble("base_mana"), rs.getDouble("bonus_mana"), rs.getDouble("current_mana"),
+                rs.getDouble("base_defense"), rs.getDouble("bonus_defense"),
+                rs.getDouble("base_crit_chance"), rs.getDouble("bonus_crit_chance"),
+                rs.getDouble("base_crit_damage"), rs.getDouble("bonus_crit_damage"),
+                decodeCustomData(rs.getString("custom_nbt")),
+                0, 0L, new RowVersion(rs.getLong("version")));
+    }
+
+    /**
+     * state 컬럼 → 스냅샷 (CRC 검사 포함)
+     * - 손상된 값은 예외: 오래된 스칼라 컬럼으로 대신 로드하면 다음 저장에서 진행도를 덮어쓰므로 로드하지 않음
+     */
+    private static PlayerDataSnapshot readState(byte[] state, RowVersion version) throws SQLException {
+        try {
+            return PlayerDataCodec.decode(state).withRowVersion(version);
+        } catch (IOException e) {
+            throw new SQLException("state 컬럼 손상: " + e.getMessage(), e);
+        }
+    }
+
+    /** 컬럼 값의 바인딩 크기 추정 (문자열 = UTF-8 길이, INT 4, DOUBLE 8, custom_nbt = 항목 수 기반 추정) */
+    public static int columnBytes(int column, PlayerDataSnapshot snapshot) {
+        if (column == 0) {
+            return snapshot.playerClass() == null ? 0 : snapshot.playerClass().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (column == 15) return snapshot.customData().size() * 32;
+        return column == 1 ? Integer.BYTES : Double.BYTES;
+    }
+
+    /** custom-nbt → YAML 문자열 (비어있으면 null) */
+    private static String encodeCustomData(CustomData customData) {
+        if (customData.isEmpty()) return null;
+        long start = System.nanoTime();
+        YamlConfiguration yaml = new YamlConfiguration();
+        customData.forEach(yaml::set);
+        String text = yaml.saveToString();
+        PerfMetrics.YAML_ENCODE.recordSince(start);
+        return text;
+    }
+
+    /** YAML 문자열 → custom-data (하위 경로 값을 평탄화해서 복원) */
+    private static CustomData decodeCustomData(String text) {
+        CustomData custom = new CustomData();
+        if (text == null || text.isEmpty()) return custom;
+        long start = System.nanoTime();
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.loadFromString(text);
+        } catch (InvalidConfigurationException e) {
+            return custom;
+        }
+        for (Map.Entry<String, Object> entry : yaml.getValues(true).entrySet()) {
+            if (entry.getValue() instanceof ConfigurationSection) continue;
+            custom.put(entry.getKey(), entry.getValue());
+        }
+        PerfMetrics.YAML_DECODE.recordSince(start);
+        return custom;
+    }
+}
@@ -0,0 +1,199 @@
+package com.mahirung.rpgcore.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 서버 간 플레이어 세션 소유권 (rpg_player_session, 유저당 1행)
+ * - 로드 전에 claim: 행이 없거나, 이미 이 서버 것이거나, heartbeat 가 lease 시간보다 오래되었으면 가져옴
+ * - 다른 서버가 가지고 있으면 잠시 뒤 다시 시도 (스레드를 재우지 않고 delayedExecutor 로 예약)
+ * - 퇴장 저장이 끝나면 release (DELETE) → 다음 서버가 바로 로드
+ * - 저장이 아직 대기열/디스크 대기열에 있으면 lingering 으로 두고 heartbeat 때 기록이 확인되면 release
+ * - heartbeat: 이 서버의 모든 행을 UPDATE 1번으로 갱신 (서버가 죽으면 lease 시간 뒤 다른 서버가 가져감)
+ * - 표준 SQL (INSERT / UPDATE / DELETE + 기본키 중복 SQLState 23505) 만 사용 → H2 로도 검증 가능
+ */
+public class PlayerSessions {
+
+    private static final String TABLE = "rpg_player_session";
+    private static final String TAKE_SQL = "UPDATE " + TABLE + " SET server_id = ?, heartbeat = ? WHERE uuid = ? AND (server_id = ? OR heartbeat < ?)";
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE + " (uuid, server_id, heartbeat) VALUES (?, ?, ?)";
+    private static final String RELEASE_SQL = "DELETE FROM " + TABLE + " WHERE uuid = ? AND server_id = ?";
+    private static final String HEARTBEAT_SQL = "UPDATE " + TABLE + " SET heartbeat = ? WHERE server_id = ?";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+    private final String serverId;
+    private final long leaseMillis;
+    private final long waitMillis;
+    private final long retryMillis;
+    private final Executor executor;
+    private final Logger logger;
+
+    // 이 서버가 소유 중인 유저 (접속 중 + 저장 확인 대기)
+    private final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+    // 퇴장했지만 저장이 아직 기록되지 않아 소유권을 유지 중인 유저
+    private final Set<UUID> lingering = ConcurrentHashMap.newKeySet();
+
+    public PlayerSessions(DataSource dataSource, String serverId, long leaseMillis, long waitMillis, long retryMillis,
+                          Executor executor, Logger logger) {
+        this.dataSource = dataSource;
+        this.serverId = serverId;
+        this.leaseMillis = leaseMillis;
+        this.waitMillis = waitMillis;
+        this.retryMillis = retryMillis;
+        this.executor = executor;
+        this.logger = logger;
+    }
+
+    /**
+     * 소유권 1회 시도 (블로킹, I/O 스레드 / 로그인 처리 스레드 전용)
+     * @return 소유권을 얻었으면 true, 다른 서버가 소유 중이거나 DB 오류면 false
+     */
+    public boolean tryClaim(UUID uuid) {
+        if (owned.contains(uuid)) {
+            lingering.remove(uuid);
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        try (Connection conn = dataSource.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(TAKE_SQL)) {
+                ps.setString(1, serverId);
+                ps.setTimestamp(2, new Timestamp(now));
+                ps.setString(3, uuid.toString());
+                ps.setString(4, serverId);
+                ps.setTimestamp(5, new Timestamp(now - leaseMillis));
+                if (ps.executeUpdate() == 1) return markOwned(uuid);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+                ps.setString(1, uuid.toString());
+                ps.setString(2, serverId);
+                ps.setTimestamp(3, new Timestamp(now));
+                ps.executeUpdate();
+                return markOwned(uuid);
+            } catch (SQLException e) {
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) return false; // 다른 서버가 소유 중
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "[Session] 소유권 확인 실패: " + uuid, e);
+            return false;
+        }
+    }
+
+    private boolean markOwned(UUID uuid) {
+        owned.add(uuid);
+        lingering.remove(uuid);
+        return true;
+    }
+
+    /**
+     * 소유권을 얻을 때까지 비동기로 재시도 (최대 wait-millis)
+     * - 이전 서버의 퇴장 저장 → release 를 기다리는 용도, 재시도 사이에 스레드를 점유하지 않음
+     */
+    public CompletableFuture<Boolean> claim(UUID uuid) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        attempt(uuid, System.currentTimeMillis() + waitMillis, result);
+        return result;
+    }
+
+    private void attempt(UUID uuid, long deadline, CompletableFuture<Boolean> result) {
+        CompletableFuture.runAsync(() -> {
+            if (tryClaim(uuid)) {
+                result.complete(true);
+            } else if (System.currentTimeMillis() + retryMillis > deadline) {
+                result.complete(false);
+            } else {
+                CompletableFuture.delayedExecutor(retryMillis, TimeUnit.MILLISECONDS, executor)
+                        .execute(() -> attempt(uuid, deadline, result));
+            }
+        }, executor).exceptionally(error -> {
+            result.completeExceptionally(error);
+            return null;
+        });
+    }
+
+    public boolean isOwned(UUID uuid) {
+        return owned.contains(uuid);
+    }
+
+    /** 퇴장 저장이 기록된 뒤 소유권 반환 (비동기) */
+    public void release(UUID uuid) {
+        if (!owned.remove(uuid)) return;
+        lingering.remove(uuid);
+        executor.execute(() -> delete(uuid));
+    }
+
+    /** 퇴장했지만 저장이 아직 대기 중: 소유권을 유지하고 heartbeat 때 기록 여부 확인 */
+    public void linger(UUID uuid) {
+        if (owned.contains(uuid)) lingering.add(uuid);
+    }
+
+    /**
+     * heartbeat 갱신 + 기록이 끝난 lingering 유저 반환 (I/O 스레드에서 주기 호출)
+     * @param stillQueued 아직 저장 대기열/디스크 대기열에 있는지
+     */
+    public void heartbeat(Predicate<UUID> stillQueued) {
+        for (UUID uuid : lingering) {
+            if (!stillQueued.test(uuid)) release(uuid);
+        }
+        if (owned.isEmpty()) return;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(HEARTBEAT_SQL)) {
+            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            ps.setString(2, serverId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "[Session] heartbeat 갱신 실패 (" + owned.size() + "명)", e);
+        }
+    }
+
+    /**
+     * 종료 시 소유권 일괄 반환 (동기)
+     * @param keep 기록하지 못해 비상 파일/디스크 대기열에 남은 유저 (lease 만료 전까지 다른 서버가 로드하지 않도록 유지)
+     */
+    public void releaseAll(Predicate<UUID> keep) {
+        owned.removeIf(keep);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(RELEASE_SQL)) {
+            for (UUID uuid : owned) {
+                ps.setString(1, uuid.toString());
+                ps.setString(2, serverId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "[Session] 종료 시 소유권 반환 실패 (lease 만료 후 다른 서버가 가져감)", e);
+        }
+        owned.clear();
+        lingering.clear();
+    }
+
+    private void delete(UUID uuid) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(RELEASE_SQL)) {
+            ps.setString(1, uuid.toString());
+            ps.setString(2, serverId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "[Session] 소유권 반환 실패: " + uuid + " (lease 만료 후 다른 서버가 가져감)", e);
+        }
+    }
+
+    // --- 통계 Getter ---
+    public String getServerId() { return serverId; }
+    public int getOwnedCount() { return owned.size(); }
+    public int getLingeringCount() { return lingering.size(); }
+    public long getLeaseMillis() { return leaseMillis; }
+}
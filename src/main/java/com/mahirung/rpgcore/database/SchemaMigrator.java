@@ -0,0 +1,174 @@
+package com.mahirung.rpgcore.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * 스키마 마이그레이션 실행기
+ * - schema_version 테이블에 적용된 버전을 기록하고, 그보다 높은 버전만 순서대로 적용
+ * - 트랜잭션 마이그레이션은 변경과 버전 기록을 함께 커밋 → 실패 시 해당 버전만 롤백되고 시작 중단
+ * - PostgreSQL: 같은 DB 를 쓰는 여러 서버가 동시에 시작해도 한 서버씩 실행 (세션 advisory lock, 잠금 후 버전 조회)
+ *   - 배치마다 커밋하는 마이그레이션이 있어 트랜잭션 잠금(pg_advisory_xact_lock) 대신 실행 전체를 덮는 세션 잠금 사용
+ * - 버전 기록이 기본키 중복이면 다른 서버가 먼저 적용한 것으로 보고 건너뜀 (잠금이 없는 DB 대비)
+ */
+public class SchemaMigrator {
+
+    private static final String VERSION_TABLE = "schema_version";
+    private static final long LOCK_KEY = 0x5250474D49475241L; // "RPGMIGRA"
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final DataSource dataSource;
+    private final Logger logger;
+
+    public SchemaMigrator(DataSource dataSource, Logger logger) {
+        this.dataSource = dataSource;
+        this.logger = logger;
+    }
+
+    /**
+     * 미적용 마이그레이션 실행
+     * @return 적용된 마이그레이션 수
+     */
+    public int migrate(List<Migration> migrations) throws SQLException {
+        List<Migration> ordered = new ArrayList<>(migrations);
+        ordered.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < ordered.size(); i++) {
+            if (ordered.get(i).version() == ordered.get(i - 1).version()) {
+                throw new IllegalStateException("중복된 마이그레이션 버전: " + ordered.get(i).version());
+            }
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            boolean locked = lock(conn);
+            try {
+                ensureVersionTable(conn);
+                int current = getCurrentVersion(conn); // 잠금 이후에 읽음 (먼저 실행한 서버의 결과 반영)
+                int applied = 0;
+
+                for (Migration migration : ordered) {
+                    if (migration.version() <= current) continue;
+
+                    long start = System.currentTimeMillis();
+                    boolean recorded;
+                    if (migration.transactional()) {
+                        boolean autoCommit = conn.getAutoCommit();
+                        conn.setAutoCommit(false);
+                        try {
+                            migration.apply(conn);
+                            recorded = recordVersion(conn, migration);
+                            if (recorded) conn.commit();
+                            else conn.rollback(); // 다른 서버가 같은 변경을 이미 커밋함
+                        } catch (SQLException e) {
+                            conn.rollback();
+                            throw new SQLException("마이그레이션 v" + migration.version() + " 실패: " + migration.description(), e);
+                        } finally {
+                            conn.setAutoCommit(autoCommit);
+                        }
+                    } else {
+                        // 배치마다 자체 커밋 → 중간에 실패해도 다음 시작 때 남은 행부터 이어서 실행
+                        try {
+                            migration.apply(conn);
+                        } catch (SQLException e) {
+                            throw new SQLException("마이그레이션 v" + migration.version() + " 실패 (다음 시작 시 이어서 실행): " + migration.description(), e);
+                        }
+                        recorded = recordVersion(conn, migration);
+                    }
+                    if (!recorded) {
+                        logger.info("[Migration] v" + migration.version() + " 은 다른 서버가 이미 적용했습니다: " + migration.description());
+                        continue;
+                    }
+                    applied++;
+                    logger.info("[Migration] v" + migration.version() + " 적용: " + migration.description()
+                            + " (" + (System.currentTimeMillis() - start) + "ms)");
+                }
+                return applied;
+            } finally {
+                if (locked) unlock(conn);
+            }
+        }
+    }
+
+    /**
+     * PostgreSQL 이면 마이그레이션 잠금 획득 (다른 서버가 실행 중이면 끝날 때까지 대기)
+     * @return 잠금을 잡았는지 (PostgreSQL 이 아니면 false)
+     */
+    private boolean lock(Connection conn) throws SQLException {
+        if (!"PostgreSQL".equals(conn.getMetaData().getDatabaseProductName())) return false;
+        if (!advisory(conn, "SELECT pg_try_advisory_lock(?)")) {
+            logger.info("[Migration] 다른 서버가 마이그레이션 중입니다. 끝날 때까지 기다립니다.");
+            advisory(conn, "SELECT pg_advisory_lock(?)");
+        }
+        return true;
+    }
+
+    /** 세션 잠금 해제 (실패하면 잠금을 가진 채 풀로 돌아가지 않도록 커넥션을 폐기) */
+    private void unlock(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) conn.rollback();
+            advisory(conn, "SELECT pg_advisory_unlock(?)");
+        } catch (SQLException e) {
+            logger.warning("[Migration] 마이그레이션 잠금 해제 실패, 커넥션을 폐기합니다: " + e.getMessage());
+            try {
+                conn.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // 이미 끊어진 커넥션 (세션 잠금도 함께 해제됨)
+            }
+        }
+    }
+
+    private static boolean advisory(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return !rs.next() || rs.getObject(1) == null || rs.getBoolean(1); // pg_advisory_lock 은 void
+            }
+        }
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            ensureVersionTable(conn);
+            return getCurrentVersion(conn);
+        }
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200), " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+        if (!conn.getAutoCommit()) conn.commit();
+    }
+
+    private int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MAX(version) FROM " + VERSION_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0; // 비어있으면 NULL → 0
+        }
+    }
+
+    /** @return 기록했으면 true, 이미 기록되어 있으면 (다른 서버가 먼저 적용) false */
+    private boolean recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO " + VERSION_TABLE + " (version, description) VALUES (?, ?)")) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) return false;
+            throw e;
+        }
+    }
+}
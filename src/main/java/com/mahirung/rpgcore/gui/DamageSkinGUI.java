@@ -60,13 +60,13 @@ public class DamageSkinGUI implements InventoryHolder {
             ItemMeta meta = icon.getItemMeta();
 
             if (meta != null) {
-                meta.setDisplayName(ChatUtil.format("&a[스킨] &f" + skinId));
+                meta.setDisplayName(ChatUtil.format("&a[스킨] &f" + skinData.getDisplayName()));
 
                 List<String> lore = new ArrayList<>();
                 lore.add(ChatUtil.format("&7이 스킨을 적용하려면 클릭하세요."));
                 lore.add(" ");
-                lore.add(ChatUtil.format("&7일반: " + skinData.getNormalFormat()));
-                lore.add(ChatUtil.format("&7치명: " + skinData.getCriticalFormat()));
+                lore.add(ChatUtil.format("&7일반: ") + skinData.getNormalPreview());
+                lore.add(ChatUtil.format("&7치명: ") + skinData.getCriticalPreview());
 
                 meta.setLore(lore);
                 icon.setItemMeta(meta);
@@ -1,6 +1,7 @@
 package com.mahirung.rpgcore.hooks;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.LevelLeaderboard;
 import com.mahirung.rpgcore.data.PlayerData;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
@@ -28,6 +29,8 @@ public class RPGCoreExpansion extends PlaceholderExpansion {
 
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String params) {
+        // 순위표: %rpgcore_top_<n>_name%, %rpgcore_top_<n>_level% (플레이어 없이도 사용 가능)
+        if (params.startsWith("top_")) return topPlaceholder(params);
         if (player == null) return "";
 
         PlayerData data = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
@@ -40,6 +43,32 @@ public class RPGCoreExpansion extends PlaceholderExpansion {
             case "max_exp" -> String.format("%.1f", data.getRequiredExp());
             case "hp" -> String.format("%.0f", player.getHealth());
             case "mana" -> String.format("%.0f", data.getCurrentMana());
+            case "rank" -> {
+                LevelLeaderboard leaderboard = plugin.getPlayerDataManager().getLeaderboard();
+                int rank = leaderboard != null ? leaderboard.rankOf(player.getUniqueId()) : 0;
+                yield rank > 0 ? String.valueOf(rank) : "-";
+            }
+            default -> null;
+        };
+    }
+
+    /** top_<n>_name / top_<n>_level (순위표 skip list 에서 O(log n) 조회) */
+    private String topPlaceholder(String params) {
+        String[] parts = params.split("_", 3);
+        if (parts.length != 3) return null;
+
+        int rank;
+        try {
+            rank = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        LevelLeaderboard leaderboard = plugin.getPlayerDataManager().getLeaderboard();
+        LevelLeaderboard.Entry entry = leaderboard != null ? leaderboard.get(rank) : null;
+
+        return switch (parts[2]) {
+            case "name" -> entry != null ? entry.name() : "-";
+            case "level" -> entry != null ? String.valueOf(entry.level()) : "-";
             default -> null;
         };
     }
@@ -1,6 +1,7 @@
 package com.mahirung.rpgcore.listeners;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.CombatStats;
 import com.mahirung.rpgcore.data.PlayerData;
 import com.mahirung.rpgcore.managers.DamageLogManager;
 import com.mahirung.rpgcore.managers.DamageSkinManager;
@@ -52,12 +53,13 @@ public class EntityDamageListener implements Listener {
                 ? playerDataManager.getPlayerData(victim.getUniqueId())
                 : null;
 
-        // 5. 커스텀 데미지 계산
-        double baseAttack = attackerData.getAttack();
-        double critChance = attackerData.getCritChance();
-        double critDamage = attackerData.getCritDamage();
+        // 5. 커스텀 데미지 계산 (장비 강화/룬이 반영된 캐시 스탯, 장비 변경 시에만 재계산)
+        CombatStats attackerStats = attackerData.getCombatStats();
+        double baseAttack = attackerStats.attack();
+        double critChance = attackerStats.critChance();
+        double critDamage = attackerStats.critDamage();
 
-        double victimDefense = (victimData != null) ? victimData.getDefense() : 0.0;
+        double victimDefense = (victimData != null) ? victimData.getCombatStats().defense() : 0.0;
 
         double damageReduction = victimDefense / (victimDefense + DEFENSE_CONSTANT);
         double calculatedDamage = baseAttack * (1.0 - damageReduction);
@@ -0,0 +1,38 @@
+package com.mahirung.rpgcore.listeners;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.DamageLogManager;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityRemoveEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+
+/**
+ * 엔티티 제거 리스너
+ * - 몹이 월드에서 빠지는 시점(디스폰, 청크 언로드, 사망 후 제거 등)에 데미지 기여도 기록 즉시 정리
+ * - 사망 보상 계산은 EntityDeathListener 가 먼저 처리 (EntityRemoveEvent 는 사망 이벤트 이후에 발생)
+ */
+public class EntityRemoveListener implements Listener {
+
+    private final DamageLogManager damageLogManager;
+
+    public EntityRemoveListener(RPGCore plugin) {
+        this.damageLogManager = plugin.getDamageLogManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(EntityRemoveEvent event) {
+        damageLogManager.removeLog(event.getEntity().getUniqueId());
+    }
+
+    // 청크 언로드 (EntityRemoveEvent 를 놓치는 서버 구현 대비)
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent event) {
+        if (damageLogManager.getTrackedCount() == 0) return;
+        for (Entity entity : event.getEntities()) {
+            damageLogManager.removeLog(entity.getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mahirung.rpgcore.listeners;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.StatManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.*;
+
+/**
+ * 장비 변경 감지 리스너
+ * - 주 손/방어구가 바뀔 수 있는 이벤트에서 StatManager 에 재계산 요청 (실제 재계산은 다음 틱, 장비 지문이 같으면 생략)
+ * - 결과만 보면 되므로 MONITOR + 취소된 이벤트 무시
+ */
+public class EquipmentChangeListener implements Listener {
+
+    private final StatManager statManager;
+
+    public EquipmentChangeListener(RPGCore plugin) {
+        this.statManager = plugin.getStatManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        statManager.requestRefresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        statManager.requestRefresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) statManager.requestRefresh(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) statManager.requestRefresh(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        statManager.requestRefresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) statManager.requestRefresh(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        statManager.requestRefresh(event.getPlayer());
+    }
+
+    // 우클릭으로 방어구 착용
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        if (event.hasItem() && (event.getAction() == Action.RIGHT_CLICK_AIR || event.getAction() == Action.RIGHT_CLICK_BLOCK)) {
+            statManager.requestRefresh(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDispenseArmor(BlockDispenseArmorEvent event) {
+        if (event.getTargetEntity() instanceof Player player) statManager.requestRefresh(player);
+    }
+
+    // 사망 시 장비를 잃었을 수 있음
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        statManager.requestRefresh(event.getPlayer());
+    }
+}
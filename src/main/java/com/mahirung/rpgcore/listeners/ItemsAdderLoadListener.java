@@ -0,0 +1,26 @@
+package com.mahirung.rpgcore.listeners;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.DamageSkinManager;
+import dev.lone.itemsadder.api.Events.ItemsAdderLoadDataEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * ItemsAdder 데이터 로드 리스너
+ * - 서버 시작 시 ItemsAdder 는 RPGCore 보다 늦게 폰트 이미지를 로드함 → 로드 완료(/iareload 포함) 시 데미지 스킨 글리프 표를 다시 만듦
+ */
+public class ItemsAdderLoadListener implements Listener {
+
+    private final DamageSkinManager damageSkinManager;
+
+    public ItemsAdderLoadListener(RPGCore plugin) {
+        this.damageSkinManager = plugin.getDamageSkinManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemsAdderLoad(ItemsAdderLoadDataEvent event) {
+        damageSkinManager.loadDamageSkins();
+    }
+}
@@ -5,6 +5,7 @@ import com.mahirung.rpgcore.data.PlayerData;
 import com.mahirung.rpgcore.managers.PlayerDataManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 
@@ -18,11 +19,12 @@ public class PlayerJoinListener implements Listener {
         this.playerDataManager = plugin.getPlayerDataManager();
     }
 
-    @EventHandler
+    // 선로딩된 데이터를 다른 리스너보다 먼저 승격시켜 입장 직후부터 getPlayerData 가 동작하도록 LOWEST
+    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        // 비동기로 데이터 로드 후, 콜백으로 환영 메시지 출력
+        // 선로딩 데이터 승격 (없으면 비동기로 로드) 후, 콜백으로 환영 메시지 출력
         playerDataManager.loadPlayerData(player.getUniqueId(), (data) -> {
             if (data != null) {
                 if (data.isNewPlayer()) {
@@ -31,8 +33,8 @@ public class PlayerJoinListener implements Listener {
                     player.sendMessage("§a[RPGCore] §f데이터가 성공적으로 로드되었습니다. (Lv." + data.getLevel() + ")");
                 }
                 
-                // 필요하다면 여기서 체력/스피드 등 스탯 초기화 로직 추가 가능
-                // updatePlayerStats(player, data);
+                // 저장된 보너스 스탯은 이전 접속의 장비 기준 → 현재 장비로 다시 계산
+                if (player.isOnline()) plugin.getStatManager().refresh(player, true);
             } else {
                 player.sendMessage("§c[RPGCore] §f데이터를 불러오는 중 오류가 발생했습니다.");
             }
@@ -0,0 +1,37 @@
+package com.mahirung.rpgcore.listeners;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.managers.PlayerDataManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+/**
+ * 접속 전 데이터 선로딩 리스너
+ * - AsyncPlayerPreLoginEvent (비동기 로그인 스레드)에서 PlayerData를 미리 읽어둠
+ * - 이후 단계에서 로그인이 거부되면 선로딩 데이터 폐기
+ */
+public class PlayerPreLoginListener implements Listener {
+
+    private final PlayerDataManager playerDataManager;
+
+    public PlayerPreLoginListener(RPGCore plugin) {
+        this.playerDataManager = plugin.getPlayerDataManager();
+    }
+
+    // 다른 플러그인의 밴/화이트리스트 판정이 끝난 뒤 최종 결과만 보고 로드
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        playerDataManager.prefetch(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            playerDataManager.discardPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+}
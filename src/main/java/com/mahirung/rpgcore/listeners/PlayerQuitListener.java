@@ -2,6 +2,7 @@ package com.mahirung.rpgcore.listeners;
 
 import com.mahirung.rpgcore.RPGCore;
 import com.mahirung.rpgcore.managers.PlayerDataManager;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -9,7 +10,7 @@ import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
  * 플레이어 퇴장 이벤트 리스너
- * - 퇴장 시 PlayerData를 안전하게 저장하고 메모리 캐시에서 제거
+ * - 퇴장 시 PlayerData를 안전하게 저장하고, 저장이 확인되면 재접속 대비 warm 캐시로 이동
  */
 public class PlayerQuitListener implements Listener {
 
@@ -33,8 +34,10 @@ public class PlayerQuitListener implements Listener {
                 plugin.getLogger().warning(player.getName() + "님의 데이터를 저장하는 데 실패했습니다.");
             }
 
-            // 저장 후 캐시에서 제거 (PlayerDataManager에 unloadPlayerData 메서드 필요)
-            playerDataManager.unloadPlayerData(player.getUniqueId());
+            // 저장 후 warm 캐시로 이동 (저장 중에 재접속했다면 새 세션이 같은 데이터를 쓰고 있으므로 유지)
+            if (Bukkit.getPlayer(player.getUniqueId()) == null) {
+                playerDataManager.releasePlayerData(player.getUniqueId(), success);
+            }
         });
     }
 }
@@ -0,0 +1,247 @@
+package com.mahirung.rpgcore.managers;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.util.TimingWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Transformation;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 데미지 표시(TextDisplay) 렌더러 (메인 스레드 전용, DamageSkinManager 소유)
+ * - 월드별 TextDisplay 풀을 재사용 (표시마다 엔티티 생성/삭제 없음, 대기 중에는 빈 텍스트 + 투명 배경)
+ * - 같은 틱에 같은 몹이 여러 번 맞으면 1개로 합쳐서 표시 (범위 공격 등)
+ * - 청크별 / 공격자별 동시 표시 개수 제한, 넘으면 표시 생략
+ * - 틱 작업 1개가 반환(타이밍 휠, 단위: 틱) → 떠오르는 애니메이션 시작(클라이언트 보간) → 이번 틱 표시 순서로 처리
+ * - 풀의 엔티티는 저장되지 않음(setPersistent(false)) → 청크 언로드/재시작 시 자동으로 사라지고, 꺼낼 때 isValid 로 거름
+ */
+public class DamageIndicatorRenderer {
+
+    private static final Transformation IDENTITY = new Transformation(
+            new Vector3f(), new Quaternionf(), new Vector3f(1, 1, 1), new Quaternionf());
+    private static final Color TRANSPARENT = Color.fromARGB(0, 0, 0, 0);
+
+    private final RPGCore plugin;
+    private final DamageSkinManager skinManager;
+
+    // damage-skins.* (리로드 시 loadConfig 로 갱신)
+    private int durationTicks;
+    private double offsetX;
+    private double offsetY;
+    private float riseHeight;
+    private int maxPerChunk;
+    private int maxPerAttacker;
+    private int poolPerWorld;
+
+    private final Map<UUID, Hit> pendingHits = new LinkedHashMap<>();      // 이번 틱 표시 대기 (몹별로 합침)
+    private final Map<UUID, ArrayDeque<TextDisplay>> pools = new HashMap<>(); // 월드 UID → 대기 중인 엔티티
+    private final Map<ChunkPos, int[]> chunkCounts = new HashMap<>();
+    private final Map<UUID, int[]> attackerCounts = new HashMap<>();
+    private final List<Indicator> rising = new ArrayList<>();              // 다음 틱에 애니메이션 시작
+    private final TimingWheel<Indicator> despawn = new TimingWheel<>(0);
+
+    private BukkitTask task;
+    private long tick;
+
+    // --- 통계 ---
+    private long shown;
+    private long merged;
+    private long dropped;
+    private long spawned;
+
+    public DamageIndicatorRenderer(RPGCore plugin, DamageSkinManager skinManager) {
+        this.plugin = plugin;
+        this.skinManager = skinManager;
+        loadConfig();
+    }
+
+    public void loadConfig() {
+        FileConfiguration config = plugin.getConfig();
+        this.durationTicks = Math.max(1, config.getInt("damage-skins.display-duration-ticks", 20));
+        this.offsetX = config.getDouble("damage-skins.font-offset-x", 0.25);
+        this.offsetY = config.getDouble("damage-skins.font-offset-y", 0.5);
+        this.riseHeight = (float) config.getDouble("damage-skins.rise-height", 0.6);
+        this.maxPerChunk = Math.max(1, config.getInt("damage-skins.max-per-chunk", 24));
+        this.maxPerAttacker = Math.max(1, config.getInt("damage-skins.max-per-attacker", 8));
+        this.poolPerWorld = Math.max(0, config.getInt("damage-skins.pool-size-per-world", 64));
+    }
+
+    public void start() {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /** 표시 예약 (같은 틱의 같은 몹은 합산, 치명타가 하나라도 있으면 치명타로 표시) */
+    public void enqueue(LivingEntity victim, double damage, boolean critical, Player attacker) {
+        Hit hit = pendingHits.get(victim.getUniqueId());
+        if (hit != null) {
+            hit.damage += damage;
+            hit.critical |= critical;
+            merged++;
+            return;
+        }
+        pendingHits.put(victim.getUniqueId(), new Hit(victim, attacker, damage, critical));
+    }
+
+    private void tick() {
+        tick++;
+        despawn.advance(tick, this::recycle);
+
+        // 지난 틱에 나타난 표시: 이제 위로 떠오르기 시작 (같은 틱에 위치/변형을 함께 보내면 보간이 생략됨)
+        for (Indicator indicator : rising) {
+            TextDisplay display = indicator.display;
+            if (!display.isValid()) continue;
+            display.setInterpolationDelay(0);
+            display.setInterpolationDuration(durationTicks);
+            display.setTransformation(new Transformation(
+                    new Vector3f(0, riseHeight, 0), new Quaternionf(), new Vector3f(1, 1, 1), new Quaternionf()));
+        }
+        rising.clear();
+
+        if (pendingHits.isEmpty()) return;
+        for (Hit hit : pendingHits.values()) render(hit);
+        pendingHits.clear();
+    }
+
+    private void render(Hit hit) {
+        LivingEntity victim = hit.victim;
+        if (!victim.isValid()) return;
+
+        Location location = victim.getLocation();
+        ChunkPos chunk = new ChunkPos(location.getWorld().getUID(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        UUID attackerId = hit.attacker.getUniqueId();
+        int[] chunkCount = chunkCounts.get(chunk);
+        int[] attackerCount = attackerCounts.get(attackerId);
+        if ((chunkCount != null && chunkCount[0] >= maxPerChunk) || (attackerCount != null && attackerCount[0] >= maxPerAttacker)) {
+            dropped++;
+            return;
+        }
+
+        double jitterX = 0;
+        double jitterZ = 0;
+        if (offsetX > 0) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            jitterX = random.nextDouble(-offsetX, offsetX);
+            jitterZ = random.nextDouble(-offsetX, offsetX); // 축마다 따로 뽑아야 대각선 한 줄로 몰리지 않음
+        }
+        location.add(jitterX, victim.getHeight() + offsetY, jitterZ);
+        TextDisplay display = acquire(location);
+        display.setText(skinManager.formatDamage(hit.attacker, hit.damage, hit.critical));
+
+        if (chunkCount == null) chunkCounts.put(chunk, chunkCount = new int[1]);
+        if (attackerCount == null) attackerCounts.put(attackerId, attackerCount = new int[1]);
+        chunkCount[0]++;
+        attackerCount[0]++;
+
+        Indicator indicator = new Indicator(display, chunk, attackerId);
+        despawn.schedule(indicator, tick + durationTicks);
+        rising.add(indicator);
+        shown++;
+    }
+
+    /** 풀에서 꺼내서 위치 이동 (없으면 생성) */
+    private TextDisplay acquire(Location location) {
+        World world = location.getWorld();
+        ArrayDeque<TextDisplay> pool = pools.get(world.getUID());
+        while (pool != null && !pool.isEmpty()) {
+            TextDisplay display = pool.pop();
+            if (display.isValid() && display.getWorld() == world) {
+                display.teleport(location);
+                return display;
+            }
+        }
+        spawned++;
+        return world.spawn(location, TextDisplay.class, display -> {
+            display.setPersistent(false);
+            display.setBillboard(Display.Billboard.CENTER);
+            display.setBackgroundColor(TRANSPARENT);
+            display.setShadowed(true);
+            display.setSeeThrough(false);
+            display.setTeleportDuration(0);
+        });
+    }
+
+    /** 표시 시간 종료: 빈 텍스트로 숨기고 변형을 즉시 되돌린 뒤 풀에 반환 */
+    private void recycle(Indicator indicator) {
+        decrement(chunkCounts, indicator.chunk);
+        decrement(attackerCounts, indicator.attacker);
+
+        TextDisplay display = indicator.display;
+        if (!display.isValid()) return;
+        display.setText("");
+        display.setInterpolationDuration(0);
+        display.setTransformation(IDENTITY);
+
+        ArrayDeque<TextDisplay> pool = pools.computeIfAbsent(display.getWorld().getUID(), key -> new ArrayDeque<>());
+        if (pool.size() < poolPerWorld) pool.push(display);
+        else display.remove();
+    }
+
+    private static <K> void decrement(Map<K, int[]> counts, K key) {
+        int[] count = counts.get(key);
+        if (count != null && --count[0] <= 0) counts.remove(key);
+    }
+
+    /** 플러그인 종료: 표시 중/대기 중인 엔티티 모두 제거 */
+    public void shutdown() {
+        if (task != null) task.cancel();
+        despawn.advance(tick + durationTicks, indicator -> indicator.display.remove());
+        for (ArrayDeque<TextDisplay> pool : pools.values()) {
+            pool.forEach(TextDisplay::remove);
+        }
+        pools.clear();
+        pendingHits.clear();
+        rising.clear();
+        chunkCounts.clear();
+        attackerCounts.clear();
+    }
+
+    public long getShown() { return shown; }
+    public long getMerged() { return merged; }
+    public long getDropped() { return dropped; }
+    public long getSpawned() { return spawned; }
+    public int getActiveCount() { return despawn.size(); }
+
+    /**
+     * 이번 틱에 표시할 몹 1마리의 합친 피해 (키: 몹 UUID)
+     * - 여러 플레이어가 같은 틱에 때리면 합친 표시는 첫 공격자의 스킨으로 그리고, 첫 공격자의 동시 표시 제한에만 포함됨
+     */
+    private static final class Hit {
+        final LivingEntity victim;
+        final Player attacker; // 스킨/공격자별 제한 기준 (합쳐진 경우 첫 공격자)
+        double damage;
+        boolean critical;
+
+        Hit(LivingEntity victim, Player attacker, double damage, boolean critical) {
+            this.victim = victim;
+            this.attacker = attacker;
+            this.damage = damage;
+            this.critical = critical;
+        }
+    }
+
+    private static final class Indicator extends TimingWheel.Entry {
+        final TextDisplay display;
+        final ChunkPos chunk;
+        final UUID attacker;
+
+        Indicator(TextDisplay display, ChunkPos chunk, UUID attacker) {
+            this.display = display;
+            this.chunk = chunk;
+            this.attacker = attacker;
+        }
+    }
+
+    private record ChunkPos(UUID world, int x, int z) {}
+}
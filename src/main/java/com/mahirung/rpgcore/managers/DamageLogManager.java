@@ -1,46 +1,101 @@
 package com.mahirung.rpgcore.managers;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.DamageLedger;
+import com.mahirung.rpgcore.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * 몹별 데미지 기여도 관리 (메인 스레드 전용)
+ * - 몹마다 DamageLedger 1개 (공격자/누적 데미지 병렬 배열, 1위를 기록 시점에 갱신)
+ * - 타격마다 박싱/맵 엔트리 할당 없음, 1위 조회 O(1)
+ * - 몹이 죽거나 월드에서 제거(디스폰/청크 언로드)되면 EntityRemoveListener 가 즉시 제거
+ * - 안전망: 마지막 타격 후 gameplay.memory-cleanup-interval 초 동안 공격이 없으면 타이밍 휠에서 만료
+ *   (타격은 시각만 기록하고, 만료 시점에 다시 확인해서 재예약 → 정리 비용 O(만료 항목), 엔티티 검색/전체 순회 없음)
+ * - 제거된 장부는 풀에 반환해서 다음 몹에 재사용 (월드 보스 이벤트 등 대량 전투 시 할당 감소)
+ */
 public class DamageLogManager {
 
-    private final Map<UUID, Map<UUID, Double>> damageMap = new HashMap<>();
+    private static final int MAX_POOLED = 256;
+
+    private final Map<UUID, DamageLedger> damageMap = new HashMap<>();
+    private final ArrayDeque<DamageLedger> pool = new ArrayDeque<>();
+
+    // 시계 단위: 초 (1초 타이머가 1씩 진행)
+    private final TimingWheel<DamageLedger> expiry = new TimingWheel<>(0);
+    private final long idleSeconds;
+    private long clock;
+    private long expired;
 
     public DamageLogManager(RPGCore plugin) {
-        // 메모리 누수 방지: 주기적으로 죽거나 사라진 몹 데이터 청소
-        long interval = plugin.getConfig().getLong("gameplay.memory-cleanup-interval", 300) * 20L;
-        Bukkit.getScheduler().runTaskTimer(plugin, this::cleanupLogs, interval, interval);
+        this.idleSeconds = Math.max(1, plugin.getConfig().getLong("gameplay.memory-cleanup-interval", 300));
+        Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 20L, 20L);
     }
 
     public void addDamage(Entity entity, Player player, double damage) {
-        damageMap.computeIfAbsent(entity.getUniqueId(), k -> new HashMap<>())
-                .merge(player.getUniqueId(), damage, Double::sum);
+        DamageLedger ledger = damageMap.get(entity.getUniqueId());
+        if (ledger == null) {
+            ledger = pool.isEmpty() ? new DamageLedger() : pool.pop();
+            ledger.setEntity(entity.getUniqueId());
+            damageMap.put(entity.getUniqueId(), ledger);
+            expiry.schedule(ledger, clock + idleSeconds);
+        }
+        ledger.setLastHit(clock);
+        ledger.add(player.getUniqueId(), damage);
     }
 
     public Player getTopDealer(Entity entity) {
-        Map<UUID, Double> logs = damageMap.get(entity.getUniqueId());
-        if (logs == null || logs.isEmpty()) return null;
-
-        return logs.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(entry -> Bukkit.getPlayer(entry.getKey()))
-                .orElse(null);
+        DamageLedger ledger = damageMap.get(entity.getUniqueId());
+        if (ledger == null || ledger.isEmpty()) return null;
+        return Bukkit.getPlayer(ledger.getTopAttacker());
     }
 
     public void removeLog(Entity entity) {
-        damageMap.remove(entity.getUniqueId());
+        removeLog(entity.getUniqueId());
+    }
+
+    /** 엔티티 UUID 로 제거 (기록이 없으면 무시) */
+    public void removeLog(UUID entityId) {
+        DamageLedger ledger = damageMap.remove(entityId);
+        if (ledger == null) return;
+        expiry.cancel(ledger);
+        recycle(ledger);
+    }
+
+    public boolean isTracked(UUID entityId) {
+        return damageMap.containsKey(entityId);
+    }
+
+    private void recycle(DamageLedger ledger) {
+        ledger.reset();
+        if (pool.size() < MAX_POOLED) pool.push(ledger);
     }
 
-    private void cleanupLogs() {
-        // 현재 월드에 존재하지 않는 엔티티(디스폰됨)의 로그 제거
-        damageMap.keySet().removeIf(uuid -> Bukkit.getEntity(uuid) == null || !Bukkit.getEntity(uuid).isValid());
+    /** 1초마다: 유휴 기한이 지난 항목만 처리 */
+    private void tick() {
+        clock++;
+        expiry.advance(clock, this::onIdle);
     }
-}
\ No newline at end of file
+
+    private void onIdle(DamageLedger ledger) {
+        long deadline = ledger.getLastHit() + idleSeconds;
+        if (deadline > clock) {
+            expiry.schedule(ledger, deadline); // 그 사이 타격됨 → 마지막 타격 기준으로 재예약
+            return;
+        }
+        damageMap.remove(ledger.getEntity());
+        recycle(ledger);
+        expired++;
+    }
+
+    public int getTrackedCount() { return damageMap.size(); }
+    public int getPooledCount() { return pool.size(); }
+    public long getExpiredCount() { return expired; }
+}
@@ -1,41 +1,74 @@
 package com.mahirung.rpgcore.managers;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.CustomKeys;
 import com.mahirung.rpgcore.data.PlayerData;
 import com.mahirung.rpgcore.gui.DamageSkinGUI;
 import com.mahirung.rpgcore.util.ChatUtil;
 import com.mahirung.rpgcore.util.ItemUtil;
 import dev.lone.itemsadder.api.CustomStack;
-import org.bukkit.Location;
+import dev.lone.itemsadder.api.FontImages.FontImageWrapper;
 import org.bukkit.Material;
-import org.bukkit.entity.ArmorStand;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.metadata.FixedMetadataValue;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 
+/**
+ * 데미지 스킨 매니저
+ * - 스킨 목록은 config.yml damage-skins.skins 에서 로드 (없으면 기본 스킨 1개)
+ * - 스킨마다 숫자/구분자/치명타 표시를 미리 만든 글리프 표로 보관 (로드 시 1회, ItemsAdder 폰트 이미지 또는 색상 텍스트)
+ * - 데미지 숫자는 재사용 StringBuilder 에 글리프를 이어 붙여서 만듦 → 표시 1회당 할당은 최종 문자열 1개
+ */
 public class DamageSkinManager {
 
     private final RPGCore plugin;
     private final PlayerDataManager playerDataManager;
     private final Map<String, DamageSkinData> skinCache = new HashMap<>();
-    
-    public static final String PLAYER_SKIN_NBT_KEY = "rpgcore_damage_skin";
+    private final DamageIndicatorRenderer renderer; // damage-skins.enable 이 꺼져 있으면 null
+
+    public static final String DEFAULT_SKIN_ID = "default";
+
+    private final StringBuilder renderBuffer = new StringBuilder(64); // 메인 스레드 전용
 
     public DamageSkinManager(RPGCore plugin) {
         this.plugin = plugin;
         this.playerDataManager = plugin.getPlayerDataManager();
         loadSkins();
+        if (plugin.getConfig().getBoolean("damage-skins.enable", true)) {
+            this.renderer = new DamageIndicatorRenderer(plugin, this);
+            renderer.start();
+        } else {
+            this.renderer = null;
+        }
     }
 
-    public void loadDamageSkins() { loadSkins(); }
+    public void loadDamageSkins() {
+        loadSkins();
+        if (renderer != null) renderer.loadConfig();
+    }
     private void loadSkins() {
         skinCache.clear();
-        skinCache.put("default", new DamageSkinData("default", "기본", null, null, "font_"));
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("damage-skins.skins");
+        if (section != null) {
+            for (String skinId : section.getKeys(false)) {
+                ConfigurationSection skin = section.getConfigurationSection(skinId);
+                if (skin == null) continue;
+                skinCache.put(skinId, new DamageSkinData(skinId,
+                        skin.getString("display-name", skinId),
+                        null,
+                        skin.getString("ticket"),
+                        skin.getString("font-prefix")));
+            }
+        }
+        if (!skinCache.containsKey(DEFAULT_SKIN_ID)) {
+            skinCache.put(DEFAULT_SKIN_ID, new DamageSkinData(DEFAULT_SKIN_ID, "기본", null, null, null));
+        }
+        long withGlyphs = skinCache.values().stream().filter(DamageSkinData::usesFontImages).count();
+        plugin.getLogger().info(skinCache.size() + "개의 데미지 스킨 로드 완료 (폰트 이미지 " + withGlyphs + "개).");
     }
 
     // [Fix] Command에서 사용하는 메소드 복구
@@ -43,10 +76,31 @@ public class DamageSkinManager {
         return Collections.unmodifiableMap(skinCache);
     }
 
+    /** 데미지 표시 (다음 틱에 렌더러가 같은 몹의 같은 틱 타격을 합쳐서 1개로 표시) */
     public void showDamage(LivingEntity victim, double damage, boolean critical, Player attacker) {
-        // 데미지 표시 로직 (ItemsAdder 사용)
+        if (renderer != null) renderer.enqueue(victim, damage, critical, attacker);
     }
 
+    /** 표시할 텍스트 (공격자가 선택한 스킨의 글리프로 정수 반올림 값 렌더링) */
+    String formatDamage(Player attacker, double damage, boolean critical) {
+        DamageSkinData skin = null;
+        PlayerData data = playerDataManager.getPlayerData(attacker.getUniqueId());
+        if (data != null) {
+            String skinId = data.getCustomData().getString(CustomKeys.DAMAGE_SKIN);
+            if (skinId != null) skin = skinCache.get(skinId);
+        }
+        if (skin == null) skin = skinCache.get(DEFAULT_SKIN_ID);
+        skin.render(Math.round(damage), critical, renderBuffer);
+        return renderBuffer.toString();
+    }
+
+    /** 플러그인 종료: 표시 엔티티 정리 */
+    public void shutdown() {
+        if (renderer != null) renderer.shutdown();
+    }
+
+    public DamageIndicatorRenderer getRenderer() { return renderer; }
+
     // [Fix] Listener에서 사용하는 메소드 복구
     public void handleGUIClick(InventoryClickEvent event) {
         if (!(event.getWhoClicked() instanceof Player player)) return;
@@ -58,24 +112,104 @@ public class DamageSkinManager {
         if (skinId != null && skinCache.containsKey(skinId)) {
             PlayerData data = playerDataManager.getPlayerData(player.getUniqueId());
             if (data != null) {
-                data.getCustomNBT().set(PLAYER_SKIN_NBT_KEY, skinId);
+                data.getCustomData().setString(CustomKeys.DAMAGE_SKIN, skinId);
+                data.markDirty(PlayerData.FIELD_CUSTOM);
                 player.sendMessage(ChatUtil.format("&a스킨 적용: " + skinId));
                 player.closeInventory();
             }
         }
     }
 
+    /**
+     * 스킨 1개 + 글리프 표
+     * - 폰트 이미지 ID: <font-prefix>n_0 ~ n_9, n_comma (일반) / c_0 ~ c_9, c_comma, c_mark (치명타)
+     * - 폰트 이미지가 없는 글자는 색상 텍스트로 대체 (ItemsAdder 데이터 로드 전이거나 font-prefix 미지정)
+     */
     public static class DamageSkinData {
+        private static final String[] TEXT_DIGITS = {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
+
         private final String id;
         private final String displayName;
         private final ItemStack guiIcon;
         private final String ticketId;
         private final String itemPrefix;
+        private final String normalFormat;
+        private final String criticalFormat;
+
+        // [0] 일반, [1] 치명타
+        private final String[][] digits = new String[2][10];
+        private final String[] separators = new String[2];
+        private final String[] prefixes = new String[2];
+        private final boolean fontImages;
+        private final String normalPreview;
+        private final String criticalPreview;
+
         public DamageSkinData(String id, String name, ItemStack icon, String ticket, String prefix) {
             this.id = id; this.displayName = name; this.guiIcon = icon; this.ticketId = ticket; this.itemPrefix = prefix;
+            this.normalFormat = prefix != null ? prefix + "n_" : null;
+            this.criticalFormat = prefix != null ? prefix + "c_" : null;
+
+            boolean anyFont = false;
+            for (int d = 0; d < 10; d++) {
+                digits[0][d] = glyph(normalFormat, String.valueOf(d), TEXT_DIGITS[d]);
+                digits[1][d] = glyph(criticalFormat, String.valueOf(d), TEXT_DIGITS[d]);
+                anyFont |= hasGlyph(normalFormat, String.valueOf(d));
+            }
+            separators[0] = glyph(normalFormat, "comma", ",");
+            separators[1] = glyph(criticalFormat, "comma", ",");
+            // 폰트 이미지는 흰색 기준으로 원래 색이 나오므로 색상 코드 없이, 텍스트 대체는 일반 흰색 / 치명타 빨강 굵게
+            prefixes[0] = anyFont ? "§f" : ChatUtil.format("&f");
+            prefixes[1] = anyFont ? "§f" + glyph(criticalFormat, "mark", "") : ChatUtil.format("&c&l✦ ");
+            this.fontImages = anyFont;
+
+            StringBuilder preview = new StringBuilder();
+            render(12345, false, preview);
+            this.normalPreview = preview.toString();
+            render(12345, true, preview);
+            this.criticalPreview = preview.toString();
+        }
+
+        private static String glyph(String format, String suffix, String fallback) {
+            if (format == null) return fallback;
+            FontImageWrapper image = new FontImageWrapper(format + suffix);
+            return image.exists() ? image.getString() : fallback;
         }
+
+        /** 폰트 이미지가 등록되어 있는지 (문자열 비교 대신 ItemsAdder 에 직접 확인) */
+        private static boolean hasGlyph(String format, String suffix) {
+            return format != null && new FontImageWrapper(format + suffix).exists();
+        }
+
+        /** 정수를 글리프로 렌더링 (buffer 를 비우고 채움, 세 자리마다 구분자) */
+        public void render(long value, boolean critical, StringBuilder buffer) {
+            int style = critical ? 1 : 0;
+            String[] table = digits[style];
+            buffer.setLength(0);
+            buffer.append(prefixes[style]);
+            if (value <= 0) {
+                buffer.append(table[0]);
+                return;
+            }
+            long divisor = 1;
+            int length = 1;
+            while (divisor <= value / 10) {
+                divisor *= 10;
+                length++;
+            }
+            for (int i = 0; i < length; i++) {
+                if (i > 0 && (length - i) % 3 == 0) buffer.append(separators[style]);
+                buffer.append(table[(int) (value / divisor % 10)]);
+                divisor /= 10;
+            }
+        }
+
         public String getId() { return id; }
-        public String getNormalFormat() { return itemPrefix + "n_"; }
-        public String getCriticalFormat() { return itemPrefix + "c_"; }
+        public String getDisplayName() { return displayName; }
+        public String getTicketId() { return ticketId; }
+        public boolean usesFontImages() { return fontImages; }
+        public String getNormalFormat() { return normalFormat; }
+        public String getCriticalFormat() { return criticalFormat; }
+        public String getNormalPreview() { return normalPreview; }
+        public String getCriticalPreview() { return criticalPreview; }
     }
 }
\ No newline at end of file
@@ -2,6 +2,15 @@ package com.mahirung.rpgcore.managers;
 
 import com.mahirung.rpgcore.RPGCore;
 import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataCodec;
+import com.mahirung.rpgcore.data.PlayerDataSnapshot;
+import com.mahirung.rpgcore.data.RowVersion;
+import com.mahirung.rpgcore.data.Storage;
+import com.mahirung.rpgcore.database.PlayerArchive;
+import com.mahirung.rpgcore.database.PlayerDataMigrations;
+import com.mahirung.rpgcore.database.PlayerDataTable;
+import com.mahirung.rpgcore.database.SchemaMigrator;
+import com.mahirung.rpgcore.util.PerfMetrics;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -9,18 +18,48 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class DatabaseManager {
 
     private final RPGCore plugin;
+    private final Logger logger;
     private HikariDataSource dataSource;
+    // true: 전체 상태를 state 컬럼 1개(바이너리)로 기록, false: 필드별 컬럼 (database.row-format)
+    private final boolean stateFormat;
 
     public DatabaseManager(RPGCore plugin) {
         this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.stateFormat = "state".equalsIgnoreCase(plugin.getConfig().getString("database.row-format", "columns"));
         connect();
-        createTables();
+        migrate();
+    }
+
+    /**
+     * 이미 만들어진 커넥션 풀 사용 (내장 DB 테스트용, 마이그레이션은 호출 측에서 실행)
+     * - plugin 이 없으므로 저장/버전 조회만 사용
+     */
+    DatabaseManager(HikariDataSource dataSource, boolean stateFormat, Logger logger) {
+        this.plugin = null;
+        this.logger = logger;
+        this.dataSource = dataSource;
+        this.stateFormat = stateFormat;
     }
 
     private void connect() {
@@ -47,100 +86,440 @@ public class DatabaseManager {
 
         try {
             dataSource = new HikariDataSource(config);
-            plugin.getLogger().info("Supabase(PostgreSQL)에 성공적으로 연결되었습니다.");
+            logger.info("Supabase(PostgreSQL)에 성공적으로 연결되었습니다.");
         } catch (Exception e) {
-            plugin.getLogger().severe("DB 연결 실패! config.yml 정보를 확인해주세요.");
+            logger.severe("DB 연결 실패! config.yml 정보를 확인해주세요.");
             e.printStackTrace();
         }
     }
 
-    private void createTables() {
+    /**
+     * 스키마 마이그레이션 (schema_version 기준으로 미적용 버전만 실행)
+     * - 실패 시 스키마가 코드와 맞지 않으므로 연결을 닫음 (저장은 로컬 디스크 대기열에 보관됨)
+     */
+    private void migrate() {
         if (dataSource == null) return;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "CREATE TABLE IF NOT EXISTS rpg_player_data (" +
-                             "uuid VARCHAR(36) PRIMARY KEY, " +
-                             "player_class VARCHAR(32), " +
-                             "level INT DEFAULT 1, " +
-                             "exp DOUBLE PRECISION DEFAULT 0, " +
-                             "base_attack DOUBLE PRECISION DEFAULT 0, " +
-                             "base_defense DOUBLE PRECISION DEFAULT 0, " +
-                             "base_mana DOUBLE PRECISION DEFAULT 100, " +
-                             "current_mana DOUBLE PRECISION DEFAULT 100, " +
-                             "last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                             ")"
-             )) {
-            ps.executeUpdate();
+        int batchSize = Math.max(1, plugin.getConfig().getInt("database.migration.backfill-batch-size", 500));
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, logger);
+        try {
+            int applied = migrator.migrate(PlayerDataMigrations.all(logger, batchSize));
+            logger.info("DB 스키마 버전: v" + migrator.getCurrentVersion() + (applied > 0 ? " (" + applied + "개 적용)" : ""));
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "테이블 생성 중 오류 발생", e);
+            logger.log(Level.SEVERE, "DB 스키마 마이그레이션 실패! DB 연결을 닫습니다. (저장 데이터는 로컬 디스크 대기열에 보관)", e);
+            close();
+            dataSource = null;
         }
     }
 
-    public void savePlayerData(PlayerData data) {
-        if (dataSource == null) return;
+    private static final int UUID_BYTES = 36;
+
+    // 변경 컬럼 조합(비트마스크) → 부분 UPDATE 문 (드라이버의 서버측 prepared statement 캐시가 SQL 문자열 기준이므로 재사용)
+    private final Map<Integer, String> updateSqlCache = new ConcurrentHashMap<>();
+
+    // --- 부분 저장 통계 ---
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private final AtomicLong columnsWritten = new AtomicLong();
+    private final AtomicLong columnsSaved = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong versionConflicts = new AtomicLong();
+
+    /**
+     * 여러 유저의 스냅샷을 커넥션 1개 + 트랜잭션 1개로 저장 (Write-Behind 큐 전용)
+     * - 변경 컬럼이 없는 행은 건너뜀
+     * - 버전을 아는 행: 변경 컬럼 조합별로 묶어서 부분 UPDATE ... WHERE version = (로드한 버전) 배치 실행
+     *   - 0행 → 행이 삭제되었으면 INSERT, 다른 서버가 먼저 기록했으면 충돌
+     * - 신규 유저(로드 시 행 없음): INSERT ... ON CONFLICT DO NOTHING, 그 사이 다른 서버가 만들었으면 충돌
+     * - 충돌한 행은 기록하지 않고, 커밋 후 현재 행 버전을 조회해서 conflicts 로 넘김 (처리 방법은 호출 측이 결정)
+     * - 버전을 모르는 행(비상 파일/디스크 대기열 복구, 가져오기): 조건 없이 UPSERT
+     * - state 포맷: 변경 컬럼과 관계없이 state 1컬럼 + 스칼라로 기록 (인코딩은 커넥션을 잡기 전에 끝냄)
+     * - 커밋 후 성공한 행의 버전을 갱신 (같은 유저의 기록은 writeLock 으로 순서 보장)
+     * - 실패 시 롤백 후 예외를 던져 호출 측에서 재시도하도록 함
+     * @return 기록된 행 수 (변경이 없어 건너뛴 행 포함, 충돌한 행 제외)
+     */
+    public int savePlayerDataBatch(Collection<PlayerDataSnapshot> batch, Storage.ConflictConsumer conflictConsumer) throws SQLException {
+        if (dataSource == null) throw new SQLException("DataSource가 초기화되지 않았습니다.");
+        if (batch.isEmpty()) return 0;
+
+        List<PlayerDataSnapshot> unchanged = new ArrayList<>();
+        List<PlayerDataSnapshot> unversioned = new ArrayList<>();
+        List<PlayerDataSnapshot> inserts = new ArrayList<>();
+        Map<Integer, List<PlayerDataSnapshot>> updates = new HashMap<>();
+        Map<PlayerDataSnapshot, Long> expected = new IdentityHashMap<>();
+        for (PlayerDataSnapshot snapshot : batch) {
+            int mask = snapshot.dirtyMask() & PlayerDataTable.COLUMN_MASK;
+            long version = snapshot.rowVersion() != null ? snapshot.rowVersion().get() : RowVersion.UNKNOWN;
+            expected.put(snapshot, version);
+            if (mask == 0) unchanged.add(snapshot);
+            else if (version == RowVersion.UNKNOWN) unversioned.add(snapshot);
+            else if (version == RowVersion.ABSENT) inserts.add(snapshot);
+            else updates.computeIfAbsent(stateFormat ? PlayerDataTable.COLUMN_MASK : mask, k -> new ArrayList<>()).add(snapshot);
+        }
+        if (unversioned.isEmpty() && inserts.isEmpty() && updates.isEmpty()) {
+            recordSkipped(unchanged);
+            return batch.size();
+        }
 
-        String sql = "INSERT INTO rpg_player_data " +
-                     "(uuid, player_class, level, exp, base_attack, base_defense, base_mana, current_mana) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
-                     "ON CONFLICT (uuid) DO UPDATE SET " +
-                     "player_class = EXCLUDED.player_class, " +
-                     "level = EXCLUDED.level, " +
-                     "exp = EXCLUDED.exp, " +
-                     "base_attack = EXCLUDED.base_attack, " +
-                     "base_defense = EXCLUDED.base_defense, " +
-                     "base_mana = EXCLUDED.base_mana, " +
-                     "current_mana = EXCLUDED.current_mana, " +
-                     "last_updated = CURRENT_TIMESTAMP";
+        Map<PlayerDataSnapshot, byte[]> states = new IdentityHashMap<>();
+        if (stateFormat) {
+            long encodeStart = System.nanoTime();
+            for (PlayerDataSnapshot snapshot : batch) {
+                if ((snapshot.dirtyMask() & PlayerDataTable.COLUMN_MASK) != 0) states.put(snapshot, PlayerDataCodec.encode(snapshot));
+            }
+            PerfMetrics.STATE_ENCODE.recordSince(encodeStart);
+        }
+
+        Set<PlayerDataSnapshot> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<PlayerDataSnapshot> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<PlayerDataSnapshot> conflicts = new ArrayList<>();
+
+        long connectStart = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            PerfMetrics.DB_CONNECTION.recordSince(connectStart);
+            long executeStart = System.nanoTime();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (Map.Entry<Integer, List<PlayerDataSnapshot>> group : updates.entrySet()) {
+                    int mask = group.getKey();
+                    List<PlayerDataSnapshot> rows = group.getValue();
+                    int[] counts;
+                    String sql = stateFormat ? PlayerDataTable.STATE_UPDATE_SQL : updateSqlCache.computeIfAbsent(mask, PlayerDataTable::buildUpdateSql);
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        for (PlayerDataSnapshot snapshot : rows) {
+                            if (stateFormat) PlayerDataTable.bindStateUpdate(ps, snapshot, states.get(snapshot), expected.get(snapshot));
+                            else PlayerDataTable.bindUpdate(ps, mask, snapshot, expected.get(snapshot));
+                            ps.addBatch();
+                        }
+                        counts = ps.executeBatch();
+                    }
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) inserts.add(rows.get(i)); // 행이 없거나 버전이 바뀜 → INSERT 로 구분
+                        else updated.add(rows.get(i));
+                    }
+                }
+
+                if (!inserts.isEmpty()) {
+                    int[] counts;
+                    try (PreparedStatement ps = conn.prepareStatement(stateFormat ? PlayerDataTable.STATE_INSERT_IF_ABSENT_SQL : PlayerDataTable.INSERT_IF_ABSENT_SQL)) {
+                        for (PlayerDataSnapshot snapshot : inserts) {
+                            bindFullRow(ps, snapshot, states);
+                            ps.addBatch();
+                        }
+                        counts = ps.executeBatch();
+                    }
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) conflicts.add(inserts.get(i)); // 다른 서버가 먼저 기록한 행
+                        else inserted.add(inserts.get(i));
+                    }
+                }
+
+                if (!unversioned.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(stateFormat ? PlayerDataTable.STATE_UPSERT_SQL : PlayerDataTable.UPSERT_SQL)) {
+                        for (PlayerDataSnapshot snapshot : unversioned) {
+                            bindFullRow(ps, snapshot, states);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                conn.commit();
+                PerfMetrics.DB_EXECUTE.recordSince(executeStart);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
 
+        // 커밋 이후에만 버전/통계 반영
+        recordSkipped(unchanged);
+        for (Map.Entry<Integer, List<PlayerDataSnapshot>> group : updates.entrySet()) {
+            for (PlayerDataSnapshot snapshot : group.getValue()) {
+                if (!updated.contains(snapshot)) continue;
+                snapshot.rowVersion().set(expected.get(snapshot) + 1);
+                recordWritten(snapshot, group.getKey(), states);
+            }
+        }
+        for (PlayerDataSnapshot snapshot : inserted) {
+            snapshot.rowVersion().set(1L);
+            recordWritten(snapshot, PlayerDataTable.COLUMN_MASK, states);
+        }
+        for (PlayerDataSnapshot snapshot : unversioned) recordWritten(snapshot, PlayerDataTable.COLUMN_MASK, states);
+        if (!conflicts.isEmpty()) {
+            versionConflicts.addAndGet(conflicts.size());
+            long[] current = loadVersions(conflicts, expected);
+            for (int i = 0; i < conflicts.size(); i++) {
+                PlayerDataSnapshot snapshot = conflicts.get(i);
+                logger.warning("[Version] 다른 서버가 먼저 저장한 행: " + snapshot.uuid()
+                        + " (로드 버전 " + expected.get(snapshot) + ", 현재 버전 " + current[i] + ")");
+                conflictConsumer.accept(snapshot, current[i]);
+            }
+        }
+        return batch.size() - conflicts.size();
+    }
+
+    /**
+     * 없는 유저만 INSERT (덮어쓰기 없는 가져오기용, 커넥션 1개 + 트랜잭션 1개)
+     * - INSERT ... ON CONFLICT DO NOTHING 배치 → 0행인 유저는 이미 있어서 건너뜀
+     * - 보관된 유저는 활성 행이 없어도 건너뜀 (보관 테이블은 묶음의 uuid 목록으로 한 번에 조회)
+     * - 행 버전 충돌로 보지 않음 (가져오기 데이터는 이 서버의 접속 유저와 무관)
+     * @return INSERT 된 행 수
+     */
+    public int insertAbsentBatch(List<PlayerDataSnapshot> batch) throws SQLException {
+        if (dataSource == null) throw new SQLException("DataSource가 초기화되지 않았습니다.");
+        if (batch.isEmpty()) return 0;
+
+        Map<PlayerDataSnapshot, byte[]> states = new IdentityHashMap<>();
+        if (stateFormat) {
+            for (PlayerDataSnapshot snapshot : batch) states.put(snapshot, PlayerDataCodec.encode(snapshot));
+        }
+
+        int inserted = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                Set<UUID> archived = PlayerArchive.archivedAmong(conn, batch);
+                try (PreparedStatement ps = conn.prepareStatement(stateFormat ? PlayerDataTable.STATE_INSERT_IF_ABSENT_SQL : PlayerDataTable.INSERT_IF_ABSENT_SQL)) {
+                    int rows = 0;
+                    for (PlayerDataSnapshot snapshot : batch) {
+                        if (archived.contains(snapshot.uuid())) continue;
+                        bindFullRow(ps, snapshot, states);
+                        ps.addBatch();
+                        rows++;
+                    }
+                    if (rows > 0) {
+                        for (int count : ps.executeBatch()) {
+                            if (count != 0) inserted++;
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * 충돌한 행들의 현재 버전 (행이 없으면 ABSENT)
+     * - 조회에 실패하면 로드 버전을 그대로 돌려줌 → 다시 기록하면 또 충돌해서 다음 기록 때 재조회
+     */
+    private long[] loadVersions(List<PlayerDataSnapshot> rows, Map<PlayerDataSnapshot, Long> expected) {
+        long[] versions = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) versions[i] = expected.get(rows.get(i));
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            
-            ps.setString(1, data.getUuid().toString());
-            ps.setString(2, data.getPlayerClass());
-            ps.setInt(3, data.getLevel());
-            ps.setDouble(4, data.getCurrentExp());
-            ps.setDouble(5, data.getBaseAttack());
-            ps.setDouble(6, data.getBaseDefense());
-            ps.setDouble(7, data.getBaseMaxMana());
-            ps.setDouble(8, data.getCurrentMana());
-
-            ps.executeUpdate();
+             PreparedStatement ps = conn.prepareStatement(PlayerDataTable.VERSION_SQL)) {
+            for (int i = 0; i < rows.size(); i++) {
+                ps.setString(1, rows.get(i).uuid().toString());
+                try (ResultSet rs = ps.executeQuery()) {
+                    versions[i] = rs.next() ? rs.getLong(1) : RowVersion.ABSENT;
+                }
+            }
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "데이터 저장 실패: " + data.getUuid(), e);
+            logger.log(Level.WARNING, "[Version] 충돌한 행의 현재 버전 조회 실패 (" + rows.size() + "명, 다음 기록 때 재시도)", e);
         }
+        return versions;
     }
 
-    public PlayerData loadPlayerData(UUID uuid) {
-        if (dataSource == null) return null;
+    /** 행 전체 기록 (INSERT / UPSERT) 바인딩 */
+    private void bindFullRow(PreparedStatement ps, PlayerDataSnapshot snapshot, Map<PlayerDataSnapshot, byte[]> states) throws SQLException {
+        if (stateFormat) PlayerDataTable.bindStateInsert(ps, snapshot, states.get(snapshot));
+        else PlayerDataTable.bindUpsert(ps, snapshot);
+    }
+
+    private void recordWritten(PlayerDataSnapshot snapshot, int mask, Map<PlayerDataSnapshot, byte[]> states) {
+        if (stateFormat) { // state + 스칼라 컬럼만 기록 (부분 저장 없음)
+            columnsWritten.addAndGet(PlayerDataTable.STATE_COLUMN_COUNT);
+            bytesWritten.addAndGet(UUID_BYTES + states.get(snapshot).length);
+            return;
+        }
+        int written = 0, saved = 0;
+        long writtenBytes = UUID_BYTES, savedBytes = 0;
+        for (int column = 0; column < PlayerDataTable.COLUMN_COUNT; column++) {
+            int size = PlayerDataTable.columnBytes(column, snapshot);
+            if (PlayerDataTable.isDirty(column, mask)) {
+                written++;
+                writtenBytes += size;
+            } else {
+                saved++;
+                savedBytes += size;
+            }
+        }
+        columnsWritten.addAndGet(written);
+        columnsSaved.addAndGet(saved);
+        bytesWritten.addAndGet(writtenBytes);
+        bytesSaved.addAndGet(savedBytes);
+    }
+
+    private void recordSkipped(List<PlayerDataSnapshot> skipped) {
+        for (PlayerDataSnapshot snapshot : skipped) {
+            long size = UUID_BYTES;
+            for (int column = 0; column < PlayerDataTable.COLUMN_COUNT; column++) size += PlayerDataTable.columnBytes(column, snapshot);
+            rowsSkipped.incrementAndGet();
+            columnsSaved.addAndGet(PlayerDataTable.COLUMN_COUNT);
+            bytesSaved.addAndGet(size);
+        }
+    }
+
+    public PlayerData loadPlayerData(UUID uuid) throws SQLException {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
+
+        long connectStart = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            PerfMetrics.DB_CONNECTION.recordSince(connectStart);
+            long queryStart = System.nanoTime();
+            PlayerData data = selectPlayerData(conn, uuid);
+            PerfMetrics.DB_QUERY.recordSince(queryStart);
+            if (data != null) return data;
+
+            // 비활성으로 보관된 유저: 복원 후 사용 (그 사이 다른 서버가 먼저 복원했으면 다시 조회)
+            PlayerDataSnapshot promoted = PlayerArchive.promote(conn, uuid, stateFormat);
+            if (promoted != null) return new PlayerData(plugin, promoted);
+            return selectPlayerData(conn, uuid); // null = 신규 유저 (오류와 구분하여 호출 측에서 생성)
+        }
+    }
+
+    private PlayerData selectPlayerData(Connection conn, UUID uuid) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(PlayerDataTable.SELECT_SQL)) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                PlayerData data = new PlayerData(plugin, PlayerDataTable.readRow(rs)); // DB와 동일한 상태이므로 저장 불필요 (dirty 아님)
+                // 컬럼 포맷으로 되돌린 경우: state 로 저장된 행은 컬럼 값이 오래되었으므로 첫 저장에서 전체 기록
+                if (!stateFormat && rs.getBytes("state") != null) data.markDirty();
+                return data;
+            }
+        }
+    }
+
+    /**
+     * 비활성 유저를 rpg_player_archive 로 이동 (uuid 키셋 순서로 batchSize 명씩, 묶음마다 커넥션/트랜잭션 1개)
+     * - 묶음 사이에는 커넥션을 반납하므로 게임 저장과 풀을 오래 다투지 않음
+     */
+    public int archiveInactive(long cutoffMillis, int batchSize, Predicate<UUID> skip, BooleanSupplier proceed) throws SQLException {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
+
+        Timestamp cutoff = new Timestamp(cutoffMillis);
+        String afterUuid = "";
+        int archived = 0;
+        while (true) {
+            long start = System.nanoTime();
+            PlayerArchive.Batch batch;
+            try (Connection conn = dataSource.getConnection()) {
+                batch = PlayerArchive.archiveBatch(conn, PlayerArchive.INACTIVE_SQL, cutoff, afterUuid, batchSize, skip);
+            }
+            PerfMetrics.ARCHIVE_BATCH.recordSince(start);
+            archived += batch.archived();
+            if (batch.scanned() < batchSize || !proceed.getAsBoolean()) return archived;
+            afterUuid = batch.lastUuid();
+        }
+    }
+
+    /**
+     * 현재 행 버전 조회 (재접속 시 warm 캐시가 다른 서버의 저장보다 오래되었는지 확인)
+     * @return 행 버전, 행이 없으면 RowVersion.ABSENT
+     */
+    public long loadVersion(UUID uuid) throws SQLException {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
 
-        PlayerData data = null;
         try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(
-                     "SELECT * FROM rpg_player_data WHERE uuid = ?"
-             )) {
+             PreparedStatement ps = conn.prepareStatement(PlayerDataTable.VERSION_SQL)) {
             ps.setString(1, uuid.toString());
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    data = new PlayerData(plugin, uuid);
-                    data.setPlayerClass(rs.getString("player_class"));
-                    data.setLevel(rs.getInt("level"));
-                    data.setCurrentExp(rs.getDouble("exp"));
-                    data.setBaseAttack(rs.getDouble("base_attack"));
-                    data.setBaseDefense(rs.getDouble("base_defense"));
-                    data.setBaseMaxMana(rs.getDouble("base_mana"));
-                    data.setNewPlayer(false);
-                } else {
-                    data = new PlayerData(plugin, uuid);
+                return rs.next() ? rs.getLong(1) : RowVersion.ABSENT;
+            }
+        }
+    }
+
+    /**
+     * 전체 유저의 레벨/경험치 순회 (레벨 순위표 초기화용)
+     * - 트랜잭션 안에서 fetchSize 를 지정해야 PostgreSQL 드라이버가 결과를 한 번에 메모리로 읽지 않고 커서로 나눠 받음
+     */
+    public void forEachLevel(Storage.LevelConsumer consumer) throws SQLException {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
+
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(PlayerDataTable.LEVELS_SQL)) {
+                ps.setFetchSize(1000);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(UUID.fromString(rs.getString(1)), rs.getInt(2), rs.getDouble(3));
+                    }
                 }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "데이터 로드 실패: " + uuid, e);
         }
-        return data;
+    }
+
+    /**
+     * uuid 순서로 전체 행 스트리밍 (내보내기용)
+     * - forEachLevel 과 같이 트랜잭션 + fetchSize 로 커서를 열어 한 번에 fetchSize 행만 메모리에 둠
+     * @param afterUuid 이 uuid 이후부터 (처음이면 "")
+     */
+    public void forEachSnapshot(String afterUuid, Storage.SnapshotConsumer consumer) throws Exception {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
+
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(PlayerDataTable.STREAM_SQL)) {
+                ps.setFetchSize(500);
+                ps.setString(1, afterUuid);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) consumer.accept(PlayerDataTable.readRow(rs));
+                }
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback(); // 콜백 예외로 중단된 경우 커서 트랜잭션 정리 (읽기 전용)
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * uuid 순서로 한 페이지 조회 (저장소 가져오기용)
+     * @param afterUuid 이전 페이지의 마지막 uuid (처음이면 "")
+     */
+    public List<PlayerDataSnapshot> loadPage(String afterUuid, int limit) throws SQLException {
+        if (dataSource == null) throw new SQLException("데이터베이스가 연결되지 않았습니다.");
+
+        List<PlayerDataSnapshot> page = new ArrayList<>(limit);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(PlayerDataTable.PAGE_SQL)) {
+            ps.setString(1, afterUuid);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) page.add(PlayerDataTable.readRow(rs));
+            }
+        }
+        return page;
     }
 
     public HikariDataSource getDataSource() { return dataSource; }
+
+    // --- 부분 저장 통계 Getter ---
+    public long getRowsSkipped() { return rowsSkipped.get(); }
+    public long getColumnsWritten() { return columnsWritten.get(); }
+    public long getColumnsSaved() { return columnsSaved.get(); }
+    public long getBytesWritten() { return bytesWritten.get(); }
+    public long getBytesSaved() { return bytesSaved.get(); }
+    public int getCachedStatementCount() { return updateSqlCache.size(); }
+    public long getVersionConflicts() { return versionConflicts.get(); }
+    public boolean isStateFormat() { return stateFormat; }
     
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
@@ -24,6 +24,11 @@ public class EnhanceManager {
     private final ConfigManager configManager;
 
     private final Map<Integer, EnhanceData> enhanceCache = new HashMap<>();
+    // 강화 1단계당 추가 스탯 (stat-bonus-per-level.weapon / armor)
+    private Map<String, Double> weaponBonusPerLevel = Map.of();
+    private Map<String, Double> armorBonusPerLevel = Map.of();
+
+    public static final String ENHANCE_LEVEL_NBT_KEY = "enhance_level";
 
     public EnhanceManager(RPGCore plugin) {
         this.plugin = plugin;
@@ -35,6 +40,8 @@ public class EnhanceManager {
     public void loadEnhanceConfig() {
         enhanceCache.clear();
         FileConfiguration config = configManager.getEnhancingConfig();
+        weaponBonusPerLevel = loadStatSection(config.getConfigurationSection("stat-bonus-per-level.weapon"));
+        armorBonusPerLevel = loadStatSection(config.getConfigurationSection("stat-bonus-per-level.armor"));
         ConfigurationSection section = config.getConfigurationSection("levels");
         if (section == null) {
             plugin.getLogger().warning("enhancing.yml에 'levels' 섹션이 없습니다.");
@@ -56,6 +63,20 @@ public class EnhanceManager {
         plugin.getLogger().info(enhanceCache.size() + "개의 강화 레벨 데이터를 로드했습니다.");
     }
 
+    private static Map<String, Double> loadStatSection(ConfigurationSection section) {
+        if (section == null) return Map.of();
+        Map<String, Double> stats = new HashMap<>();
+        for (String statKey : section.getKeys(false)) {
+            stats.put(statKey, section.getDouble(statKey));
+        }
+        return stats;
+    }
+
+    /** 강화 1단계당 추가 스탯 (무기: 주 손 / 방어구: 착용 슬롯) */
+    public Map<String, Double> getStatBonusPerLevel(boolean armor) {
+        return armor ? armorBonusPerLevel : weaponBonusPerLevel;
+    }
+
     public void openEnhanceGUI(Player player) {
         new EnhanceGUI(plugin).open(player);
     }
@@ -109,7 +130,7 @@ public class EnhanceManager {
     public ItemStack attemptEnhance(Player player, ItemStack item) {
         if (item == null) return null;
 
-        int currentLevel = ItemUtil.getNBTInt(item, "enhance_level");
+        int currentLevel = ItemUtil.getNBTInt(item, ENHANCE_LEVEL_NBT_KEY);
         EnhanceData data = enhanceCache.get(currentLevel); // 현재 레벨의 '다음 단계' 정보를 가져와야 하는지, 현재 레벨 정보를 가져와야 하는지 로직 점검 필요.
         // 보통 0강 -> 1강 갈때는 '0'번 키의 데이터를 씀.
         // enhanceCache.get(currentLevel) 이 맞습니다. (0강일 때 levels.0 설정 사용)
@@ -130,7 +151,7 @@ public class EnhanceManager {
         if (roll <= data.getSuccessRate()) {
             // 성공
             int nextLevel = currentLevel + 1;
-            item = ItemUtil.setNBTInt(item, "enhance_level", nextLevel);
+            item = ItemUtil.setNBTInt(item, ENHANCE_LEVEL_NBT_KEY, nextLevel);
             // 이름 업데이트 (선택 사항)
             // ItemMeta meta = item.getItemMeta();
             // meta.setDisplayName("§b+" + nextLevel + " " + ...);
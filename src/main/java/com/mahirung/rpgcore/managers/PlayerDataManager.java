@@ -1,14 +1,40 @@
 package com.mahirung.rpgcore.managers;
 
 import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.EmergencySpill;
+import com.mahirung.rpgcore.data.FileStorage;
+import com.mahirung.rpgcore.data.InactiveArchiver;
+import com.mahirung.rpgcore.data.LevelLeaderboard;
 import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataSnapshot;
+import com.mahirung.rpgcore.data.PlayerJournal;
+import com.mahirung.rpgcore.data.PostgresStorage;
+import com.mahirung.rpgcore.data.RowVersion;
+import com.mahirung.rpgcore.data.StaggeredAutosave;
+import com.mahirung.rpgcore.data.Storage;
+import com.mahirung.rpgcore.data.StorageFactory;
+import com.mahirung.rpgcore.data.WarmCache;
+import com.mahirung.rpgcore.data.WriteBehindQueue;
+import com.mahirung.rpgcore.database.PlayerSessions;
+import com.mahirung.rpgcore.util.PerfMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.io.File;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -17,15 +43,308 @@ public class PlayerDataManager {
     private final RPGCore plugin;
     // 동시성 문제 해결을 위해 ConcurrentHashMap 사용
     private final Map<UUID, PlayerData> playerDataMap = new ConcurrentHashMap<>();
-    private final DatabaseManager dbManager;
+    // 저장소 I/O 는 Bukkit 비동기 스케줄러 대신 전용 실행기에서 실행 (결과는 runTask 로 메인 스레드 복귀)
+    private final ExecutorService ioExecutor;
+    private final Storage storage;
+    private final WriteBehindQueue writeBehindQueue;
+    private final EmergencySpill emergencySpill;
+
+    // 분산 자동 저장 (UUID 해시 슬롯별로 나눠서 저장), 비활성화 시 null → 주기마다 전체 저장
+    private final StaggeredAutosave autosave;
+
+    // 서버 간 세션 소유권 (PostgreSQL + database.session.enabled 일 때만), 비활성화 시 null
+    private final PlayerSessions sessions;
+
+    // 접속 전(AsyncPlayerPreLoginEvent)에 미리 읽어둔 데이터 → 입장 시 playerDataMap 으로 승격
+    private final Map<UUID, Prefetched> prefetched = new ConcurrentHashMap<>();
+    private final boolean prefetchEnabled;
+    private final long prefetchTtlNanos;
+
+    // 최근 퇴장한 유저 (저장 확인 후 보관, 재접속 시 조회 없이 복귀), 비활성화 시 null
+    private final WarmCache warmCache;
+
+    // 레벨 순위표 (시작 시 저장소 전체로 채우고 이후 경험치 변경 시 갱신), 비활성화 시 null
+    private final LevelLeaderboard leaderboard;
+
+    // 비활성 유저 보관 (archive.enabled 일 때만), 비활성화 시 null
+    private final InactiveArchiver archiver;
+
+    // --- 접속 → 데이터 사용 가능까지 걸린 시간 통계 ---
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchMisses = new AtomicLong();
+    private final AtomicLong prefetchEvicted = new AtomicLong();
+    private final AtomicLong availabilityCount = new AtomicLong();
+    private final AtomicLong availabilityTotalMillis = new AtomicLong();
+    private final AtomicLong availabilityMaxMillis = new AtomicLong();
+    private volatile long lastAvailabilityMillis;
 
     public PlayerDataManager(RPGCore plugin) {
         this.plugin = plugin;
-        this.dbManager = plugin.getDatabaseManager();
+        this.ioExecutor = StorageFactory.createExecutor(plugin);
+        this.storage = StorageFactory.create(plugin, ioExecutor);
+        plugin.getLogger().info("저장소: " + storage.getName());
+        this.writeBehindQueue = new WriteBehindQueue(plugin, storage, this::resolveConflict);
+        this.emergencySpill = new EmergencySpill(plugin);
+        replayEmergencySpill();
+
+        this.sessions = createSessions();
+        if (sessions != null) {
+            long heartbeat = Math.max(20L, sessions.getLeaseMillis() / 3 / 50);
+            Bukkit.getScheduler().runTaskTimer(plugin,
+                    () -> ioExecutor.execute(() -> sessions.heartbeat(writeBehindQueue::isQueued)), heartbeat, heartbeat);
+        }
+
+        // 원격 저장소: 장애 중 디스크 대기열에 쌓인 데이터를 복구 후 순서대로 기록
+        if (writeBehindQueue.getSpillQueue() != null) {
+            long drainInterval = Math.max(1, plugin.getConfig().getLong("save.circuit-breaker.drain-interval-seconds", 10)) * 20L;
+            Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+                if (writeBehindQueue.getSpillQueue().isEmpty() && writeBehindQueue.getSpillQueue().getFileBytes() == 0) return;
+                ioExecutor.execute(() -> {
+                    int drained = writeBehindQueue.drainSpill();
+                    if (drained > 0) {
+                        plugin.getLogger().info("[Spill] DB 복구: 대기열 " + drained + "명 기록 (남은 " + writeBehindQueue.getSpillQueue().size() + "명)");
+                    }
+                });
+            }, drainInterval, drainInterval);
+        }
+
+        // [상업용 필수] 자동 저장 태스크 (메인 스레드에서 스냅샷 캡처 → 비동기로 배치 저장)
+        if (plugin.getConfig().getBoolean("save.stagger.enabled", true)) {
+            this.autosave = new StaggeredAutosave(plugin, writeBehindQueue, storage, ioExecutor, playerDataMap::get);
+            autosave.start();
+        } else {
+            this.autosave = null;
+            long interval = Math.max(1, plugin.getConfig().getLong("save.flush-interval-seconds", 60)) * 20L;
+            Bukkit.getScheduler().runTaskTimer(plugin, this::saveAllPlayerData, interval, interval);
+        }
+
+        this.prefetchEnabled = plugin.getConfig().getBoolean("save.prefetch.enabled", true);
+        long ttlSeconds = Math.max(5, plugin.getConfig().getLong("save.prefetch.ttl-seconds", 30));
+        this.prefetchTtlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        // 취소된 접속 등으로 승격되지 않은 선로딩 데이터 정리
+        Bukkit.getScheduler().runTaskTimer(plugin, this::evictExpiredPrefetches, ttlSeconds * 20L, ttlSeconds * 20L);
+
+        if (plugin.getConfig().getBoolean("save.warm-cache.enabled", true)) {
+            long warmTtlSeconds = Math.max(10, plugin.getConfig().getLong("save.warm-cache.ttl-seconds", 300));
+            long maxBytes = Math.max(64, plugin.getConfig().getLong("save.warm-cache.max-kb", 8192)) * 1024L;
+            this.warmCache = new WarmCache(TimeUnit.SECONDS.toNanos(warmTtlSeconds), maxBytes);
+            Bukkit.getScheduler().runTaskTimer(plugin, warmCache::evictExpired, 20L * 30, 20L * 30);
+        } else {
+            this.warmCache = null;
+        }
+
+        if (plugin.getConfig().getBoolean("leaderboard.enabled", true)) {
+            this.leaderboard = new LevelLeaderboard();
+            seedLeaderboard();
+        } else {
+            this.leaderboard = null;
+        }
+
+        if (plugin.getConfig().getBoolean("archive.enabled", false)) {
+            this.archiver = new InactiveArchiver(plugin, storage, this::getResidentUuids,
+                    uuid -> playerDataMap.containsKey(uuid) || prefetched.containsKey(uuid));
+            archiver.start();
+        } else {
+            this.archiver = null;
+        }
+    }
+
+    /**
+     * 행 버전 충돌 처리 (저장 스레드): 이 서버가 로드한 뒤 다른 서버가 같은 행을 먼저 기록함
+     * - 이 서버에 접속 중이고 같은 데이터를 쓰고 있으면: 지금 메모리 데이터가 최신 → 행 버전을 현재 값으로 맞추고 다시 기록
+     *   (맞추지 않으면 이후 저장이 모두 충돌해서 접속 내내 진행 상황이 기록되지 않음)
+     * - 이미 떠난 유저: 다른 서버의 기록이 최신 → 스냅샷을 버리고 warm 캐시 항목도 폐기 (재접속 시 저장소에서 로드)
+     */
+    private boolean resolveConflict(PlayerDataSnapshot snapshot, long currentVersion) {
+        UUID uuid = snapshot.uuid();
+        PlayerData data = playerDataMap.get(uuid);
+        if (data != null && data.getRowVersion() == snapshot.rowVersion() && Bukkit.getPlayer(uuid) != null) {
+            snapshot.rowVersion().set(currentVersion);
+            return true;
+        }
+        if (warmCache != null) warmCache.invalidate(uuid);
+        return false;
+    }
+
+    /** 세션 소유권 관리 생성 (여러 서버가 같은 DB 를 쓸 때만 사용) */
+    private PlayerSessions createSessions() {
+        if (!(storage instanceof PostgresStorage postgres) || !plugin.getConfig().getBoolean("database.session.enabled", false)) return null;
+        if (postgres.getDatabaseManager().getDataSource() == null) {
+            plugin.getLogger().warning("[Session] DB 연결이 없어 세션 소유권을 사용하지 않습니다.");
+            return null;
+        }
+
+        String serverId = plugin.getConfig().getString("database.session.server-id", "");
+        if (serverId == null || serverId.isBlank()) {
+            try {
+                serverId = InetAddress.getLocalHost().getHostName() + ":" + Bukkit.getPort();
+            } catch (UnknownHostException e) {
+                serverId = "server:" + Bukkit.getPort();
+            }
+        }
+        long leaseMillis = Math.max(5, plugin.getConfig().getLong("database.session.lease-seconds", 30)) * 1000L;
+        long waitMillis = Math.max(0, plugin.getConfig().getLong("database.session.wait-millis", 3000));
+        long retryMillis = Math.max(10, plugin.getConfig().getLong("database.session.retry-millis", 100));
+        plugin.getLogger().info("[Session] 세션 소유권 사용: " + serverId + " (lease " + (leaseMillis / 1000) + "초)");
+        return new PlayerSessions(postgres.getDatabaseManager().getDataSource(), serverId, leaseMillis, waitMillis, retryMillis,
+                ioExecutor, plugin.getLogger());
+    }
+
+    /** 저장소의 전체 유저로 순위표 채우기 (I/O 스레드, 그 사이 접속/경험치 변경으로 들어온 값이 우선) */
+    private void seedLeaderboard() {
+        long start = System.currentTimeMillis();
+        CompletableFuture.runAsync(() -> {
+            try {
+                storage.forEachLevel(leaderboard::seed);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ioExecutor).whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "[Leaderboard] 순위표 초기화 실패 (접속한 유저만 집계됩니다)", error.getCause() != null ? error.getCause() : error);
+            } else {
+                plugin.getLogger().info("[Leaderboard] 순위표 초기화: " + leaderboard.size() + "명 (" + (System.currentTimeMillis() - start) + "ms)");
+            }
+        });
+    }
+
+    /** 로드된 데이터를 메모리에 올리고 순위표에 최신 값/이름 반영 (메인 스레드) */
+    private void activate(UUID uuid, PlayerData data) {
+        playerDataMap.put(uuid, data);
+        if (autosave != null) autosave.register(uuid);
+        if (leaderboard != null) {
+            Player player = Bukkit.getPlayer(uuid);
+            leaderboard.update(uuid, player != null ? player.getName() : null, data.getLevel(), data.getCurrentExp());
+        }
+    }
+
+    /**
+     * 지난 종료 때 기록하지 못한 스냅샷을 대기열로 되돌리고 바로 다시 기록
+     * - 기록할 때의 행 버전으로 CAS 기록 → 그 사이 다른 서버가 저장했으면 충돌로 버림 (최신 행을 되돌리지 않음)
+     * - 첫 접속 전에 기록을 끝냄 (대기열에서 오래된 데이터를 로드한 뒤 충돌이 나면 접속 중 유저로 보고 다시 기록되므로)
+     *   → 종료 저장과 같은 제한 시간, 넘으면 남은 스냅샷은 대기열에 두고 자동 저장에서 재시도
+     * - 모두 기록(또는 충돌로 처리)된 뒤에만 비상 파일 삭제
+     */
+    private void replayEmergencySpill() {
+        if (!emergencySpill.exists()) return;
+
+        List<PlayerDataSnapshot> spilled = emergencySpill.load();
+        // 비상 파일의 데이터는 저장소에 있는 값과 어느 컬럼이 다른지 알 수 없으므로 전체 기록
+        spilled.forEach(snapshot -> writeBehindQueue.enqueue(snapshot.withDirtyMask(PlayerData.ALL_FIELDS)));
+        plugin.getLogger().warning("[Spill] 지난 종료 때 저장하지 못한 데이터 " + spilled.size() + "명을 다시 기록합니다.");
+
+        long deadlineMillis = Math.max(1, plugin.getConfig().getLong("save.shutdown.deadline-seconds", 20)) * 1000L;
+        WriteBehindQueue.FlushResult result = writeBehindQueue.flush(1, deadlineMillis);
+        if (result.getFailed() == 0) {
+            emergencySpill.delete();
+            plugin.getLogger().info("[Spill] 비상 저장 데이터 기록 완료 (" + result.getWritten() + "명, 버전 충돌로 버림 "
+                    + result.getConflicts() + "명, 디스크 대기열 " + result.getSpilled() + "명)");
+        } else {
+            plugin.getLogger().severe("[Spill] 비상 저장 데이터 " + result.getFailed() + "명 기록 실패 (파일 유지, 자동 저장에서 재시도)");
+        }
+    }
+
+    /**
+     * 접속 전 선로딩 (AsyncPlayerPreLoginEvent 스레드에서 호출, 블로킹)
+     * - 로그인 처리 스레드에서 미리 읽어두면 입장 시 추가 조회 없이 바로 사용 가능
+     */
+    public void prefetch(UUID uuid) {
+        if (!prefetchEnabled || playerDataMap.containsKey(uuid) || prefetched.containsKey(uuid)) return;
+        if (warmCache != null && warmCache.contains(uuid)) return; // 입장 시 warm 캐시에서 복귀
+        if (sessions != null && !sessions.tryClaim(uuid)) return; // 이전 서버가 아직 저장 중 → 입장 시 기다렸다가 로드
+
+        long loginNanos = System.nanoTime();
+        PlayerDataSnapshot pending = writeBehindQueue.takePending(uuid);
+        PlayerData data;
+        if (pending != null) {
+            data = new PlayerData(plugin, pending);
+            data.markDirty();
+        } else {
+            data = readPlayerData(uuid);
+            if (data == null) return; // 조회 실패 → 입장 시 다시 시도
+        }
+        prefetched.put(uuid, new Prefetched(data, loginNanos));
+    }
+
+    /** 로그인이 거부된 경우 선로딩 데이터 폐기 (PlayerLoginEvent 에서 호출) */
+    public void discardPrefetch(UUID uuid) {
+        Prefetched staged = prefetched.remove(uuid);
+        if (staged != null) release(staged);
+        if (sessions != null) releaseSession(uuid, true); // 입장하지 않았으므로 소유권 반환
+    }
+
+    /** TTL이 지난 선로딩 데이터 정리 */
+    private void evictExpiredPrefetches() {
+        long now = System.nanoTime();
+        for (Iterator<Prefetched> it = prefetched.values().iterator(); it.hasNext(); ) {
+            Prefetched staged = it.next();
+            if (now - staged.loginNanos() > prefetchTtlNanos) {
+                it.remove();
+                release(staged);
+                UUID uuid = staged.data().getUuid();
+                if (sessions != null && Bukkit.getPlayer(uuid) == null) releaseSession(uuid, true);
+            }
+        }
+    }
+
+    /** 승격되지 않은 선로딩 데이터 반환: 저장 대기열에서 꺼내온 변경분은 다시 돌려놓음 */
+    private void release(Prefetched staged) {
+        prefetchEvicted.incrementAndGet();
+        if (staged.data().isDirty()) {
+            writeBehindQueue.enqueue(staged.data().snapshot());
+        }
+    }
+
+    /** 세션 소유권 반환 (저장이 아직 대기 중이면 기록될 때까지 유지) */
+    private void releaseSession(UUID uuid, boolean saved) {
+        if (saved && !writeBehindQueue.isQueued(uuid)) sessions.release(uuid);
+        else sessions.linger(uuid);
+    }
 
-        // [상업용 필수] 자동 저장 태스크 (10분마다 실행)
-        long interval = 10 * 60 * 20L; 
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::saveAllPlayerData, interval, interval);
+    /**
+     * 세션 소유권을 얻은 뒤 다시 로드 (이전 서버의 퇴장 저장 → 반환을 잠시 기다림)
+     * - 기다리는 동안 스레드를 점유하지 않음 (PlayerSessions.claim)
+     * - 시간 안에 얻지 못하면 로드하지 않음 (다른 서버의 저장 전 데이터로 덮어쓰지 않도록)
+     */
+    private void claimThenLoad(UUID uuid, Consumer<PlayerData> callback) {
+        sessions.claim(uuid).thenApply(claimed -> {
+            if (claimed) validateWarm(uuid);
+            return claimed;
+        }).whenComplete((claimed, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (Boolean.TRUE.equals(claimed)) {
+                loadPlayerData(uuid, callback);
+                return;
+            }
+            if (error != null) plugin.getLogger().log(Level.WARNING, "[Session] 소유권 확인 실패: " + uuid, error);
+            else plugin.getLogger().warning("[Session] 다른 서버가 아직 데이터를 사용 중이라 로드하지 않음: " + uuid);
+            if (callback != null) callback.accept(null);
+        }));
+    }
+
+    /** 다른 서버에서 플레이한 사이 저장된 데이터가 있으면 warm 캐시 항목 폐기 (I/O 스레드) */
+    private void validateWarm(UUID uuid) {
+        PlayerData warm = warmCache != null ? warmCache.peek(uuid) : null;
+        if (warm == null) return;
+        try {
+            long current = ((PostgresStorage) storage).getDatabaseManager().loadVersion(uuid);
+            if (current != warm.getRowVersion().get()) warmCache.invalidate(uuid);
+        } catch (SQLException e) {
+            warmCache.invalidate(uuid); // 확인할 수 없으면 저장소에서 다시 로드
+        }
+    }
+
+    /**
+     * 접속 시점부터 데이터가 playerDataMap 에 올라가기까지 걸린 시간 기록
+     * - warm 캐시 / 저장 대기열에서 바로 복귀한 경우는 기록하지 않음 (시작 시각이 없어 0 에 가까운 값이 분포를 왜곡, warm 캐시 적중은 WarmCache 통계로 확인)
+     */
+    private void recordAvailability(long loginNanos) {
+        long elapsed = System.nanoTime() - loginNanos;
+        PerfMetrics.JOIN_TO_LOADED.record(elapsed);
+        long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        lastAvailabilityMillis = millis;
+        availabilityCount.incrementAndGet();
+        availabilityTotalMillis.addAndGet(millis);
+        availabilityMaxMillis.accumulateAndGet(millis, Math::max);
     }
 
     /**
@@ -39,36 +358,95 @@ public class PlayerDataManager {
             return;
         }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            PlayerData data = null;
-            try {
-                // 1. DB 사용 모드
-                if (plugin.getConfig().getBoolean("database.enabled") && dbManager != null) {
-                    data = dbManager.loadPlayerData(uuid);
-                } 
-                // 2. 파일 사용 모드 (백업)
-                else {
-                    File playerFile = new File(plugin.getDataFolder() + "/playerdata", uuid.toString() + ".yml");
-                    if (playerFile.exists()) {
-                        data = new PlayerData(plugin, uuid, playerFile);
-                    } else {
-                        data = new PlayerData(plugin, uuid); // 신규 유저
-                    }
-                }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "데이터 로드 중 치명적 오류: " + uuid, e);
-                data = new PlayerData(plugin, uuid); // 오류 시 빈 데이터로 방어
+        // 다중 서버: 이전 서버가 소유권을 반환할 때까지 기다린 뒤 로드
+        if (sessions != null && !sessions.isOwned(uuid)) {
+            claimThenLoad(uuid, callback);
+            return;
+        }
+
+        // 최근 퇴장한 유저: 저장이 확인된 메모리 데이터를 그대로 복귀
+        PlayerData warm = warmCache != null ? warmCache.take(uuid) : null;
+        if (warm != null) {
+            Prefetched stale = prefetched.remove(uuid);
+            if (stale != null) release(stale);
+            activate(uuid, warm);
+            if (callback != null) callback.accept(warm);
+            return;
+        }
+
+        // 접속 전에 선로딩된 데이터가 있으면 추가 조회 없이 승격
+        Prefetched staged = prefetched.remove(uuid);
+        if (staged != null) {
+            if (System.nanoTime() - staged.loginNanos() <= prefetchTtlNanos) {
+                prefetchHits.incrementAndGet();
+                activate(uuid, staged.data());
+                recordAvailability(staged.loginNanos());
+                if (callback != null) callback.accept(staged.data());
+                return;
             }
+            release(staged); // 오래된 선로딩 데이터는 버리고 새로 조회
+        }
+        prefetchMisses.incrementAndGet();
+        long requestNanos = System.nanoTime();
 
-            // 메인 스레드로 복귀하여 맵에 저장 및 콜백 실행
-            PlayerData finalData = data;
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                if (finalData != null) {
-                    playerDataMap.put(uuid, finalData);
-                    if (callback != null) callback.accept(finalData);
-                }
-            });
-        });
+        // 저장 실패로 대기열에 남아있던 데이터가 있다면 DB보다 최신이므로 그대로 사용
+        PlayerDataSnapshot pending = writeBehindQueue.takePending(uuid);
+        if (pending != null) {
+            PlayerData queued = new PlayerData(plugin, pending);
+            queued.markDirty();
+            activate(uuid, queued);
+            if (callback != null) callback.accept(queued);
+            return;
+        }
+
+        CompletableFuture.supplyAsync(() -> readPlayerData(uuid), ioExecutor)
+                // 메인 스레드로 복귀하여 맵에 저장 및 콜백 실행
+                .thenAccept(data -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (data != null) {
+                        activate(uuid, data);
+                        recordAvailability(requestNanos);
+                        if (callback != null) callback.accept(data);
+                    }
+                }));
+    }
+
+    /**
+     * 저장소에서 동기 로드 (I/O 스레드 / 로그인 처리 스레드 전용)
+     * @return 로드된 데이터 (신규 유저면 새 데이터), 저장소 오류면 null
+     */
+    private PlayerData readPlayerData(UUID uuid) {
+        try {
+            // 저장소 장애 중 디스크 대기열에 보관된 데이터가 있으면 그쪽이 최신
+            PlayerDataSnapshot spilled = writeBehindQueue.getSpilled(uuid);
+            if (spilled != null && !isSpillStale(spilled)) return new PlayerData(plugin, spilled);
+
+            long start = System.nanoTime();
+            PlayerData data = storage.load(uuid);
+            PerfMetrics.STORAGE_LOAD.recordSince(start);
+            return data != null ? data : new PlayerData(plugin, uuid); // 신규 유저
+        } catch (Exception e) {
+            // 빈 데이터로 대신하면 다음 저장에서 기존 데이터를 덮어쓰므로 로드하지 않음
+            plugin.getLogger().log(Level.SEVERE, "데이터 로드 중 치명적 오류: " + uuid, e);
+            return null;
+        }
+    }
+
+    /**
+     * 디스크 대기열 스냅샷 이후 다른 서버가 행을 저장했는지 (I/O 스레드)
+     * - 오래된 스냅샷으로 로드하면 기록 시 충돌이 나도 접속 중 유저로 보고 다시 기록하므로 로드 전에 확인
+     * - 확인할 수 없으면 (DB 장애 중) 대기열 스냅샷 사용, 대기열 항목은 기록 시 충돌로 처리됨
+     */
+    private boolean isSpillStale(PlayerDataSnapshot spilled) {
+        long expected = spilled.rowVersion() != null ? spilled.rowVersion().get() : RowVersion.UNKNOWN;
+        if (expected == RowVersion.UNKNOWN || !(storage instanceof PostgresStorage postgres)) return false;
+        try {
+            long current = postgres.getDatabaseManager().loadVersion(spilled.uuid());
+            if (current == expected) return false;
+            plugin.getLogger().warning("[Spill] 다른 서버가 저장한 뒤라 디스크 대기열 데이터 대신 저장소에서 로드: " + spilled.uuid());
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
     }
 
     // 단순 로드용 오버로딩 (콜백 없음)
@@ -105,53 +483,44 @@ public class PlayerDataManager {
             return;
         }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            boolean success = false;
-            try {
-                if (plugin.getConfig().getBoolean("database.enabled") && dbManager != null) {
-                    dbManager.savePlayerData(data);
-                    success = true;
-                } else {
-                    File folder = new File(plugin.getDataFolder() + "/playerdata");
-                    if (!folder.exists()) folder.mkdirs();
-                    
-                    File playerFile = new File(folder, uuid.toString() + ".yml");
-                    data.saveToFile(playerFile);
-                    success = true;
-                }
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "데이터 저장 실패: " + uuid, e);
-            }
+        // 마지막 저장 이후 변경이 없으면 저장 생략
+        if (!data.isDirty()) {
+            if (callback != null) callback.accept(true);
+            return;
+        }
+
+        // 메인 스레드에서 스냅샷을 떠서 저장 스레드에는 불변 데이터만 전달
+        PlayerDataSnapshot snapshot = data.snapshot();
+        data.clearDirty();
+        // 비동기 작업이 실행되기 전에 서버가 종료되어도 종료 저장에서 기록되도록 먼저 큐에 등록
+        writeBehindQueue.enqueue(snapshot);
 
+        // 실패 시 큐에 남아 퇴장 후에도 다음 자동 저장에서 재시도됨
+        CompletableFuture.supplyAsync(() -> writeBehindQueue.writeNow(snapshot), ioExecutor).thenAccept(success -> {
             if (callback != null) {
-                boolean finalSuccess = success;
-                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(finalSuccess));
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(success));
             }
         });
     }
 
     /**
-     * 전체 데이터 저장 (자동 저장용)
+     * 전체 데이터 저장 (자동 저장용, 메인 스레드에서 호출)
+     * - 변경된 유저만 스냅샷을 떠서 Write-Behind 큐를 통해 비동기 배치 저장
      */
     public void saveAllPlayerData() {
-        if (playerDataMap.isEmpty()) return;
-        
-        plugin.getLogger().info("[AutoSave] 온라인 유저 데이터 저장을 시작합니다...");
-        for (PlayerData data : playerDataMap.values()) {
-            try {
-                if (plugin.getConfig().getBoolean("database.enabled") && dbManager != null) {
-                    dbManager.savePlayerData(data);
-                } else {
-                    // 파일 모드 저장 로직 (생략 가능하지만 안전을 위해 유지)
-                    File folder = new File(plugin.getDataFolder() + "/playerdata");
-                    if (!folder.exists()) folder.mkdirs();
-                    File playerFile = new File(folder, data.getUuid().toString() + ".yml");
-                    data.saveToFile(playerFile);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+        long start = System.nanoTime();
+        writeBehindQueue.capture(playerDataMap.values());
+        if (writeBehindQueue.getPendingCount() == 0) return;
+
+        CompletableFuture.supplyAsync(writeBehindQueue::flush, ioExecutor).thenAccept(result -> {
+            PerfMetrics.AUTOSAVE.recordSince(start);
+            if (result.getWritten() > 0 || result.getFailed() > 0 || result.getSpilled() > 0 || result.getConflicts() > 0) {
+                plugin.getLogger().info("[AutoSave] 저장 " + result.getWritten() + "명, 변경 없음 " + result.getSkipped()
+                        + "명, 실패 " + result.getFailed() + "명, 디스크 보관 " + result.getSpilled() + "명, 버전 충돌 " + result.getConflicts()
+                        + "명 (" + result.getElapsedMillis() + "ms)"
+                        + (storage.isRemote() ? ", 생략 " + result.getSavedColumns() + "컬럼/" + result.getSavedBytes() + "B" : ""));
             }
-        }
+        });
     }
 
     public PlayerData getPlayerData(UUID uuid) {
@@ -160,27 +529,112 @@ public class PlayerDataManager {
 
     public void unloadPlayerData(UUID uuid) {
         playerDataMap.remove(uuid);
+        if (autosave != null) autosave.unregister(uuid);
+    }
+
+    /**
+     * 퇴장 저장 완료 후 호출 (메인 스레드)
+     * - 저장 성공 + 이후 변경 없음 → warm 캐시로 이동 (제거되어도 저장소와 내용이 같음)
+     * - 저장 실패 또는 이후 변경됨 → 변경분을 저장 대기열에 넘기고 메모리에서 제거 (재접속 시 대기열에서 복구)
+     */
+    public void releasePlayerData(UUID uuid, boolean saved) {
+        PlayerData data = playerDataMap.get(uuid);
+        if (data == null) return;
+
+        if (warmCache != null && saved && !data.isDirty()) {
+            warmCache.put(data); // 맵에서 빼기 전에 넣어서 선로딩이 중간 상태를 보지 않도록
+        } else if (data.isDirty()) {
+            writeBehindQueue.capture(List.of(data));
+        }
+        playerDataMap.remove(uuid);
+        if (autosave != null) autosave.unregister(uuid);
+        if (sessions != null) releaseSession(uuid, saved);
     }
 
     /**
      * 서버 종료 시 동기 저장 (필수)
+     * - 전체 스냅샷을 뜬 뒤 청크 단위로 병렬 기록 (DB 모드: 커넥션 풀 크기만큼)
+     * - 제한 시간(save.shutdown.deadline-seconds) 안에 기록하지 못한 데이터는 비상 파일로 기록 → 다음 시작 시 재기록
      */
     public void shutdown() {
-        plugin.getLogger().info("서버 종료: 전체 데이터를 동기화 방식으로 저장합니다.");
-        for (PlayerData data : playerDataMap.values()) {
+        plugin.getLogger().info("서버 종료: 변경된 데이터를 동기화 방식으로 저장합니다.");
+        for (Prefetched staged : prefetched.values()) release(staged); // 대기열에서 꺼낸 선로딩 데이터 반환
+        prefetched.clear();
+        if (autosave != null) autosave.stop();
+        if (archiver != null) archiver.stop();
+        writeBehindQueue.capture(playerDataMap.values());
+
+        int parallelism = 1;
+        if (storage.isRemote()) {
+            int poolSize = plugin.getConfig().getInt("database.pool-size", 10);
+            int configured = plugin.getConfig().getInt("save.shutdown.parallelism", 0);
+            parallelism = Math.max(1, configured > 0 ? Math.min(configured, poolSize) : poolSize);
+        }
+        long deadlineMillis = Math.max(1, plugin.getConfig().getLong("save.shutdown.deadline-seconds", 20)) * 1000L;
+        WriteBehindQueue.FlushResult result = writeBehindQueue.flush(parallelism, deadlineMillis);
+
+        List<PlayerDataSnapshot> leftover = writeBehindQueue.drainPending();
+        if (!leftover.isEmpty()) {
+            plugin.getLogger().severe("종료 저장 실패/시간 초과: " + leftover.size() + "명 → 비상 파일에 기록합니다.");
             try {
-                if (plugin.getConfig().getBoolean("database.enabled") && dbManager != null) {
-                    dbManager.savePlayerData(data);
-                } else {
-                    File folder = new File(plugin.getDataFolder() + "/playerdata");
-                    if (!folder.exists()) folder.mkdirs();
-                    File playerFile = new File(folder, data.getUuid().toString() + ".yml");
-                    data.saveToFile(playerFile);
-                }
+                emergencySpill.write(leftover);
+                plugin.getLogger().warning("[Spill] " + leftover.size() + "명 기록 완료: " + emergencySpill.getFile().getName() + " (다음 시작 시 재기록)");
             } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "종료 저장 실패: " + data.getUuid(), e);
+                plugin.getLogger().log(Level.SEVERE, "[Spill] 비상 파일 기록 실패! 데이터가 유실될 수 있습니다.", e);
             }
         }
+        if (sessions != null) {
+            Set<UUID> unsaved = new HashSet<>();
+            leftover.forEach(snapshot -> unsaved.add(snapshot.uuid()));
+            sessions.releaseAll(uuid -> unsaved.contains(uuid) || writeBehindQueue.isQueued(uuid));
+        }
+        plugin.getLogger().info("종료 저장 완료: " + result.getWritten() + "명 저장, " + result.getSkipped() + "명 변경 없음 ("
+                + result.getElapsedMillis() + "ms, 병렬 " + parallelism + ")");
+
+        // 진행 중인 로드/저장 작업이 끝난 뒤에 저장소를 닫음 (남은 저장분은 위에서 이미 기록됨)
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) ioExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ioExecutor.shutdownNow();
+        }
+        writeBehindQueue.close();
+        storage.saveAllOnShutdown();
         playerDataMap.clear();
+        if (warmCache != null) warmCache.clear();
+    }
+
+    /** 메모리에 최신 데이터가 있는 유저 (접속 중 + 선로딩 + warm 캐시 + 저장 대기), 가져오기에서 건너뜀 */
+    public Set<UUID> getResidentUuids() {
+        Set<UUID> resident = new HashSet<>(playerDataMap.keySet());
+        resident.addAll(prefetched.keySet());
+        if (warmCache != null) resident.addAll(warmCache.keys());
+        resident.addAll(writeBehindQueue.getPendingUuids());
+        return resident;
     }
+
+    public WriteBehindQueue getWriteBehindQueue() { return writeBehindQueue; }
+    public Storage getStorage() { return storage; }
+    public PlayerJournal getJournal() { return storage instanceof FileStorage file ? file.getJournal() : null; }
+    public WarmCache getWarmCache() { return warmCache; }
+    public LevelLeaderboard getLeaderboard() { return leaderboard; }
+    public StaggeredAutosave getAutosave() { return autosave; }
+    public PlayerSessions getSessions() { return sessions; }
+    public InactiveArchiver getArchiver() { return archiver; }
+
+    // --- 선로딩 / 접속 지연 통계 Getter ---
+    public int getPrefetchedCount() { return prefetched.size(); }
+    public long getPrefetchHits() { return prefetchHits.get(); }
+    public long getPrefetchMisses() { return prefetchMisses.get(); }
+    public long getPrefetchEvicted() { return prefetchEvicted.get(); }
+    public long getLastAvailabilityMillis() { return lastAvailabilityMillis; }
+    public long getMaxAvailabilityMillis() { return availabilityMaxMillis.get(); }
+    public double getAverageAvailabilityMillis() {
+        long count = availabilityCount.get();
+        return count == 0 ? 0 : (double) availabilityTotalMillis.get() / count;
+    }
+
+    /** 선로딩된 데이터 + 접속(로그인 처리 시작) 시각 */
+    private record Prefetched(PlayerData data, long loginNanos) {}
 }
\ No newline at end of file
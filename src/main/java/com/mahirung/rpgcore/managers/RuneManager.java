@@ -60,6 +60,9 @@ public class RuneManager {
         return (id != null) ? runeCache.get(id) : null;
     }
 
+    /** 장비에 기록된 룬 ID(rpgcore_runes_list 항목)로 조회 */
+    public RuneData getRuneDataById(String id) { return runeCache.get(id); }
+
     public boolean isRune(ItemStack item) { return getRuneData(item) != null; }
 
     public boolean isRuneRemovalItem(ItemStack item) {
@@ -117,5 +120,6 @@ public class RuneManager {
         public RuneData(String id, List<String> app, Map<String, Double> stats) { this.id = id; this.applicableTo = app; this.stats = stats; }
         public String getId() { return id; }
         public List<String> getApplicableTo() { return applicableTo; }
+        public Map<String, Double> getStats() { return stats; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.mahirung.rpgcore.managers;
+
+import com.mahirung.rpgcore.RPGCore;
+import com.mahirung.rpgcore.data.CombatStats;
+import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.util.ItemUtil;
+import com.mahirung.rpgcore.util.PerfMetrics;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.*;
+
+/**
+ * 장비 스탯 집계 매니저
+ * - 주 손 + 방어구 4칸의 강화 레벨(enhancing.yml stat-bonus-per-level)과 룬 스탯(runes.yml)을 합산해서 PlayerData 보너스 스탯에 반영
+ * - 장비 지문(5칸 아이템 해시 + 설정 세대)이 같으면 재계산 생략 → ItemMeta 복사/룬 JSON 파싱은 장비가 실제로 바뀐 경우만
+ * - 장비 변경 이벤트는 requestRefresh 로 모아서 다음 틱에 1회 처리 (같은 틱의 클릭 여러 번 → 재계산 1회)
+ * - 타격/피격은 PlayerData.getCombatStats() 필드 읽기만 수행
+ */
+public class StatManager {
+
+    private final RPGCore plugin;
+    private final PlayerDataManager playerDataManager;
+    private final EnhanceManager enhanceManager;
+    private final RuneManager runeManager;
+
+    private final Set<UUID> pending = new LinkedHashSet<>();
+    private long generation = 1; // 설정 리로드 시 증가 → 모든 지문 무효화
+
+    // --- 통계 ---
+    private long rebuilds;
+    private long skipped;
+
+    public StatManager(RPGCore plugin) {
+        this.plugin = plugin;
+        this.playerDataManager = plugin.getPlayerDataManager();
+        this.enhanceManager = plugin.getEnhanceManager();
+        this.runeManager = plugin.getRuneManager();
+    }
+
+    /** 장비가 바뀌었을 수 있음 (메인 스레드, 이벤트 시점에는 인벤토리가 아직 갱신 전이므로 다음 틱에 처리) */
+    public void requestRefresh(Player player) {
+        if (pending.add(player.getUniqueId()) && pending.size() == 1) {
+            Bukkit.getScheduler().runTask(plugin, this::flushPending);
+        }
+    }
+
+    private void flushPending() {
+        for (UUID uuid : pending) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) refresh(player, false);
+        }
+        pending.clear();
+    }
+
+    /** 설정 리로드 후: 지문 무효화 + 접속 중인 유저 전원 재계산 */
+    public void refreshAll() {
+        generation++;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player, true);
+        }
+    }
+
+    /**
+     * 장비 보너스 재계산 (메인 스레드)
+     * @param force 지문이 같아도 재계산 (데이터 로드 직후: 저장된 보너스가 현재 장비와 다를 수 있음)
+     */
+    public void refresh(Player player, boolean force) {
+        PlayerData data = playerDataManager.getPlayerData(player.getUniqueId());
+        if (data == null) return;
+
+        PlayerInventory inventory = player.getInventory();
+        ItemStack weapon = inventory.getItemInMainHand();
+        ItemStack[] armor = inventory.getArmorContents();
+
+        long fingerprint = generation;
+        fingerprint = 31 * fingerprint + itemHash(weapon);
+        for (ItemStack piece : armor) fingerprint = 31 * fingerprint + itemHash(piece);
+        if (!force && fingerprint == data.getEquipmentFingerprint()) {
+            skipped++;
+            return;
+        }
+
+        long start = System.nanoTime();
+        CombatStats bonus = CombatStats.ZERO;
+        if (!isEmpty(weapon) && !isArmor(weapon)) bonus = addItem(bonus, weapon, false); // 들고 있는 방어구는 제외
+        for (ItemStack piece : armor) {
+            if (!isEmpty(piece)) bonus = addItem(bonus, piece, true);
+        }
+        data.applyEquipmentBonus(bonus, fingerprint);
+        rebuilds++;
+        PerfMetrics.STAT_REBUILD.recordSince(start);
+    }
+
+    /** 장비 1개의 강화 + 룬 스탯 합산 */
+    private CombatStats addItem(CombatStats stats, ItemStack item, boolean armor) {
+        int enhanceLevel = ItemUtil.getNBTInt(item, EnhanceManager.ENHANCE_LEVEL_NBT_KEY);
+        if (enhanceLevel > 0) {
+            for (Map.Entry<String, Double> entry : enhanceManager.getStatBonusPerLevel(armor).entrySet()) {
+                stats = stats.plus(entry.getKey(), entry.getValue() * enhanceLevel);
+            }
+        }
+        for (String runeId : ItemUtil.getNBTStringList(item, RuneManager.RUNE_LIST_NBT_KEY)) {
+            RuneManager.RuneData rune = runeManager.getRuneDataById(runeId);
+            if (rune == null) continue; // 설정에서 삭제된 룬
+            for (Map.Entry<String, Double> entry : rune.getStats().entrySet()) {
+                stats = stats.plus(entry.getKey(), entry.getValue());
+            }
+        }
+        return stats;
+    }
+
+    private static int itemHash(ItemStack item) {
+        return isEmpty(item) ? 0 : item.hashCode();
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType().isAir();
+    }
+
+    private static boolean isArmor(ItemStack item) {
+        String name = item.getType().name();
+        return name.endsWith("_HELMET") || name.endsWith("_CHESTPLATE") || name.endsWith("_LEGGINGS") || name.endsWith("_BOOTS");
+    }
+
+    public long getRebuilds() { return rebuilds; }
+    public long getSkipped() { return skipped; }
+}
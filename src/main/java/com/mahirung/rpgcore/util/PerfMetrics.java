@@ -0,0 +1,40 @@
+package com.mahirung.rpgcore.util;
+
+import java.util.List;
+
+/**
+ * 저장 경로 지연 시간 측정 지점 모음 (/rpgcore perf 로 출력, 장비 스탯 재계산 포함)
+ * - 정적 히스토그램이라 어느 계층(DB/저장소/매니저)에서도 인스턴스 전달 없이 기록
+ * - 값은 플러그인이 켜진 이후 누적 (/rpgcore perf reset 으로 초기화)
+ */
+public final class PerfMetrics {
+
+    public static final LatencyHistogram DB_CONNECTION = new LatencyHistogram("DB 커넥션 획득");
+    public static final LatencyHistogram DB_EXECUTE = new LatencyHistogram("DB 배치 실행+커밋");
+    public static final LatencyHistogram DB_QUERY = new LatencyHistogram("DB 단건 조회");
+    public static final LatencyHistogram YAML_ENCODE = new LatencyHistogram("YAML 직렬화 (custom_nbt)");
+    public static final LatencyHistogram YAML_DECODE = new LatencyHistogram("YAML 역직렬화 (custom_nbt)");
+    public static final LatencyHistogram STATE_ENCODE = new LatencyHistogram("state 인코딩 (배치)");
+    public static final LatencyHistogram STORAGE_LOAD = new LatencyHistogram("저장소 로드 (1명)");
+    public static final LatencyHistogram STORAGE_SAVE = new LatencyHistogram("저장소 배치 저장");
+    public static final LatencyHistogram JOIN_TO_LOADED = new LatencyHistogram("접속 → 데이터 사용 가능");
+    public static final LatencyHistogram AUTOSAVE = new LatencyHistogram("자동 저장 (캡처 + 플러시)");
+    public static final LatencyHistogram ARCHIVE_BATCH = new LatencyHistogram("비활성 보관 이동 (묶음)");
+    public static final LatencyHistogram ARCHIVE_PROMOTE = new LatencyHistogram("보관 데이터 복원 (1명)");
+    public static final LatencyHistogram STAT_REBUILD = new LatencyHistogram("장비 스탯 재계산 (1명)");
+
+    private static final List<LatencyHistogram> ALL = List.of(
+            DB_CONNECTION, DB_EXECUTE, DB_QUERY, YAML_ENCODE, YAML_DECODE, STATE_ENCODE,
+            STORAGE_LOAD, STORAGE_SAVE, JOIN_TO_LOADED, AUTOSAVE, ARCHIVE_BATCH, ARCHIVE_PROMOTE,
+            STAT_REBUILD);
+
+    private PerfMetrics() {
+        throw new UnsupportedOperationException("이 클래스는 인스턴스화할 수 없습니다.");
+    }
+
+    public static List<LatencyHistogram> all() { return ALL; }
+
+    public static void resetAll() {
+        ALL.forEach(LatencyHistogram::reset);
+    }
+}
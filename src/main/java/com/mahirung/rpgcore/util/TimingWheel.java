@@ -0,0 +1,127 @@
+package com.mahirung.rpgcore.util;
+
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (단일 스레드 전용)
+ * - 3단계 × 64칸 (1단계: 1단위, 2단계: 64단위, 3단계: 4096단위) → 최대 262,143단위 앞까지 예약, 그 이상은 끝 칸에 두고 재배치
+ * - 항목이 Entry 를 상속해서 리스트 링크를 직접 가짐 → 예약/취소 O(1), 할당 없음
+ * - advance 는 지나간 칸만 처리 (상위 칸은 경계에서 하위 단계로 내려보냄) → 비용 O(경과 단위 + 만료 항목), 전체 순회 없음
+ * - 시간 단위는 호출하는 쪽이 정함 (advance 에 넘기는 값과 같은 단위로 deadline 지정)
+ */
+public final class TimingWheel<T extends TimingWheel.Entry> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+    private static final long MAX_DELTA = (1L << (BITS * LEVELS)) - 1;
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private long now;
+    private int size;
+
+    public TimingWheel(long start) {
+        this.now = start;
+    }
+
+    /** 예약 (이미 예약된 항목이면 옮김), 이미 지난 시각이면 다음 advance 에서 만료 */
+    public void schedule(T item, long deadline) {
+        Entry entry = item;
+        if (entry.level >= 0) unlink(entry); // 옮기는 경우 size 는 그대로
+        else size++;
+        entry.deadline = deadline;
+        insert(entry, now + 1); // 지난 시각 → 다음 단위에 만료
+    }
+
+    /** 예약 취소 (예약되지 않은 항목이면 무시) */
+    public void cancel(T item) {
+        Entry entry = item;
+        if (entry.level < 0) return;
+        unlink(entry);
+        size--;
+    }
+
+    /**
+     * 시각을 to 까지 진행하며 만료된 항목 전달
+     * - 콜백 안에서 같은 항목을 다시 schedule 해도 됨 (지연 재예약)
+     */
+    @SuppressWarnings("unchecked")
+    public void advance(long to, Consumer<T> expired) {
+        while (now < to) {
+            now++;
+            int index = (int) (now & MASK);
+            // 하위 단계가 한 바퀴 돌았으면 상위 칸을 내려보냄
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((now >>> (BITS * level)) & MASK);
+                cascade(level, index);
+            }
+
+            int slot = (int) (now & MASK);
+            Entry entry = slots[0][slot];
+            slots[0][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.prev = entry.next = null;
+                entry.level = -1;
+                if (entry.deadline <= now) {
+                    size--;
+                    expired.accept((T) entry);
+                } else {
+                    insert(entry, now + 1); // 범위를 넘어 끝 칸에 있던 항목
+                }
+                entry = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int index) {
+        Entry entry = slots[level][index];
+        slots[level][index] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = entry.next = null;
+            insert(entry, now); // 지금 만료될 항목은 바로 이어서 처리하는 현재 칸으로
+            entry = next;
+        }
+    }
+
+    private void insert(Entry entry, long earliest) {
+        long deadline = Math.max(entry.deadline, earliest);
+        long delta = deadline - now;
+        if (delta > MAX_DELTA) deadline = now + MAX_DELTA;
+
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline - now) >= (1L << (BITS * (level + 1)))) level++;
+        int index = (int) ((deadline >>> (BITS * level)) & MASK);
+
+        entry.level = level;
+        entry.slot = index;
+        entry.prev = null;
+        entry.next = slots[level][index];
+        if (entry.next != null) entry.next.prev = entry;
+        slots[level][index] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) entry.prev.next = entry.next;
+        else slots[entry.level][entry.slot] = entry.next;
+        if (entry.next != null) entry.next.prev = entry.prev;
+        entry.prev = entry.next = null;
+        entry.level = -1;
+    }
+
+    public long getNow() { return now; }
+    public int size() { return size; }
+
+    /** 휠에 넣을 항목의 기반 클래스 (링크 필드) */
+    public abstract static class Entry {
+        private Entry prev, next;
+        private long deadline;
+        private int level = -1;
+        private int slot;
+
+        public boolean isScheduled() { return level >= 0; }
+        public long getDeadline() { return deadline; }
+    }
+}
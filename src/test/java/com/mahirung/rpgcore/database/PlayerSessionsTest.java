@@ -0,0 +1,183 @@
+package com.mahirung.rpgcore.database;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세션 소유권 (rpg_player_session) 을 내장 H2 (PostgreSQL 호환 모드) 에서 두 서버로 검증
+ */
+class PlayerSessionsTest {
+
+    private static final Logger LOGGER = Logger.getLogger("PlayerSessionsTest");
+    private static final long LEASE_MILLIS = 30_000;
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive;
+    private ExecutorService executor;
+    private PlayerSessions serverA;
+    private PlayerSessions serverB;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        keepAlive = dataSource.getConnection();
+        new SchemaMigrator(dataSource, LOGGER).migrate(PlayerDataMigrations.all(LOGGER, 100));
+
+        executor = Executors.newFixedThreadPool(2);
+        serverA = new PlayerSessions(dataSource, "server-a", LEASE_MILLIS, 2_000, 20, executor, LOGGER);
+        serverB = new PlayerSessions(dataSource, "server-b", LEASE_MILLIS, 2_000, 20, executor, LOGGER);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        executor.shutdownNow();
+        keepAlive.close();
+    }
+
+    @Test
+    void claimIsExclusiveUntilReleased() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+        assertTrue(serverA.tryClaim(uuid)); // 이미 소유 중이면 그대로 성공
+        assertFalse(serverB.tryClaim(uuid));
+        assertEquals("server-a", owner(uuid));
+
+        serverA.release(uuid);
+        awaitOwner(uuid, null);
+        assertFalse(serverA.isOwned(uuid));
+        assertTrue(serverB.tryClaim(uuid));
+        assertEquals("server-b", owner(uuid));
+    }
+
+    @Test
+    void claimWaitsForPreviousServerRelease() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+
+        CompletableFuture<Boolean> waiting = serverB.claim(uuid);
+        Thread.sleep(100);
+        assertFalse(waiting.isDone()); // 이전 서버가 아직 소유 중
+
+        serverA.release(uuid);
+        assertTrue(waiting.get(2, TimeUnit.SECONDS));
+        assertTrue(serverB.isOwned(uuid));
+    }
+
+    @Test
+    void claimGivesUpAfterWaitTime() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+        PlayerSessions impatient = new PlayerSessions(dataSource, "server-c", LEASE_MILLIS, 100, 20, executor, LOGGER);
+
+        assertFalse(impatient.claim(uuid).get(2, TimeUnit.SECONDS));
+        assertEquals("server-a", owner(uuid));
+    }
+
+    @Test
+    void expiredLeaseCanBeTaken() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+        setHeartbeat(uuid, System.currentTimeMillis() - LEASE_MILLIS - 1_000); // 서버 A 가 죽어서 갱신이 멈춤
+
+        assertTrue(serverB.tryClaim(uuid));
+        assertEquals("server-b", owner(uuid));
+    }
+
+    @Test
+    void heartbeatKeepsLeaseAlive() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+        long stale = System.currentTimeMillis() - LEASE_MILLIS + 5_000;
+        setHeartbeat(uuid, stale);
+
+        serverA.heartbeat(queued -> false);
+        assertTrue(heartbeat(uuid) > stale);
+        assertFalse(serverB.tryClaim(uuid));
+    }
+
+    @Test
+    void lingeringSessionReleasedOnceSaveIsWritten() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(uuid));
+        serverA.linger(uuid);
+        assertEquals(1, serverA.getLingeringCount());
+
+        serverA.heartbeat(queued -> true); // 저장이 아직 대기 중 → 유지
+        assertEquals("server-a", owner(uuid));
+
+        serverA.heartbeat(queued -> false); // 기록 확인 → 반환
+        awaitOwner(uuid, null);
+        assertEquals(0, serverA.getLingeringCount());
+        assertTrue(serverB.tryClaim(uuid));
+    }
+
+    @Test
+    void releaseAllKeepsUnsavedPlayers() throws Exception {
+        UUID saved = UUID.randomUUID();
+        UUID unsaved = UUID.randomUUID();
+        assertTrue(serverA.tryClaim(saved));
+        assertTrue(serverA.tryClaim(unsaved));
+
+        serverA.releaseAll(unsaved::equals);
+        assertNull(owner(saved));
+        assertEquals("server-a", owner(unsaved)); // lease 만료 전까지 다른 서버가 로드하지 않음
+        assertEquals(0, serverA.getOwnedCount());
+    }
+
+    private void awaitOwner(UUID uuid, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (System.currentTimeMillis() < deadline) {
+            String owner = owner(uuid);
+            if (expected == null ? owner == null : expected.equals(owner)) return;
+            Thread.sleep(10);
+        }
+        assertEquals(expected, owner(uuid));
+    }
+
+    private String owner(UUID uuid) throws SQLException {
+        try (PreparedStatement ps = keepAlive.prepareStatement("SELECT server_id FROM rpg_player_session WHERE uuid = ?")) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private long heartbeat(UUID uuid) throws SQLException {
+        try (PreparedStatement ps = keepAlive.prepareStatement("SELECT heartbeat FROM rpg_player_session WHERE uuid = ?")) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getTimestamp(1).getTime();
+            }
+        }
+    }
+
+    private void setHeartbeat(UUID uuid, long millis) throws SQLException {
+        try (PreparedStatement ps = keepAlive.prepareStatement("UPDATE rpg_player_session SET heartbeat = ? WHERE uuid = ?")) {
+            ps.setTimestamp(1, new Timestamp(millis));
+            ps.setString(2, uuid.toString());
+            ps.executeUpdate();
+        }
+    }
+}
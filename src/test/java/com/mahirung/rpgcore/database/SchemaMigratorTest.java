@@ -0,0 +1,192 @@
+package com.mahirung.rpgcore.database;
+
+import com.mahirung.rpgcore.data.PlayerData;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PostgreSQL 마이그레이션 (PlayerDataMigrations.all) 을 내장 H2 PostgreSQL 호환 모드에서 실행
+ * - 기존 배포본의 v1 테이블(schema_version 없음)에 행을 넣어두고 최신 버전까지 올림
+ */
+class SchemaMigratorTest {
+
+    private static final Logger LOGGER = Logger.getLogger("SchemaMigratorTest");
+    private static final int BACKFILL_BATCH = 7; // 키셋 배치 경계가 여러 번 생기도록 작게
+
+    private JdbcDataSource dataSource;
+    private Connection keepAlive; // 메모리 DB 는 마지막 커넥션이 닫히면 사라짐
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        keepAlive = dataSource.getConnection();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    void migratesLegacyTableToLatestVersion() throws SQLException {
+        int rows = 40;
+        createLegacyTable(rows);
+
+        List<Migration> migrations = PlayerDataMigrations.all(LOGGER, BACKFILL_BATCH);
+        int latest = migrations.stream().mapToInt(Migration::version).max().orElseThrow();
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, LOGGER);
+
+        assertEquals(migrations.size(), migrator.migrate(migrations));
+        assertEquals(latest, migrator.getCurrentVersion());
+        assertEquals(migrations.size(), count("SELECT COUNT(*) FROM schema_version"));
+
+        // v4 백필: 모든 행의 필요 경험치가 레벨 공식과 같음
+        try (Statement st = keepAlive.createStatement();
+             ResultSet rs = st.executeQuery("SELECT level, required_exp, version FROM rpg_player_data")) {
+            int checked = 0;
+            while (rs.next()) {
+                int level = rs.getInt("level");
+                assertEquals(PlayerData.calculateRequiredExpForLevel(level), rs.getDouble("required_exp"), "level " + level);
+                assertEquals(1L, rs.getLong("version")); // v5: 기존 행은 버전 1부터
+                checked++;
+            }
+            assertEquals(rows, checked);
+        }
+
+        // 이후 버전에서 추가된 테이블
+        assertEquals(0, count("SELECT COUNT(*) FROM rpg_player_session"));
+        assertEquals(0, count("SELECT COUNT(*) FROM rpg_player_archive"));
+    }
+
+    @Test
+    void secondRunIsNoOp() throws SQLException {
+        createLegacyTable(5);
+        List<Migration> migrations = PlayerDataMigrations.all(LOGGER, BACKFILL_BATCH);
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, LOGGER);
+        migrator.migrate(migrations);
+        int version = migrator.getCurrentVersion();
+
+        assertEquals(0, migrator.migrate(migrations));
+        assertEquals(version, migrator.getCurrentVersion());
+        assertEquals(migrations.size(), count("SELECT COUNT(*) FROM schema_version"));
+    }
+
+    @Test
+    void backfillSkipsRowsAlreadyFilled() throws SQLException {
+        createLegacyTable(0);
+        List<Migration> migrations = PlayerDataMigrations.all(LOGGER, BACKFILL_BATCH);
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, LOGGER);
+        migrator.migrate(migrations.subList(0, 3)); // v1 ~ v3 (required_exp 컬럼까지)
+
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("INSERT INTO rpg_player_data (uuid, level, required_exp) VALUES ('" + UUID.randomUUID() + "', 10, 12345)");
+            st.execute("INSERT INTO rpg_player_data (uuid, level) VALUES ('" + UUID.randomUUID() + "', 10)");
+        }
+        migrator.migrate(migrations);
+
+        assertEquals(1, count("SELECT COUNT(*) FROM rpg_player_data WHERE required_exp = 12345"));
+        assertEquals(0, count("SELECT COUNT(*) FROM rpg_player_data WHERE required_exp IS NULL"));
+    }
+
+    @Test
+    void freshDatabaseStartsFromEmptySchema() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, LOGGER);
+        assertEquals(0, migrator.getCurrentVersion());
+
+        List<Migration> migrations = PlayerDataMigrations.all(LOGGER, BACKFILL_BATCH);
+        migrator.migrate(migrations);
+        assertEquals(0, count("SELECT COUNT(*) FROM rpg_player_data"));
+        assertTrue(columnExists("rpg_player_data", "state"));
+        assertFalse(columnExists("rpg_player_data", "no_such_column"));
+    }
+
+    @Test
+    void versionRecordedByAnotherServerIsTreatedAsApplied() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(dataSource, LOGGER);
+        migrator.getCurrentVersion(); // schema_version 생성
+
+        // 버전 조회 이후 다른 서버가 같은 버전을 먼저 기록한 상황 (잠금이 없는 DB)
+        Migration racing = new Migration() {
+            @Override public int version() { return 1; }
+            @Override public String description() { return "racing"; }
+            @Override public void apply(Connection conn) throws SQLException {
+                try (Statement st = keepAlive.createStatement()) {
+                    st.execute("CREATE TABLE IF NOT EXISTS raced (id INT)");
+                    st.execute("INSERT INTO schema_version (version, description) VALUES (1, 'other server')");
+                }
+            }
+        };
+        Migration backfill = new Migration() {
+            @Override public int version() { return 2; }
+            @Override public String description() { return "backfill"; }
+            @Override public boolean transactional() { return false; }
+            @Override public void apply(Connection conn) throws SQLException {
+                try (Statement st = keepAlive.createStatement()) {
+                    st.execute("INSERT INTO schema_version (version, description) VALUES (2, 'other server')");
+                }
+            }
+        };
+
+        assertEquals(0, migrator.migrate(List.of(racing, backfill)));
+        assertEquals(2, migrator.getCurrentVersion());
+        assertEquals(1, count("SELECT COUNT(*) FROM schema_version WHERE description = 'other server' AND version = 1"));
+        assertEquals(0, migrator.migrate(List.of(racing, backfill)));
+    }
+
+    /** 마이그레이션 도입 전 배포본과 같은 테이블 + 레벨이 다양한 행 */
+    private void createLegacyTable(int rows) throws SQLException {
+        try (Statement st = keepAlive.createStatement()) {
+            st.execute("CREATE TABLE rpg_player_data (" +
+                    "uuid VARCHAR(36) PRIMARY KEY, " +
+                    "player_class VARCHAR(32), " +
+                    "level INT DEFAULT 1, " +
+                    "exp DOUBLE PRECISION DEFAULT 0, " +
+                    "base_attack DOUBLE PRECISION DEFAULT 0, " +
+                    "base_defense DOUBLE PRECISION DEFAULT 0, " +
+                    "base_mana DOUBLE PRECISION DEFAULT 100, " +
+                    "current_mana DOUBLE PRECISION DEFAULT 100, " +
+                    "last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+        try (PreparedStatement ps = keepAlive.prepareStatement(
+                "INSERT INTO rpg_player_data (uuid, player_class, level, exp) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                ps.setString(1, UUID.randomUUID().toString());
+                ps.setString(2, "warrior");
+                ps.setInt(3, i == rows - 1 ? 100 : 1 + (i * 7) % 99); // 최대 레벨(100) 1행 포함
+                ps.setDouble(4, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement st = keepAlive.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private boolean columnExists(String table, String column) throws SQLException {
+        try (ResultSet rs = keepAlive.getMetaData().getColumns(null, null, table, column)) {
+            return rs.next();
+        }
+    }
+}
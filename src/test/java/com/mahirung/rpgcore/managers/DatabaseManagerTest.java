@@ -0,0 +1,201 @@
+package com.mahirung.rpgcore.managers;
+
+import com.mahirung.rpgcore.data.CustomData;
+import com.mahirung.rpgcore.data.PlayerData;
+import com.mahirung.rpgcore.data.PlayerDataSnapshot;
+import com.mahirung.rpgcore.data.RowVersion;
+import com.mahirung.rpgcore.database.PlayerDataMigrations;
+import com.mahirung.rpgcore.database.SchemaMigrator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 행 버전(CAS) 저장을 내장 H2 (PostgreSQL 호환 모드) 에서 검증
+ * - 버전이 맞는 UPDATE, 버전이 바뀐 행의 충돌 보고, 신규 유저 INSERT-IF-ABSENT, 충돌 후 현재 버전으로 다시 기록
+ */
+class DatabaseManagerTest {
+
+    private static final Logger LOGGER = Logger.getLogger("DatabaseManagerTest");
+
+    private HikariDataSource dataSource;
+    private DatabaseManager db;
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(2);
+        dataSource = new HikariDataSource(config);
+        new SchemaMigrator(dataSource, LOGGER).migrate(PlayerDataMigrations.all(LOGGER, 100));
+        db = new DatabaseManager(dataSource, false, LOGGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void newPlayerIsInsertedAtVersionOne() throws SQLException {
+        PlayerDataSnapshot snapshot = snapshot(UUID.randomUUID(), 5, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT));
+
+        assertEquals(1, save(snapshot));
+        assertTrue(conflicts.isEmpty());
+        assertEquals(1L, snapshot.rowVersion().get());
+        assertEquals(1L, db.loadVersion(snapshot.uuid()));
+        assertEquals(5, level(snapshot.uuid()));
+    }
+
+    @Test
+    void insertIfAbsentReportsRowCreatedByAnotherServer() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        save(snapshot(uuid, 7, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT))); // 다른 서버가 먼저 생성
+
+        PlayerDataSnapshot late = snapshot(uuid, 1, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT));
+        assertEquals(0, save(late));
+        assertEquals(1, conflicts.size());
+        assertSame(late, conflicts.get(0).snapshot());
+        assertEquals(1L, conflicts.get(0).currentVersion());
+        assertEquals(7, level(uuid)); // 덮어쓰지 않음
+        assertEquals(RowVersion.ABSENT, late.rowVersion().get()); // 버전은 호출 측이 결정해서 맞춤
+    }
+
+    @Test
+    void versionedUpdateAppliesOnlyWhenVersionMatches() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        RowVersion version = new RowVersion(RowVersion.ABSENT);
+        save(snapshot(uuid, 1, PlayerData.ALL_FIELDS, version));
+
+        assertEquals(1, save(snapshot(uuid, 2, PlayerData.FIELD_LEVEL, version)));
+        assertEquals(2L, version.get());
+        assertEquals(2L, db.loadVersion(uuid));
+        assertEquals(2, level(uuid));
+
+        // 다른 서버가 그 사이 기록 (버전 2 → 3)
+        RowVersion other = new RowVersion(2L);
+        save(snapshot(uuid, 9, PlayerData.FIELD_LEVEL, other));
+        assertEquals(3L, other.get());
+
+        PlayerDataSnapshot stale = snapshot(uuid, 3, PlayerData.FIELD_LEVEL, version);
+        assertEquals(0, save(stale));
+        assertEquals(1, conflicts.size());
+        assertEquals(3L, conflicts.get(0).currentVersion());
+        assertEquals(9, level(uuid));
+        assertEquals(2L, version.get());
+    }
+
+    @Test
+    void conflictResolvedByReapplyingOnCurrentVersion() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        RowVersion version = new RowVersion(RowVersion.ABSENT);
+        save(snapshot(uuid, 1, PlayerData.ALL_FIELDS, version));
+        save(snapshot(uuid, 9, PlayerData.FIELD_LEVEL, new RowVersion(1L))); // 다른 서버 기록
+
+        assertEquals(0, save(snapshot(uuid, 4, PlayerData.FIELD_LEVEL, version)));
+        Conflict conflict = conflicts.remove(0);
+
+        // WriteBehindQueue 가 다시 기록하기로 한 경우: 현재 버전으로 맞추고 전체 컬럼 기록
+        version.set(conflict.currentVersion());
+        assertEquals(1, save(conflict.snapshot().withDirtyMask(PlayerData.ALL_FIELDS)));
+        assertTrue(conflicts.isEmpty());
+        assertEquals(4, level(uuid));
+        assertEquals(3L, version.get());
+
+        // 이후 저장은 다시 정상적으로 기록됨
+        assertEquals(1, save(snapshot(uuid, 5, PlayerData.FIELD_LEVEL, version)));
+        assertEquals(5, level(uuid));
+    }
+
+    @Test
+    void batchCountsOnlyRowsActuallyWritten() throws SQLException {
+        UUID taken = UUID.randomUUID();
+        save(snapshot(taken, 8, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT)));
+
+        List<PlayerDataSnapshot> batch = List.of(
+                snapshot(UUID.randomUUID(), 1, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT)),
+                snapshot(taken, 1, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT)),
+                snapshot(UUID.randomUUID(), 1, 0, new RowVersion(RowVersion.ABSENT))); // 변경 없음 → 건너뜀
+        assertEquals(2, db.savePlayerDataBatch(batch, (snapshot, current) -> conflicts.add(new Conflict(snapshot, current))));
+        assertEquals(1, conflicts.size());
+        assertEquals(taken, conflicts.get(0).snapshot().uuid());
+        assertEquals(1L, db.getVersionConflicts());
+    }
+
+    @Test
+    void stateFormatUsesSameVersionCheck() throws SQLException {
+        DatabaseManager stateDb = new DatabaseManager(dataSource, true, LOGGER);
+        UUID uuid = UUID.randomUUID();
+        RowVersion version = new RowVersion(RowVersion.ABSENT);
+        stateDb.savePlayerDataBatch(List.of(snapshot(uuid, 1, PlayerData.ALL_FIELDS, version)), this::conflict);
+        assertEquals(1L, version.get());
+
+        stateDb.savePlayerDataBatch(List.of(snapshot(uuid, 6, PlayerData.FIELD_LEVEL, new RowVersion(1L))), this::conflict);
+        assertEquals(0, stateDb.savePlayerDataBatch(List.of(snapshot(uuid, 2, PlayerData.FIELD_LEVEL, version)), this::conflict));
+        assertEquals(1, conflicts.size());
+        assertEquals(2L, conflicts.get(0).currentVersion());
+        assertEquals(6, level(uuid));
+    }
+
+    @Test
+    void insertAbsentSkipsActiveAndArchivedRows() throws SQLException {
+        UUID archived = UUID.randomUUID();
+        UUID active = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        save(snapshot(archived, 3, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT)));
+        assertEquals(1, db.archiveInactive(System.currentTimeMillis() + 60_000, 10, uuid -> false, () -> true));
+        save(snapshot(active, 4, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.ABSENT)));
+
+        assertEquals(1, db.insertAbsentBatch(List.of(
+                snapshot(archived, 9, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.UNKNOWN)),
+                snapshot(active, 9, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.UNKNOWN)),
+                snapshot(fresh, 9, PlayerData.ALL_FIELDS, new RowVersion(RowVersion.UNKNOWN)))));
+        assertEquals(4, level(active)); // 덮어쓰지 않음
+        assertEquals(9, level(fresh));
+        assertEquals(RowVersion.ABSENT, db.loadVersion(archived)); // 보관 행 그대로 (복원 안 됨)
+        assertEquals(0L, db.getVersionConflicts()); // 가져오기는 버전 충돌로 세지 않음
+    }
+
+    private int save(PlayerDataSnapshot snapshot) throws SQLException {
+        return db.savePlayerDataBatch(List.of(snapshot), this::conflict);
+    }
+
+    private void conflict(PlayerDataSnapshot snapshot, long currentVersion) {
+        conflicts.add(new Conflict(snapshot, currentVersion));
+    }
+
+    private int level(UUID uuid) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT level FROM rpg_player_data WHERE uuid = ?")) {
+            ps.setString(1, uuid.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static PlayerDataSnapshot snapshot(UUID uuid, int level, int dirtyMask, RowVersion version) {
+        return new PlayerDataSnapshot(uuid, "warrior", level, 0.0, PlayerData.calculateRequiredExpForLevel(level),
+                10.0, 0.0, 100.0, 0.0, 100.0, 5.0, 0.0, 0.05, 0.0, 1.5, 0.0,
+                new CustomData(), dirtyMask, 0L, version);
+    }
+
+    private record Conflict(PlayerDataSnapshot snapshot, long currentVersion) {}
+}
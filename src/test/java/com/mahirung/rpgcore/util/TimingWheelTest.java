@@ -0,0 +1,65 @@
+package com.mahirung.rpgcore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 타이밍 휠 예약/재예약/취소 시 size 와 만료 시각 검증
+ */
+class TimingWheelTest {
+
+    private static final class Item extends TimingWheel.Entry {}
+
+    @Test
+    void rescheduleDoesNotCountTwice() {
+        TimingWheel<Item> wheel = new TimingWheel<>(0);
+        Item item = new Item();
+        wheel.schedule(item, 10);
+        wheel.schedule(item, 20);
+        wheel.schedule(item, 5_000); // 상위 단계로 이동
+        assertEquals(1, wheel.size());
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(6_000, entry -> expired.add(wheel.getNow()));
+        assertEquals(List.of(5_000L), expired);
+        assertEquals(0, wheel.size());
+        assertFalse(item.isScheduled());
+    }
+
+    @Test
+    void cancelAfterRescheduleEmptiesWheel() {
+        TimingWheel<Item> wheel = new TimingWheel<>(0);
+        Item a = new Item();
+        Item b = new Item();
+        wheel.schedule(a, 3);
+        wheel.schedule(b, 3);
+        wheel.schedule(a, 7);
+        assertEquals(2, wheel.size());
+
+        wheel.cancel(a);
+        wheel.cancel(a); // 이미 취소된 항목은 무시
+        assertEquals(1, wheel.size());
+
+        wheel.advance(10, entry -> {});
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleFromExpiryCallbackCountsOnce() {
+        TimingWheel<Item> wheel = new TimingWheel<>(0);
+        Item item = new Item();
+        wheel.schedule(item, 2);
+
+        int[] fired = {0};
+        wheel.advance(10, entry -> {
+            if (++fired[0] < 3) wheel.schedule(entry, wheel.getNow() + 2);
+        });
+        assertEquals(3, fired[0]);
+        assertEquals(0, wheel.size());
+    }
+}